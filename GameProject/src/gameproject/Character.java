@@ -75,9 +75,9 @@ public class Character {
 
     @Override
     public int hashCode() {
+        // only the name, as in equals
         int hash = 7;
         hash = 59 * hash + Objects.hashCode(this.name);
-        hash = 59 * hash + this.strength;
         return hash;
     }
 
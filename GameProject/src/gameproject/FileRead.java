@@ -7,8 +7,12 @@ package gameproject;
 
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -19,10 +23,28 @@ import java.util.stream.Stream;
 public class FileRead {
 
     private GameBase gb;
-    
+    private final String fileName;      // locales and roads
+    private final String fileName2;     // characters and alliances
+    // names read so far, in lower case, so each road and alliance finds its
+    // ends in constant time instead of a search over the whole game
+    private final HashMap<String, Locale> locais = new HashMap<>();
+    private final HashMap<String, Character> personagens = new HashMap<>();
 
     public FileRead() throws CloneNotSupportedException {
+        this("locais_S.txt", "pers_S2.txt");
+    }
+
+    /**
+     * Reads a world from the given files, for instance locais_XL.txt and
+     * pers_XL.txt
+     *
+     * @param locais file with the locales and roads
+     * @param pers file with the characters and alliances
+     */
+    public FileRead(String locais, String pers) {
         this.gb = new GameBase();
+        this.fileName = locais;
+        this.fileName2 = pers;
         lerMatrix();
         lerMap();
     }
@@ -30,37 +52,56 @@ public class FileRead {
     public GameBase getGamebase(){
     return gb;
     }
-    private void lerMatrix() {
-        String fileName = "locais_S.txt";
+    // First line without the byte order mark some editors write (pers_S.txt)
+    private static String semBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private static String chave(String nome) {
+        return nome.toLowerCase(java.util.Locale.ROOT);
+    }
+
+    // Same result as GameBase.searchForLocal
+    private Locale local(String nome) {
+        Locale l = locais.get(chave(nome));
+        return l != null ? l : gb.searchForLocal(nome);
+    }
 
+    // Same result as GameBase.searchForCharacter
+    private Character personagem(String nome) {
+        Character c = personagens.get(chave(nome));
+        return c != null ? c : gb.searchForCharacter(nome);
+    }
+
+    private void lerMatrix() {
         String line = null;
 
         try {
-            FileReader fileReader
-                    = new FileReader(fileName);
+            InputStreamReader fileReader
+                    = new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8);
 
             BufferedReader bufferedReader
                     = new BufferedReader(fileReader);
 
-            if ((line = bufferedReader.readLine()).equalsIgnoreCase("LOCAIS")) {
-                int i = 0;
+            if (semBom(line = bufferedReader.readLine()).equalsIgnoreCase("LOCAIS")) {
+                // the locales are counted first, so the matrix is sized once
+                ArrayList<String> linhas = new ArrayList<>();
                 while (!(line = bufferedReader.readLine()).equalsIgnoreCase("CAMINHOS")) {
-                  //System.out.println(line);
-                    String[] specifics = line.split(",");
+                    linhas.add(line);
+                }
+                gb.getMatrix().ensureCapacity(gb.getMatrix().numVertices() + linhas.size());
+                for (String linha : linhas) {
+                    String[] specifics = linha.split(",");
                     gb.insertLocale(specifics[0], Integer.parseInt(specifics[1]));
-                    System.out.println(i);
-                    i++;
                 }
-                System.out.println(line);
-                i = 0;
+                for (Locale l : gb.getMatrix().vertices()) {
+                    locais.put(chave(l.getName()), l);
+                }
                 while ((line = bufferedReader.readLine()) != null) {
-                    System.out.println(line);
                     String[] specifics = line.split(",");
-                    Locale l1 = gb.searchForLocal(specifics[0]);
-                    Locale l2 = gb.searchForLocal(specifics[1]);
+                    Locale l1 = local(specifics[0]);
+                    Locale l2 = local(specifics[1]);
                     gb.insertRoads(Integer.parseInt(specifics[2]), l1, l2);
-                    i++;
-                    
                 }
             }
 
@@ -79,34 +120,30 @@ public class FileRead {
     }
 
     private void lerMap() {
-        String fileName2 = "pers_S2.txt";
-
         String line;
 
         try {
-            FileReader fileReader2
-                    = new FileReader(fileName2);
+            InputStreamReader fileReader2
+                    = new InputStreamReader(new FileInputStream(fileName2), StandardCharsets.UTF_8);
 
             BufferedReader bufferedReader2
                     = new BufferedReader(fileReader2);
 
-            if ((line = bufferedReader2.readLine()).equalsIgnoreCase("PERSONAGENS")) {
-                System.out.println(line);
-                while (!(line = bufferedReader2.readLine()).equalsIgnoreCase("ALIANCAS")) {
-                    System.out.println(line);
+            if (semBom(line = bufferedReader2.readLine()).equalsIgnoreCase("PERSONAGENS")) {
+                // ALIANCAS in pers_S, ALIANÇAS in the larger files
+                while (!(line = bufferedReader2.readLine()).equalsIgnoreCase("ALIANCAS")
+                        && !line.equalsIgnoreCase("ALIAN\u00C7AS")) {
                     String[] specifics = line.split(",");
-                    int i = specifics.length;
-                    System.out.println(i);
-                    Locale l1 = gb.searchForLocal(specifics[2]);
+                    Locale l1 = local(specifics[2]);
                     gb.insertCharacter(specifics[0], Integer.parseInt(specifics[1]), l1);
-                    
                 }
-                System.out.println(line);
+                for (Character c : gb.getMap().vertices()) {
+                    personagens.put(chave(c.getName()), c);
+                }
                 while ((line = bufferedReader2.readLine()) != null) {
-                     System.out.println(line);
                     String[] specifics = line.split(",");
-                    Character c1 = gb.searchForCharacter(specifics[0]);
-                    Character c2 = gb.searchForCharacter(specifics[1]);
+                    Character c1 = personagem(specifics[0]);
+                    Character c2 = personagem(specifics[1]);
                     boolean b1 = true;
                     if (specifics[2].equalsIgnoreCase("FALSE")) {
                         b1 = false;
@@ -5,11 +5,17 @@
  */
 package gameproject;
 
-import graphMap.Edge;
+import graphMap.ConcurrentGraph;
+import graphMap.EdgeCursor;
 import graphMap.Graph;
 import graphMap.GraphAlgorithms;
+import graphMap.ShortestPathMatrix;
+import graphCommon.SpanningForest;
 import graphMatrix.AdjacencyMatrixGraph;
+import graphMatrix.DoubleMatrixGraph;
 import graphMatrix.EdgeAsDoubleGraphAlgorithms;
+import graphMatrix.ShortestPathTree;
+import graphMatrix.ShortestPathTreeCache;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -20,12 +26,45 @@ import java.util.LinkedList;
  */
 public class GameBase {
 
+    /**
+     * Maximum number of shortest path trees kept for the locales of matrix
+     */
+    public static final int TAMANHO_CACHE_CAMINHOS = 64;
+
     private AdjacencyMatrixGraph<Locale, Road> matrix;
     private Graph<Character, Aliance> map; // mudar isto para map e nao matrix
+    private DoubleMatrixGraph<Locale> matrixDouble; // matrix com as dificuldades das estradas
+    private long versaoMatrixDouble;
+    private ShortestPathTreeCache<Locale> arvoresCaminhos;
 
     public GameBase() {
         this.matrix = new AdjacencyMatrixGraph<>();
         this.map = new Graph<>(false);
+        this.arvoresCaminhos = new ShortestPathTreeCache<>(TAMANHO_CACHE_CAMINHOS, this::versaoPesos,
+                l -> EdgeAsDoubleGraphAlgorithms.shortestPathTree(getMatrixDouble(), l));
+    }
+
+    /**
+     * Version of the road weights: changes with matrix and with the
+     * difficulty of any road. Both counters only grow, so their sum changes
+     * whenever one of them does. Locale difficulties are read on every call,
+     * they are not part of the cached weights.
+     */
+    private long versaoPesos() {
+        return matrix.version() + Road.versaoDificuldades();
+    }
+
+    /**
+     * Returns matrix with the road difficulties as weights, converting it
+     * again only when matrix or a road difficulty has changed
+     */
+    private DoubleMatrixGraph<Locale> getMatrixDouble() {
+        long versao = versaoPesos();
+        if (matrixDouble == null || versaoMatrixDouble != versao) {
+            matrixDouble = cloneToDouble(matrix);
+            versaoMatrixDouble = versao;
+        }
+        return matrixDouble;
     }
 
     public Locale searchForLocal(String s) {
@@ -86,9 +125,15 @@ public class GameBase {
     }
 
     public double caminhoMaisFacil(AdjacencyMatrixGraph<Locale, Road> matrix, LinkedList<Locale> path, Locale l1, Locale l2) {
-        AdjacencyMatrixGraph<Locale, Double> g = cloneToDouble(matrix);
-
-        double dist = EdgeAsDoubleGraphAlgorithms.shortestPath(g, l1, l2, path);
+        double dist;
+        if (matrix == this.matrix) {
+            // the paths from l1 are kept while the world does not change
+            ShortestPathTree<Locale> arvore = arvoresCaminhos.get(l1);
+            dist = arvore == null ? -1 : arvore.path(l2, path);
+        } else {
+            DoubleMatrixGraph<Locale> g = cloneToDouble(matrix);
+            dist = EdgeAsDoubleGraphAlgorithms.shortestPath(g, l1, l2, path);
+        }
         if (!path.isEmpty()) {
             for (int i = 1; i < path.size(); i++) {
                 dist = dist + path.get(i).getDifficulty();
@@ -97,17 +142,37 @@ public class GameBase {
         return dist;
     }
 
-    public AdjacencyMatrixGraph<Locale, Double> cloneToDouble(AdjacencyMatrixGraph<Locale, Road> graph) {
-
-        AdjacencyMatrixGraph<Locale, Double> clone = new AdjacencyMatrixGraph<>(graph.numVertices());
-
-        for (Locale l : graph.vertices()) {
-            clone.insertVertex(l);
+    /**
+     * Returns the k easiest paths between two locales, in increasing cost,
+     * where the cost is counted as in caminhoMaisFacil (road difficulties plus
+     * the difficulty of every locale after l1). Each road weighs its
+     * difficulty plus half the difficulty of its two locales: on any path
+     * from l1 to l2 that differs from the cost by the same amount, so the
+     * order of the paths is kept.
+     *
+     * @param custos returns the cost of each path
+     * @return up to k paths, null if a locale is not in the world
+     */
+    public LinkedList<LinkedList<Locale>> caminhosMaisFaceis(Locale l1, Locale l2, int k, LinkedList<Double> custos) {
+        if (!matrix.checkVertex(l1) || !matrix.checkVertex(l2)) {
+            return null;
         }
-        for (Road r : graph.edges()) {
-            clone.insertEdge(r.getFirst(), r.getSecond(), (double) r.getDifficulty());
+        DoubleMatrixGraph<Locale> g = new DoubleMatrixGraph<>(matrix,
+                r -> r.getDifficulty() + (r.getFirst().getDifficulty() + r.getSecond().getDifficulty()) / 2.0);
+        LinkedList<LinkedList<Locale>> caminhos = EdgeAsDoubleGraphAlgorithms.kShortestPaths(g, l1, l2, k, custos);
+        double ajuste = (l2.getDifficulty() - l1.getDifficulty()) / 2.0;
+        for (int i = 0; i < custos.size(); i++) {
+            custos.set(i, custos.get(i) + ajuste);
         }
-        return clone;
+        return caminhos;
+    }
+
+    /**
+     * Returns graph with the road difficulties as weights, in a
+     * DoubleMatrixGraph so the path algorithms read them without unboxing
+     */
+    public DoubleMatrixGraph<Locale> cloneToDouble(AdjacencyMatrixGraph<Locale, Road> graph) {
+        return new DoubleMatrixGraph<>(graph, Road::getDifficulty);
     }
 
     public ArrayList<Character> todosAliados(Character dude) {
@@ -125,13 +190,18 @@ public class GameBase {
 
         float power = 0.0f;
 
-        for (Edge<Character, Aliance> edg : map.edges()) {
-            float temp = edg.getElement().getPower();
-            if (temp > power) {
-                power = temp;
-                membros.clear();
-                membros.add(edg.getElement().getFirstCharacter());
-                membros.add(edg.getElement().getSecondCharacter());
+        EdgeCursor<Character, Aliance> cursor = map.edgeCursor();
+        for (Character c : map.vertices()) {
+            cursor.reset(c);
+            while (cursor.next()) {
+                Aliance al = cursor.edge().getElement();
+                float temp = al.getPower();
+                if (temp > power) {
+                    power = temp;
+                    membros.clear();
+                    membros.add(al.getFirstCharacter());
+                    membros.add(al.getSecondCharacter());
+                }
             }
         }
         return power;
@@ -140,78 +210,91 @@ public class GameBase {
     /**
      * ALINEA 1.c)
      *
+     * The locales owned by c are all searched at once: the path pays the
+     * road difficulties, the difficulty of every locale it reaches and, for
+     * locales of other owners, their difficulty plus the owner strength.
+     *
      * @param c
      * @param l
      * @return
      */
     public double conquerLocale(Character c, Locale l, LinkedList<Locale> path) {
         path.clear();
-        double str_conquer = 0;
         if (c == null) {
             return -1;
         }
-        LinkedList<Locale> locales = new LinkedList<>();
-        locales = getLocalesOfC(c);
-        ArrayList<Double> conquerPowers = new ArrayList<>();
-        LinkedList<LinkedList<Locale>> llPaths = new LinkedList<>();
-
-        for (int i = 0; i < locales.size(); i++) {
-            double temp = 0;
-            LinkedList<Locale> tempPath = new LinkedList<>();
-            temp = this.caminhoMaisFacil(matrix, tempPath, locales.get(i), l);
-
-            llPaths.add(tempPath);
-            for (int j = 0; j < tempPath.size(); j++) {
-                if (!tempPath.get(j).getOwner().equals(c)) {
-                    temp = temp + tempPath.get(j).getDifficulty() + tempPath.get(j).getOwner().getStrength();
-
-                }
-            }
-            conquerPowers.add(temp);
-
-        }
-
-        if (llPaths.isEmpty()) {
+        LinkedList<Locale> locales = getLocalesOfC(c);
+        if (locales.isEmpty()) {
             return -1;
         }
 
-        str_conquer = Double.MAX_VALUE;
-        int pos = 0;
-
-        for (int i = 0; i < llPaths.size(); i++) {
-
-            double str = conquerPowers.get(i);
-
-            if (str < str_conquer) {
-                str_conquer = str;
-                pos = i;
-            }
-
-        }
+        double str_conquer = EdgeAsDoubleGraphAlgorithms.shortestPath(getMatrixDouble(), locales, l,
+                loc -> custoConquista(c, loc), path);
 
-        for (int i = 0; i < llPaths.get(pos).size(); i++) {
-            path.add(llPaths.get(pos).get(i));
-        }
         if (path.isEmpty()) {
             return -1;
         }
         return str_conquer;
     }
 
+    /**
+     * Cost for c of entering a locale on the way to a conquest
+     */
+    private double custoConquista(Character c, Locale loc) {
+        double custo = loc.getDifficulty();
+        if (!c.equals(loc.getOwner())) {
+            custo = custo + loc.getDifficulty();
+            if (loc.getOwner() != null) {
+                custo = custo + loc.getOwner().getStrength();
+            }
+        }
+        return custo;
+    }
+
     public Aliance novaAlianca(Graph<Character, Aliance> map, Character a, Character b) {
-        if (!map.validVertex(a) || !map.validVertex(b) || a.equals(b)) {
+        if (!podeAliar(map, a, b)) {
             return null;
         }
-        LinkedList<Character> teste = new LinkedList<>();
-        for (Character c : map.adjVertices(a)) {
-            teste.add(c);
+
+        LinkedList<Character> paths = new LinkedList<>();
+        // the path is only searched when the components say there is one
+        if (map.sameComponent(a, b)) {
+            GraphAlgorithms.shortestPath(map, a, b, paths);
         }
-        if (teste.contains(b)) {
-            return null;
+        return criarAlianca(map, a, b, paths);
+    }
+
+    /**
+     * Makes the new alliance on a map shared with reader threads. The search
+     * and the insertion run as one change of the map, which readers only see
+     * once it is complete.
+     */
+    public Aliance novaAlianca(ConcurrentGraph<Character, Aliance> map, Character a, Character b) {
+        return map.update(g -> novaAlianca(g, a, b));
+    }
+
+    /**
+     * Checks if a new alliance can be made between two characters
+     *
+     * @return false if a character is not in the map, both are the same or
+     * they are already allied
+     */
+    private boolean podeAliar(Graph<Character, Aliance> map, Character a, Character b) {
+        if (!map.validVertex(a) || !map.validVertex(b) || a.equals(b)) {
+            return false;
         }
+        return map.getEdge(a, b) == null;
+    }
 
-        LinkedList<Character> paths = new LinkedList<>();
-        GraphAlgorithms.shortestPath(map, a, b, paths);
+    /**
+     * Inserts the alliance between a and b, with the compatibility factor
+     * taken from the public alliances of the path between them (random if
+     * there is no path)
+     *
+     * @param paths shortest path between a and b, empty if none
+     * @return the new alliance
+     */
+    private Aliance criarAlianca(Graph<Character, Aliance> map, Character a, Character b, LinkedList<Character> paths) {
         float compFactor = 0;
         float power = 0;
         int contAlPublic = 0;
@@ -246,32 +329,42 @@ public class GameBase {
         for (Character a : map.vertices()) {
             novoGraph.insertVertex(a);
         }
-        for (Edge<Character, Aliance> edge : map.edges()) {
+        map.forEachEdge(edge -> {
             Aliance al = new Aliance(false, edge.getElement().getCompatibilityFactor(), edge.getElement().getPower(), edge.getElement().getFirstCharacter(), edge.getElement().getSecondCharacter());
             novoGraph.insertEdge(al.getFirstCharacter(), al.getSecondCharacter(), al, al.getPower());
-        }
+        });
         return novoGraph;
     }
 
-    private void todasAliancasPossiveis(Graph<Character, Aliance> novoMap, LinkedList<Character> listaChar) {
+    private void todasAliancasPossiveis(Graph<Character, Aliance> novoMap, ShortestPathMatrix<Character> caminhos, LinkedList<Character> listaChar) {
         if ((listaChar.size() > 1)) {
             Character a = listaChar.pollFirst();
             for (Character b : listaChar) {
-                if (a != null && b != null) {
-                    novaAlianca(novoMap, a, b);
+                if (a != null && b != null && podeAliar(novoMap, a, b)) {
+                    LinkedList<Character> paths = new LinkedList<>();
+                    caminhos.shortestPath(a, b, paths);
+                    criarAlianca(novoMap, a, b, paths);
                 }
             }
-            todasAliancasPossiveis(novoMap, listaChar);
+            todasAliancasPossiveis(novoMap, caminhos, listaChar);
         }
     }
 
+    /**
+     * Makes every alliance possible from the public alliances. The paths
+     * between all pairs of characters are computed at once, in parallel, over
+     * the public alliances graph.
+     *
+     * @return graph with the public alliances and all the new ones
+     */
     public Graph<Character, Aliance> todasAliancasPossiveis() {
         Graph<Character, Aliance> novoMap = todasAliancasPublico();
+        ShortestPathMatrix<Character> caminhos = GraphAlgorithms.allPairsShortestPaths(novoMap);
         LinkedList<Character> listaChar = new LinkedList<>();
         for (Character c : map.vertices()) {
             listaChar.add(c);
         }
-        todasAliancasPossiveis(novoMap, listaChar);
+        todasAliancasPossiveis(novoMap, caminhos, listaChar);
         return novoMap;
 
     }
@@ -295,9 +388,14 @@ public class GameBase {
         double melhorCaminhoDist = Double.MAX_VALUE;
         float destDiff = -1;
         LinkedList<Locale> locales = getLocalesOfC(pers);
+        HashMap<Character, AdjacencyMatrixGraph<Locale, Road>> mundos = new HashMap<>();
         for (Locale loc : locales) {
             for (Character ali : map.adjVertices(pers)) {
-                AdjacencyMatrixGraph<Locale, Road> newMatrix = mundoSemLocaisAliados(ali);
+                AdjacencyMatrixGraph<Locale, Road> newMatrix = mundos.get(ali);
+                if (newMatrix == null) {
+                    newMatrix = mundoSemLocaisAliados(ali);
+                    mundos.put(ali, newMatrix);
+                }
                 LinkedList<Locale> caminhoTemp = new LinkedList<>();
 
                 double distTemp = caminhoMaisFacil(newMatrix, caminhoTemp, loc, dest);
@@ -321,6 +419,22 @@ public class GameBase {
         return melhorCaminhoDist;
     }
 
+    /**
+     * Roads that join every locale reachable from each other with the lowest
+     * total difficulty (minimum spanning forest of the world)
+     */
+    public SpanningForest<Locale> estradasMaisFaceis() {
+        return graphMatrix.GraphAlgorithms.spanningForest(matrix, Road::getDifficulty, false);
+    }
+
+    /**
+     * Alliances that join every character reachable from each other with the
+     * highest total power (maximum spanning forest of the alliances)
+     */
+    public SpanningForest<Character> aliancasMaisFortes() {
+        return GraphAlgorithms.spanningForest(map, true);
+    }
+
     private LinkedList<Locale> getLocalesOfC(Character c) {
         LinkedList<Locale> locales = new LinkedList<>();
         for (Locale l : this.matrix.vertices()) {
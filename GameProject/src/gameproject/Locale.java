@@ -5,7 +5,6 @@
  */
 package gameproject;
 
-import java.util.Objects;
 
 /**
  *
@@ -65,10 +64,16 @@ public class Locale {
 
     @Override
     public int hashCode() {
+        // only the name, ignoring case, as in equals: the owner changes with
+        // conquests while the locale is a key of the graphs. Folds each char
+        // as equalsIgnoreCase compares them, which toLowerCase on the whole
+        // string does not (e.g. 'İ' lowercases to "i̇" but equals 'i')
         int hash = 7;
-        hash = 79 * hash + Objects.hashCode(this.name);
-        hash = 79 * hash + Objects.hashCode(this.owner);
-        hash = 79 * hash + this.difficulty;
+        if (name != null) {
+            for (int i = 0; i < name.length(); i++) {
+                hash = 79 * hash + java.lang.Character.toLowerCase(java.lang.Character.toUpperCase(name.charAt(i)));
+            }
+        }
         return hash;
     }
 }
@@ -1,6 +1,7 @@
 package gameproject;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  *
@@ -8,6 +9,9 @@ import java.util.Objects;
  */
 public class Road {
 
+    // incremented by every setDifficulty, of any road
+    private static final AtomicLong VERSAO_DIFICULDADES = new AtomicLong();
+
     private int difficulty;
     private Locale first;
     private Locale second;
@@ -30,6 +34,18 @@ public class Road {
 
     public void setDifficulty(int difficulty) {
         this.difficulty = difficulty;
+        VERSAO_DIFICULDADES.incrementAndGet();
+    }
+
+    /**
+     * Returns a counter of the changes to the difficulty of roads, for the
+     * weights computed from them to know when they are out of date. It
+     * counts the changes of every road, not only those of one graph.
+     *
+     * @return number of calls to setDifficulty so far
+     */
+    public static long versaoDificuldades() {
+        return VERSAO_DIFICULDADES.get();
     }
 
     public Locale getFirst() {
@@ -0,0 +1,112 @@
+package graphCommon;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of the AlgorithmProbes of graphMap and graphMatrix. Metrics are
+ * switched on by starting the JVM with -Dgraph.metrics=true; ENABLED is a
+ * static final, so when it is off the instrumentation in the algorithms is
+ * dead code and costs nothing once compiled. When it is on, every probe is
+ * also published in the platform MBean server (jconsole, VisualVM, ...) as
+ * graph:type=AlgorithmMetrics,name=&lt;probe name&gt;.
+ *
+ * @author DEI-ESINF
+ */
+public final class AlgorithmMetrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("graph.metrics");
+
+    public static final String DOMAIN = "graph";
+
+    private static final ConcurrentMap<String, AlgorithmProbe> PROBES = new ConcurrentHashMap<>();
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private AlgorithmMetrics() {
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+            if (counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()) {
+                return counter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the probe with the given name, creating it (and registering it,
+     * if metrics are on) the first time
+     *
+     * @param name name of the algorithm, as Class.method
+     * @return the probe
+     */
+    public static AlgorithmProbe probe(String name) {
+        return PROBES.computeIfAbsent(name, n -> {
+            AlgorithmProbe probe = new AlgorithmProbe(n);
+            if (ENABLED) {
+                register(probe);
+            }
+            return probe;
+        });
+    }
+
+    // Probes created so far, sorted by name
+    public static List<AlgorithmProbe> probes() {
+        List<AlgorithmProbe> probes = new ArrayList<>(PROBES.values());
+        probes.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return probes;
+    }
+
+    public static void reset() {
+        for (AlgorithmProbe probe : PROBES.values()) {
+            probe.reset();
+        }
+    }
+
+    public static ObjectName objectName(String name) {
+        try {
+            return new ObjectName(DOMAIN + ":type=AlgorithmMetrics,name=" + ObjectName.quote(name));
+        } catch (JMException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    /**
+     * Publishes a probe in the platform MBean server, replacing any bean
+     * already there under its name
+     *
+     * @param probe the probe
+     */
+    public static void register(AlgorithmProbe probe) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = objectName(probe.getName());
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(probe, objectName);
+        } catch (JMException ex) {
+            throw new IllegalStateException("Cannot register " + objectName, ex);
+        }
+    }
+
+    // Bytes allocated so far by the current thread, -1 if the JVM cannot tell
+    public static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    static boolean allocationSupported() {
+        return THREADS != null;
+    }
+}
@@ -0,0 +1,164 @@
+package graphCommon;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histogram of one algorithm. The algorithms record a
+ * call only when AlgorithmMetrics.ENABLED is set:
+ *
+ * <pre>
+ * AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? PROBE.begin() : null;
+ * ...
+ *         if (AlgorithmMetrics.ENABLED) {
+ *             call.relaxed++;
+ *         }
+ * ...
+ * if (AlgorithmMetrics.ENABLED) {
+ *     call.end();
+ * }
+ * </pre>
+ *
+ * so with metrics off the JIT drops every use of the probe.
+ *
+ * @author DEI-ESINF
+ */
+public class AlgorithmProbe implements AlgorithmProbeMXBean {
+
+    public static final int BUCKETS = 32;
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder settled = new LongAdder();
+    private final LongAdder relaxed = new LongAdder();
+    private final LongAdder heapOps = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    AlgorithmProbe(String name) {
+        this.name = name;
+    }
+
+    /**
+     * A call being measured, started by begin() and closed by end(). It is
+     * used by one thread, which updates the counters directly.
+     */
+    public final class Call {
+
+        public long settled;     // vertices the algorithm finished with
+        public long relaxed;     // edges examined
+        public long heapOps;     // inserts, decreases and removals on heaps
+        private final long startBytes;
+        private final long startNanos;
+
+        private Call() {
+            startBytes = AlgorithmMetrics.allocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        public void end() {
+            long elapsed = System.nanoTime() - startNanos;
+            long bytes = AlgorithmMetrics.allocatedBytes();
+            record(elapsed, startBytes == -1 ? -1 : bytes - startBytes, settled, relaxed, heapOps);
+        }
+    }
+
+    public Call begin() {
+        return new Call();
+    }
+
+    /**
+     * Adds one call to the counters
+     *
+     * @param elapsedNanos duration of the call
+     * @param allocatedBytes bytes it allocated, -1 if unknown
+     */
+    public void record(long elapsedNanos, long allocatedBytes, long verticesSettled, long edgesRelaxed, long heapOperations) {
+        calls.increment();
+        nanos.add(elapsedNanos);
+        if (allocatedBytes > 0) {
+            allocated.add(allocatedBytes);
+        }
+        settled.add(verticesSettled);
+        relaxed.add(edgesRelaxed);
+        heapOps.add(heapOperations);
+        histogram.incrementAndGet(bucket(elapsedNanos));
+    }
+
+    // Histogram bucket of a duration
+    static int bucket(long elapsedNanos) {
+        long micros = elapsedNanos / 1000;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getVerticesSettled() {
+        return settled.sum();
+    }
+
+    @Override
+    public long getEdgesRelaxed() {
+        return relaxed.sum();
+    }
+
+    @Override
+    public long getHeapOperations() {
+        return heapOps.sum();
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return AlgorithmMetrics.allocationSupported() ? allocated.sum() : -1;
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return nanos.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long n = calls.sum();
+        return n == 0 ? 0 : nanos.sum() / 1000.0 / n;
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+        }
+        return counts;
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        settled.reset();
+        relaxed.reset();
+        heapOps.reset();
+        allocated.reset();
+        nanos.reset();
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram.set(i, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + getCalls() + " calls, " + String.format("%.1f", getMeanMicros()) + " us mean, settled: "
+                + getVerticesSettled() + ", relaxed: " + getEdgesRelaxed() + ", heap ops: " + getHeapOperations()
+                + ", allocated: " + getAllocatedBytes();
+    }
+}
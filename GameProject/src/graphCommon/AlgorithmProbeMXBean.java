@@ -0,0 +1,35 @@
+package graphCommon;
+
+/**
+ * Management interface of an AlgorithmProbe, one per algorithm, registered
+ * in the platform MBean server under AlgorithmMetrics.objectName(name).
+ *
+ * @author DEI-ESINF
+ */
+public interface AlgorithmProbeMXBean {
+
+    String getName();
+
+    long getCalls();
+
+    long getVerticesSettled();
+
+    long getEdgesRelaxed();
+
+    long getHeapOperations();
+
+    // Bytes allocated by the calling threads, -1 if the JVM cannot tell
+    long getAllocatedBytes();
+
+    long getTotalNanos();
+
+    double getMeanMicros();
+
+    /**
+     * Latency histogram: element 0 counts the calls under 1 microsecond and
+     * element i the calls from 2^(i-1) up to 2^i microseconds
+     */
+    long[] getLatencyHistogram();
+
+    void reset();
+}
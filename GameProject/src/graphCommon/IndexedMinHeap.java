@@ -0,0 +1,140 @@
+package graphCommon;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over the integer keys 0..capacity-1 with decrease-key.
+ * Entries are ordered by priority and ties are broken by the smaller key, so
+ * the extraction order matches a linear scan for the minimum.
+ *
+ * @author DEI-ESINF
+ */
+public class IndexedMinHeap {
+
+    private int size;
+    private int[] heap;          // heap position -> key
+    private int[] position;      // key -> heap position, -1 if not in the heap
+    private double[] priority;   // key -> priority
+
+    public IndexedMinHeap(int capacity) {
+        size = 0;
+        heap = new int[capacity];
+        position = new int[capacity];
+        priority = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int key) {
+        return position[key] != -1;
+    }
+
+    public double priorityOf(int key) {
+        return priority[key];
+    }
+
+    /**
+     * Inserts a key, or lowers its priority if it is already in the heap
+     *
+     * @param key the key to insert
+     * @param prio the new priority
+     * @return false if the key is in the heap with a priority not greater
+     * than prio
+     */
+    public boolean insertOrDecrease(int key, double prio) {
+        int pos = position[key];
+        if (pos == -1) {
+            priority[key] = prio;
+            heap[size] = key;
+            position[key] = size;
+            siftUp(size++);
+            return true;
+        }
+        if (prio >= priority[key]) {
+            return false;
+        }
+        priority[key] = prio;
+        siftUp(pos);
+        return true;
+    }
+
+    /**
+     * @return the key with the lowest priority, -1 if the heap is empty
+     */
+    public int peekMin() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * Removes the key with the lowest priority
+     *
+     * @return the removed key, -1 if the heap is empty
+     */
+    public int removeMin() {
+        if (size == 0) {
+            return -1;
+        }
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private boolean less(int keyA, int keyB) {
+        return priority[keyA] < priority[keyB]
+                || (priority[keyA] == priority[keyB] && keyA < keyB);
+    }
+
+    private void siftUp(int pos) {
+        int key = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!less(key, heap[parent])) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            position[heap[pos]] = pos;
+            pos = parent;
+        }
+        heap[pos] = key;
+        position[key] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int key = heap[pos];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], key)) {
+                break;
+            }
+            heap[pos] = heap[child];
+            position[heap[pos]] = pos;
+            pos = child;
+        }
+        heap[pos] = key;
+        position[key] = pos;
+    }
+}
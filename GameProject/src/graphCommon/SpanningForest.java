@@ -0,0 +1,158 @@
+package graphCommon;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Minimum or maximum spanning forest of an undirected graph, kept as three
+ * parallel primitive arrays: edge i joins the vertex ids orig(i) and dest(i)
+ * with weight(i). Ids are the vertex keys of a Graph or the vertex indexes
+ * of an AdjacencyMatrixGraph, and vertex(id) gives back the vertex. The
+ * forest has numVertices - (number of components) edges.
+ *
+ * @author DEI-ESINF
+ * @param <V>
+ */
+public class SpanningForest<V> {
+
+    private final List<V> vertices;     // id -> vertex, null for unused ids
+    private final int[] orig;
+    private final int[] dest;
+    private final double[] weight;
+    private final int numEdges;
+    private final double totalWeight;
+
+    /**
+     * @param vertices vertex of each id (not copied)
+     * @param orig id of one end of each edge
+     * @param dest id of the other end of each edge
+     * @param weight weight of each edge
+     * @param numEdges number of edges, the arrays may be longer
+     */
+    public SpanningForest(List<V> vertices, int[] orig, int[] dest, double[] weight, int numEdges) {
+        this.vertices = vertices;
+        this.orig = orig;
+        this.dest = dest;
+        this.weight = weight;
+        this.numEdges = numEdges;
+        double total = 0;
+        for (int i = 0; i < numEdges; i++) {
+            total += weight[i];
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * The rule both graph packages use to choose the algorithm of a spanning
+     * forest: the O(V^2) Prim without a heap when sorting the edges for
+     * Kruskal, E log2 E, costs more than V^2, and Kruskal otherwise.
+     *
+     * @param numVertices number of vertices
+     * @param numEdges number of undirected edges, each counted once
+     * @return true if the graph is dense enough for the O(V^2) Prim
+     */
+    public static boolean preferDensePrim(int numVertices, long numEdges) {
+        double log2E = numEdges < 2 ? 0 : Math.log(numEdges) / Math.log(2);
+        return numEdges * log2E > (double) numVertices * numVertices;
+    }
+
+    /**
+     * Kruskal over an edge list, for the spanning forests of both graph
+     * packages: sorts the edges by weight (the weights as primitives, in
+     * parallel) and keeps those that join two trees
+     *
+     * @param vertices vertex of each id
+     * @param nVerts number of ids
+     * @param ends, others, weights the edges, nEdges of them
+     * @param maximum true for a maximum spanning forest
+     * @param call metrics of the call, null if they are off
+     * @return the forest
+     */
+    public static <V> SpanningForest<V> kruskal(List<V> vertices, int nVerts, int[] ends, int[] others,
+            double[] weights, int nEdges, boolean maximum, AlgorithmProbe.Call call) {
+        // each edge is sorted as one long: the high bits of its key (the
+        // weight, negated for a maximum forest) and its index in the low
+        // bits, so equal weights keep the edge order. Keys that only differ
+        // in the bits dropped for the index are put in order after the sort.
+        int indexBits = 64 - Long.numberOfLeadingZeros(Math.max(1, nEdges - 1));
+        long indexMask = (1L << indexBits) - 1;
+        long[] packed = new long[nEdges];
+        for (int i = 0; i < nEdges; i++) {
+            packed[i] = (sortKey(weights[i], maximum) & ~indexMask) | i;
+        }
+        Arrays.parallelSort(packed);
+        int[] sorted = new int[nEdges];
+        for (int i = 0; i < nEdges; i++) {
+            int e = (int) (packed[i] & indexMask);
+            long key = sortKey(weights[e], maximum);
+            int j = i;
+            // only moves past edges with the same high bits
+            while (j > 0 && ((packed[j - 1] ^ packed[i]) & ~indexMask) == 0 && sortKey(weights[sorted[j - 1]], maximum) > key) {
+                sorted[j] = sorted[j - 1];
+                j--;
+            }
+            sorted[j] = e;
+        }
+
+        UnionFind uf = new UnionFind(nVerts);
+        int max = Math.max(0, nVerts - 1);
+        int[] orig = new int[max];
+        int[] dest = new int[max];
+        double[] weight = new double[max];
+        int numEdges = 0;
+        for (int i = 0; i < nEdges && numEdges < max; i++) {
+            int e = sorted[i];
+            if (AlgorithmMetrics.ENABLED) {
+                call.relaxed++;
+            }
+            if (uf.union(ends[e], others[e])) {
+                orig[numEdges] = ends[e];
+                dest[numEdges] = others[e];
+                weight[numEdges++] = weights[e];
+            }
+        }
+        return new SpanningForest<>(vertices, orig, dest, weight, numEdges);
+    }
+
+    // Bits of a weight that order as longs the way Double.compare orders the
+    // weights, or the reverse order for a maximum forest
+    private static long sortKey(double weight, boolean maximum) {
+        long bits = Double.doubleToLongBits(maximum ? -weight : weight);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    public int numEdges() {
+        return numEdges;
+    }
+
+    public int orig(int edge) {
+        return orig[edge];
+    }
+
+    public int dest(int edge) {
+        return dest[edge];
+    }
+
+    public double weight(int edge) {
+        return weight[edge];
+    }
+
+    // Sum of the weights of the edges
+    public double totalWeight() {
+        return totalWeight;
+    }
+
+    public V vertex(int id) {
+        return vertices.get(id);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder("SpanningForest: " + numEdges + " edges, weight " + totalWeight + "\n");
+        for (int i = 0; i < numEdges; i++) {
+            st.append("      ").append(vertex(orig[i])).append(" - ").append(vertex(dest[i]))
+                    .append(" (").append(weight[i]).append(")\n");
+        }
+        return st.toString();
+    }
+}
@@ -0,0 +1,97 @@
+package graphCommon;
+
+import java.util.Arrays;
+
+/**
+ * Disjoint sets over the integer keys 0..capacity-1, with union by size and
+ * path halving, so find and union take O(α(n)) amortized time. Every key
+ * starts in a set of its own.
+ *
+ * @author DEI-ESINF
+ */
+public class UnionFind {
+
+    private int[] parent;       // key -> parent key, itself for a root
+    private int[] size;         // root -> number of keys in its set
+    private int numSets;
+
+    public UnionFind(int capacity) {
+        parent = new int[0];
+        size = new int[0];
+        numSets = 0;
+        ensureCapacity(capacity);
+    }
+
+    // Copy of other, with the same sets
+    public UnionFind(UnionFind other) {
+        parent = other.parent.clone();
+        size = other.size.clone();
+        numSets = other.numSets;
+    }
+
+    // Number of keys
+    public int capacity() {
+        return parent.length;
+    }
+
+    // Number of disjoint sets
+    public int numSets() {
+        return numSets;
+    }
+
+    // Adds the keys up to capacity-1, each in a set of its own
+    public void ensureCapacity(int capacity) {
+        int old = parent.length;
+        if (capacity <= old) {
+            return;
+        }
+        capacity = Math.max(capacity, 2 * old);
+        parent = Arrays.copyOf(parent, capacity);
+        size = Arrays.copyOf(size, capacity);
+        for (int key = old; key < capacity; key++) {
+            parent[key] = key;
+            size[key] = 1;
+        }
+        numSets += capacity - old;
+    }
+
+    // Representative key of the set of key
+    public int find(int key) {
+        while (parent[key] != key) {
+            parent[key] = parent[parent[key]];
+            key = parent[key];
+        }
+        return key;
+    }
+
+    /**
+     * Joins the sets of two keys
+     *
+     * @return false if they were already in the same set
+     */
+    public boolean union(int keyA, int keyB) {
+        int rootA = find(keyA);
+        int rootB = find(keyB);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (size[rootA] < size[rootB]) {
+            int tmp = rootA;
+            rootA = rootB;
+            rootB = tmp;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        numSets--;
+        return true;
+    }
+
+    public boolean connected(int keyA, int keyB) {
+        return find(keyA) == find(keyB);
+    }
+
+    // Number of keys in the set of key
+    public int setSize(int key) {
+        return size[find(key)];
+    }
+}
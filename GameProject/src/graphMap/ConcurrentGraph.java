@@ -0,0 +1,88 @@
+package graphMap;
+
+import java.util.function.Function;
+
+/**
+ * Graph shared by many reader threads and changed by writers. Writers are
+ * serialized and change a private graph; after each change an O(1)
+ * copy-on-write snapshot of it is published. Readers take the published
+ * version with read() and work on it without locks: it never changes, and a
+ * reader keeps its version for as long as it needs a consistent view.
+ *
+ * The graphs returned by read() must not be changed.
+ *
+ * @author DEI-ESINF
+ * @param <V>
+ * @param <E>
+ */
+public class ConcurrentGraph<V, E> {
+
+    private Graph<V, E> graph;                  // changed only while holding this
+    private volatile Graph<V, E> published;     // last version given to readers
+
+    public ConcurrentGraph(boolean directed) {
+        this(new Graph<>(directed));
+    }
+
+    /**
+     * @param graph initial graph, which must not be used directly afterwards
+     */
+    public ConcurrentGraph(Graph<V, E> graph) {
+        this.graph = graph;
+        this.published = graph.snapshot();
+    }
+
+    /**
+     * @return the last published version of the graph
+     */
+    public Graph<V, E> read() {
+        return published;
+    }
+
+    // Version of the last published graph
+    public long version() {
+        return published.version();
+    }
+
+    public synchronized boolean insertVertex(V vert) {
+        return publish(graph.insertVertex(vert));
+    }
+
+    public synchronized boolean insertEdge(V vOrig, V vDest, E eInf, double eWeight) {
+        return publish(graph.insertEdge(vOrig, vDest, eInf, eWeight));
+    }
+
+    public synchronized boolean removeVertex(V vert) {
+        return publish(graph.removeVertex(vert));
+    }
+
+    public synchronized boolean removeEdge(V vOrig, V vDest) {
+        return publish(graph.removeEdge(vOrig, vDest));
+    }
+
+    /**
+     * Applies several changes to the graph and publishes them at once, so
+     * readers see either none or all of them. The changes are made on a
+     * snapshot, which only replaces the graph if change returns normally: if
+     * it throws, the graph stays as it was.
+     *
+     * @param change function that changes the graph it receives (which must
+     * not be kept after it returns)
+     * @return the result of change
+     */
+    public synchronized <R> R update(Function<Graph<V, E>, R> change) {
+        Graph<V, E> copy = graph.snapshot();
+        R result = change.apply(copy);
+        boolean changed = copy.version() != graph.version();
+        graph = copy;
+        publish(changed);
+        return result;
+    }
+
+    private boolean publish(boolean changed) {
+        if (changed) {
+            published = graph.snapshot();
+        }
+        return changed;
+    }
+}
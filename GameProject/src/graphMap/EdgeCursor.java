@@ -0,0 +1,99 @@
+package graphMap;
+
+/**
+ * Reusable cursor over the outgoing edges of one vertex of a Graph. A single
+ * cursor can be moved from vertex to vertex with reset, so walking the
+ * adjacency of every vertex creates no iterators:
+ *
+ * <pre>
+ * EdgeCursor&lt;V, E&gt; cursor = g.edgeCursor();
+ * for (V vert : g.vertices()) {
+ *     cursor.reset(vert);
+ *     while (cursor.next()) {
+ *         ... cursor.edge(), cursor.dest(), cursor.weight() ...
+ *     }
+ * }
+ * </pre>
+ *
+ * The graph must not change while the cursor is walking a vertex.
+ *
+ * @author DEI-ESINF
+ * @param <V>
+ * @param <E>
+ */
+public class EdgeCursor<V, E> {
+
+    private final Graph<V, E> g;
+    private Edge<V, E>[] edges;     // outgoing edges of the current vertex
+    private int pos;                // position of the current edge, -1 before next()
+
+    EdgeCursor(Graph<V, E> g) {
+        this.g = g;
+        this.edges = null;
+        this.pos = -1;
+    }
+
+    /**
+     * Moves the cursor to the outgoing edges of vert, before the first one
+     *
+     * @param vert vertex element
+     * @return false if vert is not in the graph (the cursor is then empty)
+     */
+    public boolean reset(V vert) {
+        return reset(g.vertexOf(vert));
+    }
+
+    /**
+     * Moves the cursor to the outgoing edges of the vertex with the given key
+     *
+     * @param key vertex key
+     * @return false if no vertex has that key (the cursor is then empty)
+     */
+    public boolean resetKey(int key) {
+        return reset(g.vertexOfKey(key));
+    }
+
+    private boolean reset(Vertex<V, E> vertex) {
+        edges = vertex == null ? null : vertex.outEdgeArray();
+        pos = -1;
+        return vertex != null;
+    }
+
+    /**
+     * Advances to the next outgoing edge
+     *
+     * @return false if there are no more edges
+     */
+    public boolean next() {
+        if (edges == null || pos + 1 >= edges.length) {
+            pos = edges == null ? -1 : edges.length;
+            return false;
+        }
+        pos++;
+        return true;
+    }
+
+    // Number of outgoing edges of the current vertex
+    public int size() {
+        return edges == null ? 0 : edges.length;
+    }
+
+    public Edge<V, E> edge() {
+        return current();
+    }
+
+    public V dest() {
+        return current().getVDest();
+    }
+
+    public double weight() {
+        return current().getWeight();
+    }
+
+    private Edge<V, E> current() {
+        if (edges == null || pos < 0 || pos >= edges.length) {
+            throw new IllegalStateException("Cursor is not on an edge");
+        }
+        return edges[pos];
+    }
+}
@@ -0,0 +1,100 @@
+package graphMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable compressed-sparse-row view of a Graph. Vertices are identified by
+ * the int key they had when the graph was frozen; the outgoing edges of
+ * vertex id are stored in targets/weights between offsets[id] and
+ * offsets[id+1], in the same order as in the graph.
+ *
+ * @author DEI-ESINF
+ * @param <V>
+ */
+public class FrozenGraph<V> {
+
+    final boolean isDirected;
+    final int numVerts;
+    final Object[] verts;        // id -> vertex element
+    final int[] offsets;         // id -> first edge, length idBound()+1
+    final int[] targets;         // edge -> destination id
+    final double[] weights;      // edge -> weight
+    private final Map<V, Integer> ids;
+
+    FrozenGraph(boolean directed, int numVerts, Object[] verts, int[] offsets, int[] targets, double[] weights) {
+        this.isDirected = directed;
+        this.numVerts = numVerts;
+        this.verts = verts;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.ids = new HashMap<>(numVerts * 2);
+        for (int i = 0; i < verts.length; i++) {
+            if (verts[i] != null) {
+                ids.put(vertex(i), i);
+            }
+        }
+    }
+
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    public int numVertices() {
+        return numVerts;
+    }
+
+    // Length of arrays indexed by id (greater than numVertices if ids are unused)
+    public int idBound() {
+        return verts.length;
+    }
+
+    public int numEdges() {
+        return targets.length;
+    }
+
+    public boolean validId(int id) {
+        return id >= 0 && id < verts.length && verts[id] != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V vertex(int id) {
+        return (V) verts[id];
+    }
+
+    /**
+     * @param vert vertex element
+     * @return the id of the vertex, -1 if it was not in the graph
+     */
+    public int id(V vert) {
+        Integer id = ids.get(vert);
+        return id == null ? -1 : id;
+    }
+
+    public int outDegree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    // Edges of vertex id are the positions firstEdge(id) .. endEdge(id)-1
+    public int firstEdge(int id) {
+        return offsets[id];
+    }
+
+    public int endEdge(int id) {
+        return offsets[id + 1];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public double weight(int edge) {
+        return weights[edge];
+    }
+
+    @Override
+    public String toString() {
+        return "FrozenGraph: " + numVertices() + " vertices, " + numEdges() + " edges\n";
+    }
+}
@@ -1,9 +1,16 @@
 package graphMap;
 
-import java.lang.reflect.Array;
+import graphCommon.UnionFind;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 /**
  *
@@ -17,19 +24,91 @@ public class Graph<V, E> implements GraphInterface<V, E> {
     private int numEdge;
     private boolean isDirected;
     private Map<V, Vertex<V, E>> vertices;  //all Vertices of the graph 
+    private boolean stableKeys;    //keys of removed vertices are reused instead of shifted
+    private int keyBound;          //every key in use is lower than keyBound
+    private int[] freeKeys;        //stack of keys released by removeVertex
+    private int numFreeKeys;
+    private Vertex<V, E>[] keyVerts; //key -> vertex, null for free keys
+    private Object owner;          //vertices with this owner can be changed in place
+    private boolean sharedTables;  //vertices, keyVerts and freeKeys are shared with a snapshot
+    private volatile UnionFind components;  //connected components by key, null until needed or after a removal
+    private boolean sharedComponents;       //components is shared with a snapshot
+    private long version;          //incremented by every change to vertices or edges
 
     // Constructs an empty graph (either undirected or directed)
     public Graph(boolean directed) {
+        this(directed, false);
+    }
+
+    /* Constructs an empty graph. With stable keys, removing a vertex does not
+     * renumber the others: its key goes to a free list and is given to the
+     * next inserted vertex, so arrays indexed by key stay valid. compact()
+     * renumbers the keys densely on demand.
+     */
+    public Graph(boolean directed, boolean stableKeys) {
         numVert = 0;
         numEdge = 0;
         isDirected = directed;
         vertices = new LinkedHashMap<>();
+        this.stableKeys = stableKeys;
+        keyBound = 0;
+        freeKeys = new int[0];
+        numFreeKeys = 0;
+        keyVerts = newKeyVerts(0);
+        owner = new Object();
+        sharedTables = false;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V, E> Vertex<V, E>[] newKeyVerts(int length) {
+        return (Vertex<V, E>[]) new Vertex[length];
     }
 
     public int numVertices() {
         return numVert;
     }
 
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    /* Returns the modification counter of the graph. It changes whenever a
+     * vertex or edge is inserted or removed (or keys are compacted), so
+     * results computed from the graph can be kept while it stays the same.
+     */
+    public long version() {
+        return version;
+    }
+
+    public boolean hasStableKeys() {
+        return stableKeys;
+    }
+
+    /* Returns the length arrays indexed by vertex key must have. It is
+     * numVertices() unless stable keys left unused keys behind.
+     */
+    public int keyCapacity() {
+        return keyBound;
+    }
+
+    /* Renumbers the vertex keys densely (0..numVertices()-1), in vertex order,
+     * and empties the free list. Arrays indexed by the old keys become invalid.
+     */
+    public void compact() {
+        ownTables();
+        int key = 0;
+        keyVerts = newKeyVerts(numVert);
+        for (Vertex<V, E> vert : new ArrayList<>(vertices.values())) {
+            vert = ownVertex(vert);
+            keyVerts[key] = vert;
+            vert.setKey(key++);
+        }
+        keyBound = numVert;
+        numFreeKeys = 0;
+        dropComponents();
+        version++;
+    }
+
     public Iterable<V> vertices() {
         return vertices.keySet();
     }
@@ -47,22 +126,67 @@ public class Graph<V, E> implements GraphInterface<V, E> {
         return vertices.get(vert).getKey();
     }
 
-    public V[] allkeyVerts() {
-
-        //V[] keyverts = (V[]) new Object[numVert];
-        V vertElem = null;
-        for (Vertex<V, E> vert : vertices.values()) {
-            vertElem = vert.getElement();            // To get type
+    /* Returns the vertex with the given key, null if no vertex has it. The
+     * key-to-vertex table is kept up to date by insertVertex and removeVertex,
+     * so this is a plain array access.
+     */
+    public V keyVertex(int key) {
+        if (key < 0 || key >= keyBound || keyVerts[key] == null) {
+            return null;
         }
-        V[] keyverts = (V[]) Array.newInstance(vertElem.getClass(), numVert);
+        return keyVerts[key].getElement();
+    }
 
-        for (Vertex<V, E> vert : vertices.values()) {
-            keyverts[vert.getKey()] = vert.getElement();
+    /* Returns a read-only view of the vertices indexed by key, of size
+     * keyCapacity() (null at free keys). The view follows later changes
+     * to the graph.
+     */
+    public List<V> keyVertices() {
+        return new AbstractList<V>() {
+            @Override
+            public V get(int key) {
+                if (key < 0 || key >= keyBound) {
+                    throw new IndexOutOfBoundsException("Key: " + key);
+                }
+                return keyVerts[key] == null ? null : keyVerts[key].getElement();
+            }
+
+            @Override
+            public int size() {
+                return keyBound;
+            }
+        };
+    }
+
+    /* Returns a new array with the vertices indexed by key, of length
+     * keyCapacity() and with null at free keys (only with stable keys).
+     * generator makes the array of the given length, e.g. String[]::new.
+     * Prefer keyVertex or keyVertices, which do not copy.
+     */
+    public V[] allkeyVerts(IntFunction<V[]> generator) {
+
+        V[] keyverts = generator.apply(keyBound);
+        for (int key = 0; key < keyBound; key++) {
+            keyverts[key] = keyVertex(key);
         }
 
         return keyverts;
     }
 
+    /* Returns allkeyVerts as an Object array: the type of the vertices is not
+     * known at runtime, and a V[] of another component type would fail when
+     * assigned to a typed array.
+     */
+    @Deprecated
+    public Object[] allkeyVerts() {
+        return allkeyVerts(n -> newObjects(n));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V[] newObjects(int length) {
+        return (V[]) new Object[length];
+    }
+
     public Iterable<V> adjVertices(V vert) {
 
         if (!validVertex(vert)) {
@@ -90,6 +214,144 @@ public class Graph<V, E> implements GraphInterface<V, E> {
         return edgs;
     }
 
+    // Vertex of vert, null if it is not in the graph
+    Vertex<V, E> vertexOf(V vert) {
+        return vertices.get(vert);
+    }
+
+    // Vertex with the given key, null if no vertex has it
+    Vertex<V, E> vertexOfKey(int key) {
+        return key < 0 || key >= keyBound ? null : keyVerts[key];
+    }
+
+    /* Applies action to every edge of the graph, without copying them, in
+     * order of vertex key and then of insertion. Like edges(), an undirected
+     * graph gives each edge once per direction.
+     */
+    public void forEachEdge(Consumer<? super Edge<V, E>> action) {
+        long expected = version;
+        for (int key = 0; key < keyBound; key++) {
+            if (keyVerts[key] != null) {
+                for (Edge<V, E> edge : keyVerts[key].outEdgeArray()) {
+                    action.accept(edge);
+                }
+            }
+        }
+        if (version != expected) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /* Returns a spliterator over the edges of the graph, in the same order as
+     * forEachEdge, that splits by ranges of vertex keys so a parallel stream
+     * (StreamSupport.stream(g.edgeSpliterator(), true)) can process them.
+     * It is SIZED until it is split.
+     */
+    public Spliterator<Edge<V, E>> edgeSpliterator() {
+        return new EdgeSpliterator(null, 0, 0, keyBound, numEdge, version);
+    }
+
+    // Returns a reusable cursor over the outgoing edges of a vertex
+    public EdgeCursor<V, E> edgeCursor() {
+        return new EdgeCursor<>(this);
+    }
+
+    private final class EdgeSpliterator implements Spliterator<Edge<V, E>> {
+
+        private Edge<V, E>[] edges;     // edges of the vertex being read
+        private int pos;                // next position in edges
+        private int key;                // next vertex key to read
+        private final int fence;        // vertex keys up to fence-1
+        private long est;               // estimated number of edges left
+        private boolean sized;          // est is exact
+        private final long expected;    // graph version when created
+
+        EdgeSpliterator(Edge<V, E>[] edges, int pos, int key, int fence, long est, long expected) {
+            this.edges = edges;
+            this.pos = pos;
+            this.key = key;
+            this.fence = fence;
+            this.est = est;
+            this.sized = edges == null && key == 0 && fence == keyBound;
+            this.expected = expected;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Edge<V, E>> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            while (edges == null || pos == edges.length) {
+                if (key >= fence) {
+                    checkVersion();
+                    return false;
+                }
+                Vertex<V, E> vertex = keyVerts[key++];
+                edges = vertex == null ? null : vertex.outEdgeArray();
+                pos = 0;
+            }
+            action.accept(edges[pos++]);
+            if (est > 0) {
+                est--;
+            }
+            checkVersion();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Edge<V, E>> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            if (edges != null) {
+                while (pos < edges.length) {
+                    action.accept(edges[pos++]);
+                }
+            }
+            for (; key < fence; key++) {
+                if (keyVerts[key] != null) {
+                    for (Edge<V, E> edge : keyVerts[key].outEdgeArray()) {
+                        action.accept(edge);
+                    }
+                }
+            }
+            est = 0;
+            checkVersion();
+        }
+
+        // Keeps the remaining keys above the middle and gives away the rest
+        @Override
+        public Spliterator<Edge<V, E>> trySplit() {
+            int mid = (key + fence) >>> 1;
+            if (mid <= key) {
+                return null;
+            }
+            EdgeSpliterator prefix = new EdgeSpliterator(edges, pos, key, mid, est >>> 1, expected);
+            edges = null;
+            pos = 0;
+            key = mid;
+            est -= prefix.est;
+            sized = false;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL | (sized ? Spliterator.SIZED : 0);
+        }
+
+        private void checkVersion() {
+            if (version != expected) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
     public Edge<V, E> getEdge(V vOrig, V vDest) {
 
         if (!validVertex(vOrig) || !validVertex(vDest)) {
@@ -148,14 +410,14 @@ public class Graph<V, E> implements GraphInterface<V, E> {
             return -1;
         }
 
-        int degree = 0;
-        for (V otherVert : vertices.keySet()) {
-            if (getEdge(otherVert, vert) != null) {
-                degree++;
-            }
+        Vertex<V, E> vertex = vertices.get(vert);
+
+        //an undirected graph keeps every edge in both directions
+        if (!isDirected) {
+            return vertex.numAdjVerts();
         }
 
-        return degree;
+        return vertex.numInAdjVerts();
     }
 
     public Iterable<Edge<V, E>> outgoingEdges(V vert) {
@@ -176,9 +438,16 @@ public class Graph<V, E> implements GraphInterface<V, E> {
             return null;
         }
 
-        for (Vertex<V, E> vertex : vertices.values()) {
-            if (vertex.getEdge(vert) != null) {
-                incEdges.add(vertex.getEdge(vert));
+        Vertex<V, E> vertex = vertices.get(vert);
+
+        if (isDirected) {
+            for (Edge<V, E> edge : vertex.getAllInEdges()) {
+                incEdges.add(edge);
+            }
+        } else {
+            //the incoming edges are the mirrors of the outgoing ones
+            for (V vAdj : vertex.getAllAdjVerts()) {
+                incEdges.add(vertices.get(vAdj).getEdge(vert));
             }
         }
 
@@ -191,9 +460,25 @@ public class Graph<V, E> implements GraphInterface<V, E> {
             return false;
         }
 
-        Vertex<V, E> vertex = new Vertex<>(numVert, vert);
+        ownTables();
+        int key = numFreeKeys > 0 ? freeKeys[--numFreeKeys] : keyBound++;
+        Vertex<V, E> vertex = new Vertex<>(key, vert);
+        vertex.owner = owner;
+        if (key == keyVerts.length) {
+            keyVerts = Arrays.copyOf(keyVerts, Math.max(4, 2 * key));
+        }
+        keyVerts[key] = vertex;
+        //undirected graphs do not need the incoming edges index
+        if (isDirected) {
+            vertex.indexIncoming();
+        }
         vertices.put(vert, vertex);
+        UnionFind uf = ownComponents();
+        if (uf != null) {
+            uf.ensureCapacity(keyBound);
+        }
         numVert++;
+        version++;
 
         return true;
     }
@@ -212,12 +497,18 @@ public class Graph<V, E> implements GraphInterface<V, E> {
             insertVertex(vDest);
         }
 
-        Vertex<V, E> vorig = vertices.get(vOrig);
-        Vertex<V, E> vdest = vertices.get(vDest);
+        Vertex<V, E> vorig = ownVertex(vertices.get(vOrig));
+        Vertex<V, E> vdest = ownVertex(vertices.get(vDest));
 
         Edge<V, E> newEdge = new Edge<>(eInf, eWeight, vorig, vdest);
         vorig.addAdjVert(vDest, newEdge);
+        vdest.addInAdjVert(vOrig, newEdge);
+        UnionFind uf = ownComponents();
+        if (uf != null) {
+            uf.union(vorig.getKey(), vdest.getKey());
+        }
         numEdge++;
+        version++;
 
         //if graph is not direct insert other edge in the opposite direction 
         if (!isDirected) // if vDest different vOrig
@@ -244,20 +535,39 @@ public class Graph<V, E> implements GraphInterface<V, E> {
             removeEdge(vadj, vert);
         }
 
+        ownTables();
         Vertex<V, E> vertex = vertices.get(vert);
 
-        //update the keys of subsequent vertices in the map
-        for (Vertex<V, E> v : vertices.values()) {
-            int keyVert = v.getKey();
-            if (keyVert > vertex.getKey()) {
-                keyVert = keyVert - 1;
-                v.setKey(keyVert);
+        //and the ones leaving vert (only left in a directed graph)
+        ArrayList<V> outAdj = new ArrayList<>();
+        for (V vAdj : vertex.getAllAdjVerts()) {
+            outAdj.add(vAdj);
+        }
+        for (V vAdj : outAdj) {
+            removeEdge(vert, vAdj);
+        }
+
+        if (stableKeys) {
+            //keep the other keys and release this one for reuse
+            if (numFreeKeys == freeKeys.length) {
+                freeKeys = Arrays.copyOf(freeKeys, Math.max(4, 2 * numFreeKeys));
             }
+            freeKeys[numFreeKeys++] = vertex.getKey();
+            keyVerts[vertex.getKey()] = null;
+        } else {
+            //update the keys of subsequent vertices in the map
+            for (int keyVert = vertex.getKey() + 1; keyVert < keyBound; keyVert++) {
+                ownVertex(keyVerts[keyVert]).setKey(keyVert - 1);
+            }
+            keyBound--;
+            System.arraycopy(keyVerts, vertex.getKey() + 1, keyVerts, vertex.getKey(), keyBound - vertex.getKey());
+            keyVerts[keyBound] = null;
         }
-        //The edges that live from vert are removed with the vertex    
         vertices.remove(vert);
 
+        dropComponents();
         numVert--;
+        version++;
 
         return true;
     }
@@ -274,16 +584,19 @@ public class Graph<V, E> implements GraphInterface<V, E> {
             return false;
         }
 
-        Vertex<V, E> vorig = vertices.get(vOrig);
+        Vertex<V, E> vorig = ownVertex(vertices.get(vOrig));
+        Vertex<V, E> vdest = ownVertex(vertices.get(vDest));
 
         vorig.remAdjVert(vDest);
+        vdest.remInAdjVert(vOrig);
+        dropComponents();       //the component may have split
         numEdge--;
+        version++;
 
         //if graph is not direct 
         if (!isDirected) {
             edge = getEdge(vDest, vOrig);
             if (edge != null) {
-                Vertex<V, E> vdest = vertices.get(vDest);
                 vdest.remAdjVert(vOrig);
                 numEdge--;
             }
@@ -291,10 +604,76 @@ public class Graph<V, E> implements GraphInterface<V, E> {
         return true;
     }
 
-    //Returns a clone of the graph 
+    /* Returns the connected components index, built again after vertices
+     * or edges were removed. Insertions keep it up to date. Readers of a
+     * graph that no longer changes may build it at the same time: each
+     * builds its own and the last one published is kept.
+     */
+    private UnionFind componentIndex() {
+        UnionFind uf = components;
+        if (uf == null) {
+            uf = new UnionFind(keyBound);
+            for (int key = 0; key < keyBound; key++) {
+                if (keyVerts[key] != null) {
+                    for (Edge<V, E> edge : keyVerts[key].outEdgeArray()) {
+                        uf.union(key, getKey(edge.getVDest()));
+                    }
+                }
+            }
+            components = uf;
+        }
+        return uf;
+    }
+
+    // Returns the components index to update in place, copied first if it is
+    // shared with a snapshot, null if it is not built
+    private UnionFind ownComponents() {
+        UnionFind uf = components;
+        if (uf != null && sharedComponents) {
+            uf = new UnionFind(uf);
+            components = uf;
+        }
+        sharedComponents = false;
+        return uf;
+    }
+
+    // Forgets the components index, to be built again when needed
+    private void dropComponents() {
+        components = null;
+        sharedComponents = false;
+    }
+
+    /* Checks if there is a path between two vertices. The edges of a directed
+     * graph are taken in both directions (weakly connected components).
+     * Takes O(α(n)) time unless the index has to be built again after a
+     * removal.
+     */
+    public boolean sameComponent(V vA, V vB) {
+        if (!validVertex(vA) || !validVertex(vB)) {
+            return false;
+        }
+        return componentIndex().connected(getKey(vA), getKey(vB));
+    }
+
+    // Returns the number of vertices in the connected component of vert, 0 if it is not in the graph
+    public int componentSize(V vert) {
+        if (!validVertex(vert)) {
+            return 0;
+        }
+        return componentIndex().setSize(getKey(vert));
+    }
+
+    // Returns the number of connected components
+    public int numComponents() {
+        UnionFind uf = componentIndex();
+        //unused keys are sets of their own
+        return uf.numSets() - (uf.capacity() - numVert);
+    }
+
+    //Returns a clone of the graph (keys of the clone are dense)
     public Graph<V, E> clone() {
 
-        Graph<V, E> newObject = new Graph<>(this.isDirected);
+        Graph<V, E> newObject = new Graph<>(this.isDirected, this.stableKeys);
 
         //insert all vertices
         for (V vert : vertices.keySet()) {
@@ -314,6 +693,96 @@ public class Graph<V, E> implements GraphInterface<V, E> {
         return newObject;
     }
 
+    /**
+     * Returns a copy-on-write copy of the graph in O(1). Both graphs share
+     * their vertices until one of them changes: the first change copies the
+     * vertex tables (one reference per vertex), and each change to an edge
+     * copies only the adjacency of the vertices it touches. Unlike clone(),
+     * keys stay the same and the Edge objects are shared, so edges should not
+     * be changed in place (setWeight, setElement) while snapshots exist.
+     *
+     * A snapshot that is no longer changed can be read from several threads
+     * while the original keeps being changed by its writer.
+     *
+     * @return the snapshot of the graph
+     */
+    public Graph<V, E> snapshot() {
+        Graph<V, E> copy = new Graph<>(isDirected, stableKeys);
+        copy.numVert = numVert;
+        copy.numEdge = numEdge;
+        copy.vertices = vertices;
+        copy.keyBound = keyBound;
+        copy.freeKeys = freeKeys;
+        copy.numFreeKeys = numFreeKeys;
+        copy.keyVerts = keyVerts;
+        copy.version = version;
+        copy.sharedTables = true;
+        sharedTables = true;
+        UnionFind uf = components;
+        if (uf != null) {       //the index is copied by the first to update it
+            copy.components = uf;
+            copy.sharedComponents = true;
+            sharedComponents = true;
+        }
+        owner = new Object();   //vertices are now shared with the copy
+        return copy;
+    }
+
+    // Copies the vertex tables if they are shared with a snapshot
+    private void ownTables() {
+        if (sharedTables) {
+            vertices = new LinkedHashMap<>(vertices);
+            keyVerts = keyVerts.clone();
+            freeKeys = freeKeys.clone();
+            sharedTables = false;
+        }
+    }
+
+    // Returns the vertex, copied first if it may be shared with a snapshot
+    private Vertex<V, E> ownVertex(Vertex<V, E> vertex) {
+        if (vertex.owner == owner) {
+            return vertex;
+        }
+        ownTables();
+        Vertex<V, E> copy = new Vertex<>(vertex);
+        copy.owner = owner;
+        vertices.put(copy.getElement(), copy);
+        keyVerts[copy.getKey()] = copy;
+        return copy;
+    }
+
+    /**
+     * Returns an immutable compressed-sparse-row snapshot of the graph, for
+     * algorithms that run many queries over a graph that no longer changes.
+     * Vertex ids in the snapshot are the current vertex keys; with stable keys
+     * the unused ones are ids without vertex or edges.
+     *
+     * @return the frozen view of the graph
+     */
+    public FrozenGraph<V> freeze() {
+        Object[] verts = new Object[keyBound];
+        int[] offsets = new int[keyBound + 1];
+        int[] targets = new int[numEdge];
+        double[] weights = new double[numEdge];
+
+        for (Vertex<V, E> vert : vertices.values()) {
+            verts[vert.getKey()] = vert.getElement();
+            offsets[vert.getKey() + 1] = vert.numAdjVerts();
+        }
+        for (int i = 0; i < keyBound; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        for (Vertex<V, E> vert : vertices.values()) {
+            int pos = offsets[vert.getKey()];
+            for (Edge<V, E> edge : vert.getAllOutEdges()) {
+                targets[pos] = getKey(edge.getVDest());
+                weights[pos] = edge.getWeight();
+                pos++;
+            }
+        }
+        return new FrozenGraph<>(isDirected, numVert, verts, offsets, targets, weights);
+    }
+
     /* equals implementation
      * @param the other graph to test for equality
      * @return true if both objects represent the same graph
@@ -3,8 +3,24 @@
  */
 package graphMap;
 
+import graphCommon.AlgorithmMetrics;
+import graphCommon.AlgorithmProbe;
+import graphCommon.IndexedMinHeap;
+import graphCommon.SpanningForest;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  *
@@ -12,6 +28,35 @@ import java.util.LinkedList;
  */
 public class GraphAlgorithms {
 
+    private static final AlgorithmProbe BFS = probe("BreadthFirstSearch");
+    private static final AlgorithmProbe DFS = probe("DepthFirstSearch");
+    private static final AlgorithmProbe ALL_PATHS = probe("allPaths");
+    private static final AlgorithmProbe DIJKSTRA_SCAN = probe("shortestPath.scan");
+    private static final AlgorithmProbe DIJKSTRA_HEAP = probe("shortestPath.heap");
+    private static final AlgorithmProbe BIDIRECTIONAL = probe("bidirectionalShortestPath");
+    private static final AlgorithmProbe A_STAR = probe("aStarShortestPath");
+    private static final AlgorithmProbe WIDEST_PATH = probe("widestPath");
+    private static final AlgorithmProbe WIDEST_PATHS = probe("widestPaths");
+    private static final AlgorithmProbe PRIM = probe("prim");
+    private static final AlgorithmProbe KRUSKAL = probe("kruskal");
+    private static final AlgorithmProbe K_SHORTEST = probe("kShortestPaths");
+    private static final AlgorithmProbe SINGLE_SOURCE = probe("shortestPathLength");
+    private static final AlgorithmProbe ALL_PAIRS = probe("allPairsShortestPaths");
+
+    private static AlgorithmProbe probe(String algorithm) {
+        return AlgorithmMetrics.probe("graphMap.GraphAlgorithms." + algorithm);
+    }
+
+    /**
+     * Engines available to compute single-source shortest paths. HEAP keeps
+     * the tentative distances in an indexed binary heap, O(E log V); SCAN
+     * looks for the next vertex by scanning every distance, O(V^2), which is
+     * cheaper only on dense graphs.
+     */
+    public enum Engine {
+        HEAP, SCAN
+    }
+
     /**
      * Performs breadth-first search of a Graph starting in a Vertex
      *
@@ -26,9 +71,10 @@ public class GraphAlgorithms {
             return null;
         }
 
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? BFS.begin() : null;
         LinkedList<V> qbfs = new LinkedList<>();
         LinkedList<V> qaux = new LinkedList<>();
-        boolean[] visited = new boolean[g.numVertices()];  //default initializ.: false
+        boolean[] visited = new boolean[g.keyCapacity()];  //default initializ.: false
 
         qbfs.add(vert);
         qaux.add(vert);
@@ -37,7 +83,13 @@ public class GraphAlgorithms {
 
         while (!qaux.isEmpty()) {
             vert = qaux.remove();
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+            }
             for (Edge<V, E> edge : g.outgoingEdges(vert)) {
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed++;
+                }
                 V vAdj = g.opposite(vert, edge);
                 vKey = g.getKey(vAdj);
                 if (!visited[vKey]) {
@@ -47,6 +99,9 @@ public class GraphAlgorithms {
                 }
             }
         }
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
         return qbfs;
     }
 
@@ -78,9 +133,14 @@ public class GraphAlgorithms {
         if (!g.validVertex(vert)) {
             return null;
         }
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? DFS.begin() : null;
         LinkedList<V> resultList = new LinkedList<V>();
-        boolean[] visited = new boolean[g.numVertices()];
+        boolean[] visited = new boolean[g.keyCapacity()];
         DepthFirstSearch(g, vert, visited, resultList);
+        if (AlgorithmMetrics.ENABLED) {
+            call.settled = resultList.size();
+            call.end();
+        }
         return resultList;
     }
 
@@ -125,7 +185,8 @@ public class GraphAlgorithms {
             return null;
         }
 
-        boolean[] visited = new boolean[g.numVertices()];
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? ALL_PATHS.begin() : null;
+        boolean[] visited = new boolean[g.keyCapacity()];
         LinkedList<V> path = new LinkedList<V>();
         ArrayList<LinkedList<V>> paths = new ArrayList<LinkedList<V>>();
 
@@ -136,9 +197,72 @@ public class GraphAlgorithms {
             }
         }
         visited[g.getKey(vOrig)] = false;
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
         return paths;
     }
 
+    /**
+     * Chooses the shortest path engine for a graph: the linear scan wins only
+     * when the graph is dense enough that E log V exceeds V^2
+     *
+     * @param g Graph instance
+     * @return the engine expected to be faster on g
+     */
+    public static <V, E> Engine preferredEngine(Graph<V, E> g) {
+        int nVerts = g.numVertices();
+        if (nVerts < 2) {
+            return Engine.HEAP;
+        }
+        double log2V = Math.log(nVerts) / Math.log(2);
+        return g.numEdges() * log2V > (double) nVerts * nVerts ? Engine.SCAN : Engine.HEAP;
+    }
+
+    /**
+     * Returns a lazy iterator over the simple paths from vOrig to vDest. Each
+     * path starts in vOrig and ends the first time vDest is reached. The
+     * returned list is reused by the iterator: copy it to keep a path.
+     *
+     * @param g Graph instance
+     * @param vOrig Vertex that will be the source of the paths
+     * @param vDest Vertex that will be the end of the paths
+     * @param maxLength maximum number of edges of a path
+     * @param maxCount maximum number of paths to return
+     * @return iterator over the paths, null if vertices are not in the graph
+     * @throws IllegalArgumentException if maxLength or maxCount is negative
+     */
+    public static <V, E> Iterator<List<V>> pathIterator(Graph<V, E> g, V vOrig, V vDest, int maxLength, long maxCount) {
+        if (!g.validVertex(vOrig) || !g.validVertex(vDest)) {
+            return null;
+        }
+        return new PathIterator<>(g, vOrig, vDest, maxLength, maxCount);
+    }
+
+    public static <V, E> Iterator<List<V>> pathIterator(Graph<V, E> g, V vOrig, V vDest) {
+        return pathIterator(g, vOrig, vDest, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the paths of pathIterator as a sequential stream, so short-
+     * circuiting operations (findFirst, anyMatch, limit) stop the search
+     *
+     * @param g Graph instance
+     * @param vOrig Vertex that will be the source of the paths
+     * @param vDest Vertex that will be the end of the paths
+     * @param maxLength maximum number of edges of a path
+     * @param maxCount maximum number of paths to return
+     * @return stream of (reused) paths, null if vertices are not in the graph
+     * @throws IllegalArgumentException if maxLength or maxCount is negative
+     */
+    public static <V, E> Stream<List<V>> pathStream(Graph<V, E> g, V vOrig, V vDest, int maxLength, long maxCount) {
+        Iterator<List<V>> it = pathIterator(g, vOrig, vDest, maxLength, maxCount);
+        if (it == null) {
+            return null;
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
     /**
      * Computes shortest-path distance from a source vertex to all reachable
      * vertices of a graph g with nonnegative edge weights This implementation
@@ -149,15 +273,22 @@ public class GraphAlgorithms {
      * @param visited set of discovered vertices
      * @param pathkeys minimum path vertices keys
      * @param dist minimum distances
+     * @param call metrics of the call, null if they are off
      */
-    private static <V, E> void shortestPathLength(Graph<V, E> g, V vOrig, V[] vertices,
-            boolean[] visited, int[] pathKeys, double[] dist) {
+    private static <V, E> void shortestPathLength(Graph<V, E> g, V vOrig, List<V> vertices,
+            boolean[] visited, int[] pathKeys, double[] dist, AlgorithmProbe.Call call) {
         
         dist[g.getKey(vOrig)] = 0;
         int check = 0;
         while (check != -1) {
             visited[g.getKey(vOrig)] = true;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+            }
             for (V vertex : g.adjVertices(vOrig)) {
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed++;
+                }
                 Edge edgy = g.getEdge(vOrig, vertex);
                 if (!visited[g.getKey(vertex)] && dist[g.getKey(vertex)] > (dist[g.getKey(vOrig)] + edgy.getWeight())) {
                     dist[g.getKey(vertex)] = dist[g.getKey(vOrig)] + edgy.getWeight();
@@ -171,7 +302,7 @@ public class GraphAlgorithms {
                 if (!visited[i] && dist[i] < min) {
                     min = dist[i];
                     check = i;
-                    vOrig = vertices[check];
+                    vOrig = vertices.get(check);
                 }
             }
 
@@ -179,6 +310,53 @@ public class GraphAlgorithms {
 
     }
 
+    /**
+     * Computes shortest-path distance from a source vertex to all reachable
+     * vertices of a graph g with nonnegative edge weights, using Dijkstra's
+     * algorithm with an indexed binary heap. Vertices are settled in the same
+     * order as in the scan version (ties go to the lowest key), so both
+     * engines produce the same distances and paths
+     *
+     * @param g Graph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param visited set of discovered vertices
+     * @param pathkeys minimum path vertices keys
+     * @param dist minimum distances
+     * @param call metrics of the call, null if they are off
+     */
+    private static <V, E> void shortestPathLengthHeap(Graph<V, E> g, V vOrig, List<V> vertices,
+            boolean[] visited, int[] pathKeys, double[] dist, AlgorithmProbe.Call call) {
+
+        IndexedMinHeap heap = new IndexedMinHeap(vertices.size());
+        int origKey = g.getKey(vOrig);
+        dist[origKey] = 0;
+        heap.insertOrDecrease(origKey, 0);
+
+        while (!heap.isEmpty()) {
+            int key = heap.removeMin();
+            visited[key] = true;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+                call.heapOps++;
+            }
+            for (Edge<V, E> edge : g.outgoingEdges(vertices.get(key))) {
+                int adjKey = g.getKey(edge.getVDest());
+                double newDist = dist[key] + edge.getWeight();
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed++;
+                }
+                if (!visited[adjKey] && dist[adjKey] > newDist) {
+                    dist[adjKey] = newDist;
+                    pathKeys[adjKey] = key;
+                    heap.insertOrDecrease(adjKey, newDist);
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.heapOps++;
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Extracts from pathKeys the minimum path between voInf and vdInf The path
      * is constructed from the end to the beginning
@@ -189,11 +367,11 @@ public class GraphAlgorithms {
      * @param pathkeys minimum path vertices keys
      * @param path stack with the minimum path (correct order)
      */
-    private static <V, E> void getPath(Graph<V, E> g, V vOrig, V vDest, V[] verts, int[] pathKeys, LinkedList<V> path) {
+    private static <V, E> void getPath(Graph<V, E> g, V vOrig, V vDest, List<V> verts, int[] pathKeys, LinkedList<V> path) {
 
         if (vOrig != vDest) {
             path.push(vDest);
-            vDest = verts[pathKeys[g.getKey(vDest)]];
+            vDest = verts.get(pathKeys[g.getKey(vDest)]);
             getPath(g, vOrig, vDest, verts, pathKeys, path);
         } else {
             path.push(vDest);
@@ -201,21 +379,54 @@ public class GraphAlgorithms {
     }
 
 
+    /**
+     * Computes the shortest path between two vertices, choosing the engine
+     * that best fits the density of the graph
+     *
+     * @param g Graph instance
+     * @param vOrig Vertex origin
+     * @param vDest Vertex destination
+     * @param shortPath the minimum path (correct order), empty if no path
+     * @return the length of the path, -1 if vertices not in graph or no path
+     */
     public static <V, E> double shortestPath(Graph<V, E> g, V vOrig, V vDest, LinkedList<V> shortPath) {
+        return shortestPath(g, vOrig, vDest, shortPath, preferredEngine(g));
+    }
+
+    /**
+     * Computes the shortest path between two vertices with a given engine
+     *
+     * @param g Graph instance
+     * @param vOrig Vertex origin
+     * @param vDest Vertex destination
+     * @param shortPath the minimum path (correct order), empty if no path
+     * @param engine the shortest path engine to use
+     * @return the length of the path, -1 if vertices not in graph or no path
+     */
+    public static <V, E> double shortestPath(Graph<V, E> g, V vOrig, V vDest, LinkedList<V> shortPath, Engine engine) {
         if (!g.validVertex(vOrig) || !g.validVertex(vDest)) {
             return -1;
         }
-        V[] vertices = g.allkeyVerts();
-        boolean[] vis = new boolean[g.numVertices()];
-        double[] distance = new double[g.numVertices()];
-        int[] keys = new int[g.numVertices()];
+        AlgorithmProbe.Call call = !AlgorithmMetrics.ENABLED ? null
+                : engine == Engine.SCAN ? DIJKSTRA_SCAN.begin() : DIJKSTRA_HEAP.begin();
+        List<V> vertices = g.keyVertices();
+        boolean[] vis = new boolean[g.keyCapacity()];
+        double[] distance = new double[g.keyCapacity()];
+        int[] keys = new int[g.keyCapacity()];
         shortPath.clear();
-        for (int i = 0; i < g.numVertices(); i++) {
+        for (int i = 0; i < g.keyCapacity(); i++) {
             distance[i] = Double.MAX_VALUE;
             keys[i] = -1;
         }
-        shortestPathLength(g, vOrig, vertices, vis, keys, distance);
+        if (engine == Engine.SCAN) {
+            shortestPathLength(g, vOrig, vertices, vis, keys, distance, call);
+        } else {
+            shortestPathLengthHeap(g, vOrig, vertices, vis, keys, distance, call);
+        }
         double pathlength = distance[g.getKey(vDest)];
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
 
         if (pathlength != Double.MAX_VALUE) {
             getPath(g, vOrig, vDest, vertices, keys, shortPath);
@@ -224,6 +435,1118 @@ public class GraphAlgorithms {
         return -1;
     }
 
+    /**
+     * Computes a shortest path between two vertices with bidirectional
+     * Dijkstra: one search grows from vOrig over outgoing edges, the other
+     * from vDest over incoming edges, and both stop once the best meeting
+     * point found cannot be improved (sum of the heap tops reaches it)
+     *
+     * @param g Graph instance
+     * @param vOrig Vertex origin
+     * @param vDest Vertex destination
+     * @param shortPath the minimum path (correct order), empty if no path
+     * @param stats if not null, receives the settled vertices and relaxed
+     * edges of both searches
+     * @return the length of the path, -1 if vertices not in graph or no path
+     */
+    public static <V, E> double bidirectionalShortestPath(Graph<V, E> g, V vOrig, V vDest,
+            LinkedList<V> shortPath, SearchStats stats) {
+        if (!g.validVertex(vOrig) || !g.validVertex(vDest)) {
+            return -1;
+        }
+        shortPath.clear();
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? BIDIRECTIONAL.begin() : null;
+        SearchStats count = stats != null ? stats : new SearchStats();
+        List<V> vertices = g.keyVertices();
+        int nKeys = g.keyCapacity();
+        double[][] dist = new double[2][nKeys];     // 0: forward, 1: backward
+        int[][] pathKeys = new int[2][nKeys];
+        boolean[][] settled = new boolean[2][nKeys];
+        IndexedMinHeap[] heap = {new IndexedMinHeap(nKeys), new IndexedMinHeap(nKeys)};
+        for (int side = 0; side < 2; side++) {
+            Arrays.fill(dist[side], Double.MAX_VALUE);
+            Arrays.fill(pathKeys[side], -1);
+        }
+        int origKey = g.getKey(vOrig);
+        int destKey = g.getKey(vDest);
+        dist[0][origKey] = 0;
+        dist[1][destKey] = 0;
+        heap[0].insertOrDecrease(origKey, 0);
+        heap[1].insertOrDecrease(destKey, 0);
+
+        double best = origKey == destKey ? 0 : Double.MAX_VALUE;
+        int meetKey = origKey == destKey ? origKey : -1;
+
+        while (!heap[0].isEmpty() && !heap[1].isEmpty()) {
+            double topF = heap[0].priorityOf(heap[0].peekMin());
+            double topB = heap[1].priorityOf(heap[1].peekMin());
+            if (topF + topB >= best) {
+                break;
+            }
+            int side = topF <= topB ? 0 : 1;
+            int key = heap[side].removeMin();
+            settled[side][key] = true;
+            count.settled++;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+                call.heapOps++;
+            }
+
+            Iterable<Edge<V, E>> edges = side == 0 || !g.isDirected()
+                    ? g.outgoingEdges(vertices.get(key)) : g.incomingEdges(vertices.get(key));
+            for (Edge<V, E> edge : edges) {
+                count.relaxed++;
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed++;
+                }
+                V vAdj = side == 0 || !g.isDirected() ? edge.getVDest() : edge.getVOrig();
+                int adjKey = g.getKey(vAdj);
+                double newDist = dist[side][key] + edge.getWeight();
+                if (!settled[side][adjKey] && dist[side][adjKey] > newDist) {
+                    dist[side][adjKey] = newDist;
+                    pathKeys[side][adjKey] = key;
+                    heap[side].insertOrDecrease(adjKey, newDist);
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.heapOps++;
+                    }
+                }
+                if (dist[1 - side][adjKey] != Double.MAX_VALUE
+                        && dist[0][adjKey] + dist[1][adjKey] < best) {
+                    best = dist[0][adjKey] + dist[1][adjKey];
+                    meetKey = adjKey;
+                }
+            }
+        }
+
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        if (meetKey == -1) {
+            return -1;
+        }
+        for (int key = meetKey; key != -1; key = pathKeys[0][key]) {
+            shortPath.push(vertices.get(key));
+        }
+        for (int key = pathKeys[1][meetKey]; key != -1; key = pathKeys[1][key]) {
+            shortPath.add(vertices.get(key));
+        }
+        return best;
+    }
+
+    /**
+     * Computes a shortest path between two vertices with A*: vertices leave
+     * the heap by distance from vOrig plus the heuristic estimate to vDest,
+     * and the search stops when vDest leaves the heap. The heuristic must be
+     * admissible (never above the real distance to vDest); a vertex is
+     * searched again if a shorter path to it shows up later, so it does not
+     * need to be consistent.
+     *
+     * @param g Graph instance
+     * @param vOrig Vertex origin
+     * @param vDest Vertex destination
+     * @param heuristic lower bound of the distance from a vertex to vDest
+     * @param shortPath the minimum path (correct order), empty if no path
+     * @param stats if not null, receives the settled vertices and relaxed
+     * edges
+     * @return the length of the path, -1 if vertices not in graph or no path
+     */
+    public static <V, E> double aStarShortestPath(Graph<V, E> g, V vOrig, V vDest,
+            ToDoubleFunction<V> heuristic, LinkedList<V> shortPath, SearchStats stats) {
+        if (!g.validVertex(vOrig) || !g.validVertex(vDest)) {
+            return -1;
+        }
+        shortPath.clear();
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? A_STAR.begin() : null;
+        SearchStats count = stats != null ? stats : new SearchStats();
+        List<V> vertices = g.keyVertices();
+        int nKeys = g.keyCapacity();
+        double[] dist = new double[nKeys];
+        double[] estimate = new double[nKeys];      // heuristic, computed once per vertex
+        int[] pathKeys = new int[nKeys];
+        Arrays.fill(dist, Double.MAX_VALUE);
+        Arrays.fill(estimate, Double.NaN);
+        Arrays.fill(pathKeys, -1);
+        IndexedMinHeap heap = new IndexedMinHeap(nKeys);
+
+        int origKey = g.getKey(vOrig);
+        int destKey = g.getKey(vDest);
+        dist[origKey] = 0;
+        estimate[origKey] = heuristic.applyAsDouble(vOrig);
+        heap.insertOrDecrease(origKey, estimate[origKey]);
+
+        while (!heap.isEmpty()) {
+            int key = heap.removeMin();
+            count.settled++;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+                call.heapOps++;
+            }
+            if (key == destKey) {
+                for (int k = destKey; k != -1; k = pathKeys[k]) {
+                    shortPath.push(vertices.get(k));
+                }
+                if (AlgorithmMetrics.ENABLED) {
+                    call.end();
+                }
+                return dist[destKey];
+            }
+            for (Edge<V, E> edge : g.outgoingEdges(vertices.get(key))) {
+                count.relaxed++;
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed++;
+                }
+                V vAdj = edge.getVDest();
+                int adjKey = g.getKey(vAdj);
+                double newDist = dist[key] + edge.getWeight();
+                if (dist[adjKey] > newDist) {
+                    dist[adjKey] = newDist;
+                    pathKeys[adjKey] = key;
+                    if (Double.isNaN(estimate[adjKey])) {
+                        estimate[adjKey] = heuristic.applyAsDouble(vAdj);
+                    }
+                    heap.insertOrDecrease(adjKey, newDist + estimate[adjKey]);
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.heapOps++;
+                    }
+                }
+            }
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return -1;
+    }
+
+    /**
+     * Computes a widest (maximum bottleneck) path between two vertices: the
+     * path whose lowest edge weight is the highest. Dijkstra-like search with
+     * an indexed heap ordered by decreasing width, O(E log V)
+     *
+     * @param g Graph instance
+     * @param vOrig Vertex origin
+     * @param vDest Vertex destination
+     * @param path the widest path (correct order), empty if no path
+     * @return the width of the path, Double.MAX_VALUE if vOrig is vDest, -1
+     * if vertices not in graph or no path
+     */
+    public static <V, E> double widestPath(Graph<V, E> g, V vOrig, V vDest, LinkedList<V> path) {
+        if (!g.validVertex(vOrig) || !g.validVertex(vDest)) {
+            return -1;
+        }
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? WIDEST_PATH.begin() : null;
+        path.clear();
+        List<V> vertices = g.keyVertices();
+        int nKeys = g.keyCapacity();
+        double[] width = new double[nKeys];
+        int[] pathKeys = new int[nKeys];
+        boolean[] settled = new boolean[nKeys];
+        Arrays.fill(width, Double.NEGATIVE_INFINITY);
+        Arrays.fill(pathKeys, -1);
+        IndexedMinHeap heap = new IndexedMinHeap(nKeys);   // priority is -width
+
+        int origKey = g.getKey(vOrig);
+        int destKey = g.getKey(vDest);
+        width[origKey] = Double.MAX_VALUE;
+        heap.insertOrDecrease(origKey, -Double.MAX_VALUE);
+
+        while (!heap.isEmpty()) {
+            int key = heap.removeMin();
+            settled[key] = true;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+                call.heapOps++;
+            }
+            if (key == destKey) {
+                for (int k = destKey; k != -1; k = pathKeys[k]) {
+                    path.push(vertices.get(k));
+                }
+                if (AlgorithmMetrics.ENABLED) {
+                    call.end();
+                }
+                return width[destKey];
+            }
+            for (Edge<V, E> edge : g.outgoingEdges(vertices.get(key))) {
+                int adjKey = g.getKey(edge.getVDest());
+                double newWidth = Math.min(width[key], edge.getWeight());
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed++;
+                }
+                if (!settled[adjKey] && newWidth > width[adjKey]) {
+                    width[adjKey] = newWidth;
+                    pathKeys[adjKey] = key;
+                    heap.insertOrDecrease(adjKey, -newWidth);
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.heapOps++;
+                    }
+                }
+            }
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return -1;
+    }
+
+    /**
+     * Computes the widest paths between all pairs of vertices of an
+     * undirected graph, as a maximum spanning forest (Prim with an indexed
+     * heap over the frozen graph, O(E log V)). The widest path between two
+     * vertices is the path between them in the forest.
+     *
+     * @param g undirected Graph instance
+     * @return the maximum spanning forest, indexed by vertex key
+     * @throws IllegalArgumentException if the graph is directed
+     */
+    public static <V, E> WidestPathForest<V> widestPaths(Graph<V, E> g) {
+        if (g.isDirected()) {
+            throw new IllegalArgumentException("Widest paths from a spanning forest need an undirected graph");
+        }
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? WIDEST_PATHS.begin() : null;
+        FrozenGraph<V> frozen = g.freeze();
+        int nVerts = frozen.idBound();
+        int[] parent = new int[nVerts];
+        double[] parentWidth = new double[nVerts];
+        int[] order = new int[nVerts];
+        int[] depth = new int[nVerts];
+        int[] root = new int[nVerts];
+        Arrays.fill(root, -1);
+
+        int count = primForest(frozen, true, parent, parentWidth, order, call);
+        // parents come before their children in order
+        for (int i = 0; i < count; i++) {
+            int id = order[i];
+            depth[id] = parent[id] == -1 ? 0 : depth[parent[id]] + 1;
+            root[id] = parent[id] == -1 ? id : root[parent[id]];
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return new WidestPathForest<>(frozen, parent, parentWidth, depth, root);
+    }
+
+    /**
+     * Prim over every component of an undirected frozen graph, with an
+     * indexed heap, O(E log V)
+     *
+     * @param maximum true for a maximum spanning forest
+     * @param parent receives the parent id of each vertex, -1 for the roots
+     * @param parentWeight receives the weight of the edge to the parent
+     * @param order receives the ids in the order they joined the forest
+     * @param call metrics of the call, null if they are off
+     * @return the number of vertices in order
+     */
+    private static <V> int primForest(FrozenGraph<V> g, boolean maximum, int[] parent, double[] parentWeight, int[] order,
+            AlgorithmProbe.Call call) {
+        int nVerts = g.idBound();
+        double sign = maximum ? -1 : 1;      // the heap gives the lowest sign*weight
+        boolean[] inTree = new boolean[nVerts];
+        Arrays.fill(parent, -1);
+        IndexedMinHeap heap = new IndexedMinHeap(nVerts);
+        int count = 0;
+
+        for (int r = 0; r < nVerts; r++) {
+            if (!g.validId(r) || inTree[r]) {
+                continue;
+            }
+            heap.insertOrDecrease(r, Double.NEGATIVE_INFINITY);
+            if (AlgorithmMetrics.ENABLED) {
+                call.heapOps++;
+            }
+            while (!heap.isEmpty()) {
+                int id = heap.removeMin();
+                inTree[id] = true;
+                order[count++] = id;
+                if (AlgorithmMetrics.ENABLED) {
+                    call.settled++;
+                    call.heapOps++;
+                }
+                for (int e = g.firstEdge(id); e < g.endEdge(id); e++) {
+                    int adj = g.target(e);
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.relaxed++;
+                    }
+                    if (!inTree[adj] && heap.insertOrDecrease(adj, sign * g.weight(e))) {
+                        parent[adj] = id;
+                        parentWeight[adj] = g.weight(e);
+                        if (AlgorithmMetrics.ENABLED) {
+                            call.heapOps++;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Computes a minimum (or maximum) spanning forest of an undirected graph,
+     * with the O(V^2) Prim of densePrim when SpanningForest.preferDensePrim
+     * says the graph is dense, and with Kruskal otherwise
+     *
+     * @param g undirected Graph instance
+     * @param maximum true for a maximum spanning forest
+     * @return the forest, with vertex keys as ids
+     * @throws IllegalArgumentException if the graph is directed
+     */
+    public static <V, E> SpanningForest<V> spanningForest(Graph<V, E> g, boolean maximum) {
+        FrozenGraph<V> frozen = undirectedFreeze(g);
+        // each undirected edge is kept from both of its vertices
+        return SpanningForest.preferDensePrim(frozen.numVertices(), frozen.numEdges() / 2)
+                ? prim(frozen, maximum, true) : kruskal(frozen, maximum);
+    }
+
+    /**
+     * Computes a minimum (or maximum) spanning forest of an undirected graph
+     * with Prim and an indexed heap, O(E log V)
+     *
+     * @param g undirected Graph instance
+     * @param maximum true for a maximum spanning forest
+     * @return the forest, with vertex keys as ids
+     * @throws IllegalArgumentException if the graph is directed
+     */
+    public static <V, E> SpanningForest<V> prim(Graph<V, E> g, boolean maximum) {
+        return prim(undirectedFreeze(g), maximum, false);
+    }
+
+    /**
+     * Computes a minimum (or maximum) spanning forest of an undirected graph
+     * with Prim choosing the next vertex by a scan of all of them, without a
+     * heap: O(V^2 + E), better than prim on dense graphs
+     *
+     * @param g undirected Graph instance
+     * @param maximum true for a maximum spanning forest
+     * @return the forest, with vertex keys as ids
+     * @throws IllegalArgumentException if the graph is directed
+     */
+    public static <V, E> SpanningForest<V> densePrim(Graph<V, E> g, boolean maximum) {
+        return prim(undirectedFreeze(g), maximum, true);
+    }
+
+    private static <V> SpanningForest<V> prim(FrozenGraph<V> frozen, boolean maximum, boolean dense) {
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? PRIM.begin() : null;
+        int nVerts = frozen.idBound();
+        int[] parent = new int[nVerts];
+        double[] parentWeight = new double[nVerts];
+        int[] order = new int[nVerts];
+        int count = dense
+                ? densePrimForest(frozen, maximum, parent, parentWeight, order, call)
+                : primForest(frozen, maximum, parent, parentWeight, order, call);
+
+        int[] orig = new int[count];
+        int[] dest = new int[count];
+        double[] weight = new double[count];
+        int numEdges = 0;
+        for (int i = 0; i < count; i++) {
+            int id = order[i];
+            if (parent[id] != -1) {
+                orig[numEdges] = parent[id];
+                dest[numEdges] = id;
+                weight[numEdges++] = parentWeight[id];
+            }
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return new SpanningForest<>(frozenVertices(frozen), orig, dest, weight, numEdges);
+    }
+
+    /**
+     * Prim over every component of an undirected frozen graph, taking as next
+     * vertex the one with the lowest key in a scan of all of them, O(V^2 + E).
+     * When no vertex left is reached, the scan gives the first of them, which
+     * starts a new tree.
+     *
+     * @param maximum true for a maximum spanning forest
+     * @param parent receives the parent id of each vertex, -1 for the roots
+     * @param parentWeight receives the weight of the edge to the parent
+     * @param order receives the ids in the order they joined the forest
+     * @param call metrics of the call, null if they are off
+     * @return the number of vertices in order
+     */
+    private static <V> int densePrimForest(FrozenGraph<V> g, boolean maximum, int[] parent, double[] parentWeight, int[] order,
+            AlgorithmProbe.Call call) {
+        int nVerts = g.idBound();
+        double sign = maximum ? -1 : 1;      // the lowest sign*weight joins first
+        boolean[] inTree = new boolean[nVerts];
+        double[] key = new double[nVerts];
+        Arrays.fill(parent, -1);
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        for (int id = 0; id < nVerts; id++) {
+            inTree[id] = !g.validId(id);
+        }
+
+        for (int count = 0; count < g.numVertices(); count++) {
+            int next = -1;
+            for (int id = 0; id < nVerts; id++) {
+                if (!inTree[id] && (next == -1 || key[id] < key[next])) {
+                    next = id;
+                }
+            }
+            inTree[next] = true;
+            order[count] = next;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+            }
+            for (int e = g.firstEdge(next); e < g.endEdge(next); e++) {
+                int adj = g.target(e);
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed++;
+                }
+                if (!inTree[adj] && sign * g.weight(e) < key[adj]) {
+                    key[adj] = sign * g.weight(e);
+                    parent[adj] = next;
+                    parentWeight[adj] = g.weight(e);
+                }
+            }
+        }
+        return g.numVertices();
+    }
+
+    /**
+     * Computes a minimum (or maximum) spanning forest of an undirected graph
+     * with Kruskal: the edge weights are sorted in parallel as primitives
+     * (Arrays.parallelSort) and the edges joined through a union-find,
+     * O(E log E)
+     *
+     * @param g undirected Graph instance
+     * @param maximum true for a maximum spanning forest
+     * @return the forest, with vertex keys as ids
+     * @throws IllegalArgumentException if the graph is directed
+     */
+    public static <V, E> SpanningForest<V> kruskal(Graph<V, E> g, boolean maximum) {
+        return kruskal(undirectedFreeze(g), maximum);
+    }
+
+    private static <V> SpanningForest<V> kruskal(FrozenGraph<V> frozen, boolean maximum) {
+        int nVerts = frozen.idBound();
+
+        // each undirected edge once, from the lower id
+        int nEdges = 0;
+        int[] ends = new int[frozen.numEdges()];
+        int[] others = new int[frozen.numEdges()];
+        double[] weights = new double[frozen.numEdges()];
+        for (int id = 0; id < nVerts; id++) {
+            for (int e = frozen.firstEdge(id); e < frozen.endEdge(id); e++) {
+                if (frozen.target(e) > id) {
+                    ends[nEdges] = id;
+                    others[nEdges] = frozen.target(e);
+                    weights[nEdges++] = frozen.weight(e);
+                }
+            }
+        }
+        return kruskal(frozenVertices(frozen), nVerts, ends, others, weights, nEdges, maximum);
+    }
+
+    /**
+     * Kruskal over an edge list, measured as a call of kruskal: see
+     * SpanningForest.kruskal
+     *
+     * @param vertices vertex of each id
+     * @param nVerts number of ids
+     * @param ends, others, weights the edges, nEdges of them
+     * @param maximum true for a maximum spanning forest
+     * @return the forest
+     */
+    public static <V> SpanningForest<V> kruskal(List<V> vertices, int nVerts, int[] ends, int[] others,
+            double[] weights, int nEdges, boolean maximum) {
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? KRUSKAL.begin() : null;
+        SpanningForest<V> forest = SpanningForest.kruskal(vertices, nVerts, ends, others, weights, nEdges, maximum, call);
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return forest;
+    }
+
+    private static <V, E> FrozenGraph<V> undirectedFreeze(Graph<V, E> g) {
+        if (g.isDirected()) {
+            throw new IllegalArgumentException("Spanning forests need an undirected graph");
+        }
+        return g.freeze();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> List<V> frozenVertices(FrozenGraph<V> g) {
+        return (List<V>) Collections.unmodifiableList(Arrays.asList(g.verts));
+    }
+
+    /**
+     * Performs breadth-first search of a frozen graph starting in a vertex
+     *
+     * @param g FrozenGraph instance
+     * @param orig id of the vertex that will be the source of the search
+     * @return ids of the vertices in breadth-first order, null if orig is not
+     * a valid id
+     */
+    public static <V> int[] BreadthFirstSearch(FrozenGraph<V> g, int orig) {
+        if (!g.validId(orig)) {
+            return null;
+        }
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? BFS.begin() : null;
+        int[] queue = new int[g.idBound()];
+        boolean[] visited = new boolean[g.idBound()];
+        int head = 0, tail = 0;
+
+        queue[tail++] = orig;
+        visited[orig] = true;
+        while (head < tail) {
+            int vert = queue[head++];
+            for (int e = g.offsets[vert]; e < g.offsets[vert + 1]; e++) {
+                int adj = g.targets[e];
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed++;
+                }
+                if (!visited[adj]) {
+                    visited[adj] = true;
+                    queue[tail++] = adj;
+                }
+            }
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.settled = tail;
+            call.end();
+        }
+        return Arrays.copyOf(queue, tail);
+    }
+
+    /**
+     * Performs depth-first search of a frozen graph starting in a vertex. The
+     * visit order is the same as the recursive version on the original graph
+     *
+     * @param g FrozenGraph instance
+     * @param orig id of the vertex that will be the source of the search
+     * @return ids of the vertices in depth-first order, null if orig is not a
+     * valid id
+     */
+    public static <V> int[] DepthFirstSearch(FrozenGraph<V> g, int orig) {
+        if (!g.validId(orig)) {
+            return null;
+        }
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? DFS.begin() : null;
+        int[] order = new int[g.idBound()];
+        int[] stack = new int[g.idBound()];
+        int[] cursor = new int[g.idBound()];    // next edge to explore
+        boolean[] visited = new boolean[g.idBound()];
+        int count = 0, top = 0;
+
+        order[count++] = orig;
+        visited[orig] = true;
+        stack[top++] = orig;
+        cursor[orig] = g.offsets[orig];
+        while (top > 0) {
+            int vert = stack[top - 1];
+            if (cursor[vert] == g.offsets[vert + 1]) {
+                top--;
+                continue;
+            }
+            int adj = g.targets[cursor[vert]++];
+            if (AlgorithmMetrics.ENABLED) {
+                call.relaxed++;
+            }
+            if (!visited[adj]) {
+                visited[adj] = true;
+                order[count++] = adj;
+                cursor[adj] = g.offsets[adj];
+                stack[top++] = adj;
+            }
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.settled = count;
+            call.end();
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    /**
+     * Returns all simple paths from orig to dest in a frozen graph, each one
+     * starting in orig and ending the first time dest is reached
+     *
+     * @param g FrozenGraph instance
+     * @param orig id of the source of the paths
+     * @param dest id of the end of the paths
+     * @return list of paths as arrays of ids, null if ids are not valid
+     */
+    public static <V> ArrayList<int[]> allPaths(FrozenGraph<V> g, int orig, int dest) {
+        if (!g.validId(orig) || !g.validId(dest)) {
+            return null;
+        }
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? ALL_PATHS.begin() : null;
+        ArrayList<int[]> paths = new ArrayList<>();
+        boolean[] visited = new boolean[g.idBound()];
+        int[] path = new int[g.idBound() + 1];
+
+        path[0] = orig;
+        visited[orig] = true;
+        allPaths(g, orig, dest, visited, path, 1, paths);
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return paths;
+    }
+
+    private static <V> void allPaths(FrozenGraph<V> g, int vert, int dest, boolean[] visited,
+            int[] path, int len, ArrayList<int[]> paths) {
+        for (int e = g.offsets[vert]; e < g.offsets[vert + 1]; e++) {
+            int adj = g.targets[e];
+            if (adj == dest) {
+                path[len] = dest;
+                paths.add(Arrays.copyOf(path, len + 1));
+            } else if (!visited[adj]) {
+                visited[adj] = true;
+                path[len] = adj;
+                allPaths(g, adj, dest, visited, path, len + 1, paths);
+                visited[adj] = false;
+            }
+        }
+    }
+
+    /**
+     * Returns the k shortest simple paths between two vertices, in increasing
+     * length (Yen's algorithm). Only the best k candidates are kept, so memory
+     * stays O(k V) instead of growing with the number of paths.
+     *
+     * @param g Graph instance
+     * @param vOrig Vertex origin
+     * @param vDest Vertex destination
+     * @param k maximum number of paths
+     * @param lengths if not null, receives the length of each path
+     * @return up to k paths (correct order), null if vertices not in graph
+     */
+    public static <V, E> ArrayList<LinkedList<V>> kShortestPaths(Graph<V, E> g, V vOrig, V vDest, int k, ArrayList<Double> lengths) {
+        if (!g.validVertex(vOrig) || !g.validVertex(vDest)) {
+            return null;
+        }
+        FrozenGraph<V> frozen = g.freeze();
+        ArrayList<int[]> found = kShortestPaths(frozen, g.getKey(vOrig), g.getKey(vDest), k, lengths);
+
+        ArrayList<LinkedList<V>> paths = new ArrayList<>();
+        for (int[] ids : found) {
+            LinkedList<V> path = new LinkedList<>();
+            for (int id : ids) {
+                path.add(frozen.vertex(id));
+            }
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    // Candidate path of Yen's algorithm, ordered by length and then by ids
+    private static final class PathCandidate implements Comparable<PathCandidate> {
+
+        final int[] path;
+        final double length;
+
+        PathCandidate(int[] path, double length) {
+            this.path = path;
+            this.length = length;
+        }
+
+        @Override
+        public int compareTo(PathCandidate other) {
+            int cmp = Double.compare(length, other.length);
+            if (cmp != 0) {
+                return cmp;
+            }
+            if (path.length != other.path.length) {
+                return path.length - other.path.length;
+            }
+            for (int i = 0; i < path.length; i++) {
+                if (path[i] != other.path[i]) {
+                    return path[i] - other.path[i];
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the k shortest simple paths between two vertices of a frozen
+     * graph, in increasing length (Yen's algorithm)
+     *
+     * @param g FrozenGraph instance
+     * @param orig id of the source vertex
+     * @param dest id of the destination vertex
+     * @param k maximum number of paths
+     * @param lengths if not null, cleared and then receives the length of
+     * each path
+     * @return up to k paths as arrays of ids, null if ids are not valid
+     */
+    public static <V> ArrayList<int[]> kShortestPaths(FrozenGraph<V> g, int orig, int dest, int k, List<Double> lengths) {
+        if (!g.validId(orig) || !g.validId(dest)) {
+            return null;
+        }
+        if (lengths != null) {
+            lengths.clear();
+        }
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? K_SHORTEST.begin() : null;
+        ArrayList<int[]> paths = new ArrayList<>();
+        int nVerts = g.idBound();
+        boolean[] bannedVert = new boolean[nVerts];
+        boolean[] bannedEdge = new boolean[g.numEdges()];
+        int[] pathKeys = new int[nVerts];
+        double[] dist = new double[nVerts];
+        boolean[] visited = new boolean[nVerts];
+        IndexedMinHeap heap = new IndexedMinHeap(nVerts);
+
+        if (k <= 0 || restrictedShortestPath(g, orig, dest, bannedVert, bannedEdge, pathKeys, dist, visited, heap, call) == -1) {
+            if (AlgorithmMetrics.ENABLED) {
+                call.end();
+            }
+            return paths;
+        }
+        int[] first = getPath(orig, dest, pathKeys);
+        paths.add(first);
+        if (lengths != null) {
+            lengths.add(dist[dest]);
+        }
+        // best candidates not yet taken, at most k - paths.size() of them
+        TreeSet<PathCandidate> candidates = new TreeSet<>();
+
+        while (paths.size() < k) {
+            int[] prev = paths.get(paths.size() - 1);
+            double rootLength = 0;
+            for (int i = 0; i < prev.length - 1; i++) {
+                int spur = prev[i];
+                // the next edge of every path already taken with the same root
+                for (int[] path : paths) {
+                    if (path.length > i + 1 && samePrefix(path, prev, i + 1)) {
+                        bannedEdge[edgeIndex(g, spur, path[i + 1])] = true;
+                    }
+                }
+                for (int j = 0; j < i; j++) {
+                    bannedVert[prev[j]] = true;
+                }
+
+                if (restrictedShortestPath(g, spur, dest, bannedVert, bannedEdge, pathKeys, dist, visited, heap, call) != -1) {
+                    int[] spurPath = getPath(spur, dest, pathKeys);
+                    int[] path = Arrays.copyOf(prev, i + spurPath.length);
+                    System.arraycopy(spurPath, 0, path, i, spurPath.length);
+                    // summed from the origin, so equal paths get equal lengths
+                    double length = rootLength;
+                    for (int j = i; j < path.length - 1; j++) {
+                        length += g.weights[edgeIndex(g, path[j], path[j + 1])];
+                    }
+                    candidates.add(new PathCandidate(path, length));
+                    while (candidates.size() > k - paths.size()) {
+                        candidates.pollLast();
+                    }
+                }
+
+                Arrays.fill(bannedEdge, false);
+                for (int j = 0; j < i; j++) {
+                    bannedVert[prev[j]] = false;
+                }
+                rootLength += g.weights[edgeIndex(g, spur, prev[i + 1])];
+            }
+            PathCandidate best = candidates.pollFirst();
+            if (best == null) {
+                break;
+            }
+            if (lengths != null) {
+                lengths.add(best.length);
+            }
+            paths.add(best.path);
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return paths;
+    }
+
+    private static boolean samePrefix(int[] a, int[] b, int len) {
+        for (int i = 0; i < len; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Position of the edge from id to adj in the frozen graph, -1 if none
+    private static <V> int edgeIndex(FrozenGraph<V> g, int id, int adj) {
+        for (int e = g.offsets[id]; e < g.offsets[id + 1]; e++) {
+            if (g.targets[e] == adj) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Dijkstra from orig to dest avoiding banned vertices and edges, stopping
+     * once dest is settled. visited must be all false and heap empty; both are
+     * left that way for the next call.
+     *
+     * @param call metrics of the call, null if they are off
+     * @return the distance to dest, -1 if it cannot be reached
+     */
+    private static <V> double restrictedShortestPath(FrozenGraph<V> g, int orig, int dest, boolean[] bannedVert,
+            boolean[] bannedEdge, int[] pathKeys, double[] dist, boolean[] visited, IndexedMinHeap heap,
+            AlgorithmProbe.Call call) {
+        Arrays.fill(dist, Double.MAX_VALUE);
+        Arrays.fill(pathKeys, -1);
+        dist[orig] = 0;
+        heap.insertOrDecrease(orig, 0);
+
+        while (!heap.isEmpty()) {
+            int vert = heap.removeMin();
+            visited[vert] = true;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+                call.heapOps++;
+            }
+            if (vert == dest) {
+                break;
+            }
+            for (int e = g.offsets[vert]; e < g.offsets[vert + 1]; e++) {
+                int adj = g.targets[e];
+                double newDist = dist[vert] + g.weights[e];
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed++;
+                }
+                if (!bannedEdge[e] && !bannedVert[adj] && !visited[adj] && dist[adj] > newDist) {
+                    dist[adj] = newDist;
+                    pathKeys[adj] = vert;
+                    heap.insertOrDecrease(adj, newDist);
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.heapOps++;
+                    }
+                }
+            }
+        }
+        heap.clear();
+        Arrays.fill(visited, false);
+        return dist[dest] == Double.MAX_VALUE ? -1 : dist[dest];
+    }
+
+    /**
+     * Computes shortest-path distances from a vertex of a frozen graph to all
+     * reachable vertices (Dijkstra with an indexed binary heap). The result
+     * buffers are supplied by the caller; the visited flags and the heap are
+     * allocated for the call, see the overload that takes them to reuse
+     * those too.
+     *
+     * @param g FrozenGraph instance
+     * @param orig id of the source vertex
+     * @param pathKeys filled with the predecessor of each vertex, -1 if none
+     * @param dist filled with the minimum distances, Double.MAX_VALUE if
+     * unreachable
+     */
+    public static <V> void shortestPathLength(FrozenGraph<V> g, int orig, int[] pathKeys, double[] dist) {
+        int nVerts = g.idBound();
+        shortestPathLength(g, orig, pathKeys, dist, new boolean[nVerts], new IndexedMinHeap(nVerts));
+    }
+
+    /**
+     * Computes shortest-path distances from a vertex of a frozen graph to all
+     * reachable vertices in buffers supplied by the caller, so repeated
+     * queries allocate nothing
+     *
+     * @param g FrozenGraph instance
+     * @param orig id of the source vertex
+     * @param pathKeys filled with the predecessor of each vertex, -1 if none
+     * @param dist filled with the minimum distances, Double.MAX_VALUE if
+     * unreachable
+     * @param visited idBound() flags, all false; left all false
+     * @param heap empty heap for idBound() ids; left empty
+     */
+    public static <V> void shortestPathLength(FrozenGraph<V> g, int orig, int[] pathKeys, double[] dist,
+            boolean[] visited, IndexedMinHeap heap) {
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? SINGLE_SOURCE.begin() : null;
+        shortestPathLength(g, orig, pathKeys, dist, 0, visited, heap, call);
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+    }
+
+    /**
+     * Dijkstra on a frozen graph writing into the row of a matrix: the values
+     * of vertex i go to pathKeys[base+i] and dist[base+i]. visited must be all
+     * false and heap empty; both are left that way for the next call. call
+     * receives the metrics, null if they are off.
+     */
+    private static <V> void shortestPathLength(FrozenGraph<V> g, int orig, int[] pathKeys, double[] dist,
+            int base, boolean[] visited, IndexedMinHeap heap, AlgorithmProbe.Call call) {
+        int nVerts = g.idBound();
+        for (int i = 0; i < nVerts; i++) {
+            dist[base + i] = Double.MAX_VALUE;
+            pathKeys[base + i] = -1;
+        }
+        dist[base + orig] = 0;
+        heap.insertOrDecrease(orig, 0);
+
+        while (!heap.isEmpty()) {
+            int vert = heap.removeMin();
+            visited[vert] = true;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+                call.heapOps++;
+            }
+            for (int e = g.offsets[vert]; e < g.offsets[vert + 1]; e++) {
+                int adj = g.targets[e];
+                double newDist = dist[base + vert] + g.weights[e];
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed++;
+                }
+                if (!visited[adj] && dist[base + adj] > newDist) {
+                    dist[base + adj] = newDist;
+                    pathKeys[base + adj] = vert;
+                    heap.insertOrDecrease(adj, newDist);
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.heapOps++;
+                    }
+                }
+            }
+        }
+        Arrays.fill(visited, false);
+    }
+
+    /**
+     * Computes the shortest paths between all pairs of vertices, running one
+     * Dijkstra per origin in the common ForkJoinPool
+     *
+     * @param g Graph instance
+     * @return distance and predecessor matrices indexed by vertex key
+     */
+    public static <V, E> ShortestPathMatrix<V> allPairsShortestPaths(Graph<V, E> g) {
+        return allPairsShortestPaths(g, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the shortest paths between all pairs of vertices, running one
+     * Dijkstra per origin in the given pool. The graph is frozen first, so the
+     * searches only read primitive arrays.
+     *
+     * @param g Graph instance
+     * @param pool pool that runs the searches
+     * @return distance and predecessor matrices indexed by vertex key
+     */
+    public static <V, E> ShortestPathMatrix<V> allPairsShortestPaths(Graph<V, E> g, ForkJoinPool pool) {
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? ALL_PAIRS.begin() : null;
+        FrozenGraph<V> frozen = g.freeze();
+        int nVerts = frozen.idBound();
+        double[] dist = new double[nVerts * nVerts];
+        int[] pathKeys = new int[nVerts * nVerts];
+        if (nVerts > 0) {
+            pool.invoke(new AllPairsTask<>(frozen, pathKeys, dist, 0, nVerts));
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return new ShortestPathMatrix<>(frozen, pathKeys, dist);
+    }
+
+    /**
+     * Runs the single-source searches of the origins [from, to), splitting
+     * the range while it is larger than THRESHOLD
+     */
+    private static class AllPairsTask<V> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 8;
+
+        private final FrozenGraph<V> g;
+        private final int[] pathKeys;
+        private final double[] dist;
+        private final int from, to;
+
+        AllPairsTask(FrozenGraph<V> g, int[] pathKeys, double[] dist, int from, int to) {
+            this.g = g;
+            this.pathKeys = pathKeys;
+            this.dist = dist;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new AllPairsTask<>(g, pathKeys, dist, from, mid),
+                        new AllPairsTask<>(g, pathKeys, dist, mid, to));
+                return;
+            }
+            int nVerts = g.idBound();
+            boolean[] visited = new boolean[nVerts];
+            IndexedMinHeap heap = new IndexedMinHeap(nVerts);
+            for (int orig = from; orig < to; orig++) {
+                if (g.validId(orig)) {
+                    // each search is a call of its own, measured in this thread
+                    AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? SINGLE_SOURCE.begin() : null;
+                    shortestPathLength(g, orig, pathKeys, dist, orig * nVerts, visited, heap, call);
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.end();
+                    }
+                } else {
+                    Arrays.fill(dist, orig * nVerts, (orig + 1) * nVerts, Double.MAX_VALUE);
+                    Arrays.fill(pathKeys, orig * nVerts, (orig + 1) * nVerts, -1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the shortest path between two vertices of a frozen graph
+     *
+     * @param g FrozenGraph instance
+     * @param orig id of the source vertex
+     * @param dest id of the destination vertex
+     * @param pathKeys buffer for the predecessors, length idBound()
+     * @param dist buffer for the distances, length idBound()
+     * @return the length of the path, -1 if ids are not valid or no path
+     */
+    public static <V> double shortestPath(FrozenGraph<V> g, int orig, int dest, int[] pathKeys, double[] dist) {
+        if (!g.validId(orig) || !g.validId(dest)) {
+            return -1;
+        }
+        shortestPathLength(g, orig, pathKeys, dist);
+        return dist[dest] == Double.MAX_VALUE ? -1 : dist[dest];
+    }
+
+    /**
+     * Computes the shortest path between two vertices of a frozen graph in
+     * buffers supplied by the caller, so repeated queries allocate nothing
+     *
+     * @param g FrozenGraph instance
+     * @param orig id of the source vertex
+     * @param dest id of the destination vertex
+     * @param pathKeys buffer for the predecessors, length idBound()
+     * @param dist buffer for the distances, length idBound()
+     * @param visited idBound() flags, all false; left all false
+     * @param heap empty heap for idBound() ids; left empty
+     * @return the length of the path, -1 if ids are not valid or no path
+     */
+    public static <V> double shortestPath(FrozenGraph<V> g, int orig, int dest, int[] pathKeys, double[] dist,
+            boolean[] visited, IndexedMinHeap heap) {
+        if (!g.validId(orig) || !g.validId(dest)) {
+            return -1;
+        }
+        shortestPathLength(g, orig, pathKeys, dist, visited, heap);
+        return dist[dest] == Double.MAX_VALUE ? -1 : dist[dest];
+    }
+
+    /**
+     * Extracts from pathKeys the path between orig and dest
+     *
+     * @param orig id of the source vertex
+     * @param dest id of the destination vertex
+     * @param pathKeys predecessors computed by shortestPathLength
+     * @return ids of the vertices in the path, empty if there is no path
+     */
+    public static int[] getPath(int orig, int dest, int[] pathKeys) {
+        int len = 1;
+        for (int v = dest; v != orig; v = pathKeys[v]) {
+            if (pathKeys[v] == -1) {
+                return new int[0];
+            }
+            len++;
+        }
+        int[] path = new int[len];
+        for (int v = dest; len > 0; v = pathKeys[v]) {
+            path[--len] = v;
+        }
+        return path;
+    }
+
     /**
      * Reverses the path
      *
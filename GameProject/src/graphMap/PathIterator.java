@@ -0,0 +1,132 @@
+package graphMap;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy enumeration of the simple paths between two vertices of a Graph. The
+ * depth-first search keeps its own stack, so deep graphs do not overflow the
+ * call stack, and each path is only found when next() is called.
+ *
+ * next() always returns the same read-only List, updated in place with the
+ * new path: copy it (new ArrayList<>(path)) to keep a path after the next
+ * call.
+ *
+ * @author DEI-ESINF
+ * @param <V>
+ * @param <E>
+ */
+public class PathIterator<V, E> implements Iterator<List<V>> {
+
+    private final Graph<V, E> g;
+    private final V vDest;
+    private final int maxLength;        // maximum number of edges in a path
+    private final long maxCount;        // maximum number of paths returned
+
+    private final Object[] path;        // vertices of the current path
+    private final Iterator<V>[] adjIts; // adjacent vertices still to explore, per depth
+    private final boolean[] visited;
+    private int depth;                  // vertices in the search stack
+    private int pathLen;                // vertices in the last path found
+    private long count;
+    private boolean ready;              // a path was found and not yet returned
+    private boolean searched;           // hasNext already looked for the next path
+
+    private final List<V> view = new AbstractList<V>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(int index) {
+            if (index < 0 || index >= pathLen) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return (V) path[index];
+        }
+
+        @Override
+        public int size() {
+            return pathLen;
+        }
+    };
+
+    /**
+     * @param g Graph instance
+     * @param vOrig Vertex that will be the source of the paths
+     * @param vDest Vertex that will be the end of the paths
+     * @param maxLength maximum number of edges of a path
+     * @param maxCount maximum number of paths to return
+     * @throws IllegalArgumentException if maxLength or maxCount is negative
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    PathIterator(Graph<V, E> g, V vOrig, V vDest, int maxLength, long maxCount) {
+        if (maxLength < 0 || maxCount < 0) {
+            throw new IllegalArgumentException("Negative maxLength or maxCount: " + maxLength + ", " + maxCount);
+        }
+        this.g = g;
+        this.vDest = vDest;
+        this.maxLength = maxLength;
+        this.maxCount = maxCount;
+
+        int capacity = Math.min(g.numVertices(), maxLength) + 1;
+        path = new Object[capacity];
+        adjIts = (Iterator<V>[]) new Iterator[capacity];
+        visited = new boolean[g.keyCapacity()];
+
+        path[0] = vOrig;
+        adjIts[0] = g.adjVertices(vOrig).iterator();
+        visited[g.getKey(vOrig)] = true;
+        depth = 1;
+    }
+
+    /**
+     * Advances the search until the next path is found
+     *
+     * @return false if there are no more paths
+     */
+    @SuppressWarnings("unchecked")
+    private boolean advance() {
+        while (depth > 0) {
+            Iterator<V> it = adjIts[depth - 1];
+            if (!it.hasNext()) {
+                depth--;
+                visited[g.getKey((V) path[depth])] = false;
+                adjIts[depth] = null;
+                continue;
+            }
+            V vAdj = it.next();
+            if (vAdj.equals(vDest)) {
+                if (depth <= maxLength) {
+                    path[depth] = vAdj;
+                    pathLen = depth + 1;
+                    return true;
+                }
+            } else if (depth < maxLength && !visited[g.getKey(vAdj)]) {
+                visited[g.getKey(vAdj)] = true;
+                path[depth] = vAdj;
+                adjIts[depth] = g.adjVertices(vAdj).iterator();
+                depth++;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!searched) {
+            ready = count < maxCount && advance();
+            searched = true;
+        }
+        return ready;
+    }
+
+    @Override
+    public List<V> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        searched = false;
+        count++;
+        return view;
+    }
+}
@@ -0,0 +1,31 @@
+package graphMap;
+
+/**
+ * Counters filled by the point-to-point searches of GraphAlgorithms, to
+ * compare how much of the graph each engine had to explore.
+ *
+ * @author DEI-ESINF
+ */
+public class SearchStats {
+
+    int settled;     // vertices removed from the heap(s)
+    int relaxed;     // edges examined
+
+    public int settled() {
+        return settled;
+    }
+
+    public int relaxed() {
+        return relaxed;
+    }
+
+    public void reset() {
+        settled = 0;
+        relaxed = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "settled: " + settled + ", relaxed: " + relaxed;
+    }
+}
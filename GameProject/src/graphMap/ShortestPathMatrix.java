@@ -0,0 +1,72 @@
+package graphMap;
+
+import java.util.LinkedList;
+
+/**
+ * Result of GraphAlgorithms.allPairsShortestPaths: row-major distance and
+ * predecessor matrices, indexed by the ids of the frozen graph (the vertex
+ * keys). Unreachable pairs have distance Double.MAX_VALUE and predecessor -1.
+ *
+ * @author DEI-ESINF
+ * @param <V>
+ */
+public class ShortestPathMatrix<V> {
+
+    private final FrozenGraph<V> g;
+    private final int size;            // row length
+    private final int[] pathKeys;      // pathKeys[orig*size+dest] = predecessor of dest
+    private final double[] dist;       // dist[orig*size+dest] = minimum distance
+
+    ShortestPathMatrix(FrozenGraph<V> g, int[] pathKeys, double[] dist) {
+        this.g = g;
+        this.size = g.idBound();
+        this.pathKeys = pathKeys;
+        this.dist = dist;
+    }
+
+    // The frozen graph whose ids index the matrices
+    public FrozenGraph<V> graph() {
+        return g;
+    }
+
+    /**
+     * @param orig id of the source vertex
+     * @param dest id of the destination vertex
+     * @return minimum distance, Double.MAX_VALUE if there is no path
+     */
+    public double distance(int orig, int dest) {
+        return dist[orig * size + dest];
+    }
+
+    /**
+     * @param orig id of the source vertex
+     * @param dest id of the destination vertex
+     * @return id of the vertex before dest in the path from orig, -1 if none
+     */
+    public int predecessor(int orig, int dest) {
+        return pathKeys[orig * size + dest];
+    }
+
+    /**
+     * Returns the shortest path between two vertices, as
+     * GraphAlgorithms.shortestPath does
+     *
+     * @param vOrig Vertex origin
+     * @param vDest Vertex destination
+     * @param shortPath the minimum path (correct order), empty if no path
+     * @return the length of the path, -1 if vertices not in graph or no path
+     */
+    public double shortestPath(V vOrig, V vDest, LinkedList<V> shortPath) {
+        shortPath.clear();
+        int orig = g.id(vOrig);
+        int dest = g.id(vDest);
+        if (orig == -1 || dest == -1 || distance(orig, dest) == Double.MAX_VALUE) {
+            return -1;
+        }
+        for (int v = dest; v != orig; v = predecessor(orig, v)) {
+            shortPath.push(g.vertex(v));
+        }
+        shortPath.push(vOrig);
+        return distance(orig, dest);
+    }
+}
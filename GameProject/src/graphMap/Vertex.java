@@ -16,6 +16,9 @@ public class Vertex<V, E> {
     private int key ;                     //Vertex key number
     private V  element ;                 //Vertex information
     private Map<V, Edge<V,E>> outVerts; //adjacent vertices
+    private Map<V, Edge<V,E>> inVerts;  //vertices with an edge to this one, null if not indexed
+    private volatile Edge<V,E>[] outEdgeArr; //outVerts edges in order, null after a change
+    Object owner;                       //graph that may change this vertex in place
        
     public Vertex () { 
         key = -1; element = null; outVerts = new LinkedHashMap<>();} 
@@ -30,6 +33,8 @@ public class Vertex<V, E> {
             Edge<V,E> edge = v.outVerts.get(vert);
             outVerts.put(vert, edge);
         }
+        if (v.inVerts != null)
+            inVerts = new LinkedHashMap<>(v.inVerts);
     }
   
     public int getKey() { return key; }	 
@@ -38,10 +43,19 @@ public class Vertex<V, E> {
     public V getElement() { return element; }	 
     public void setElement(V vInf) { element = vInf; }		
 
-    public void addAdjVert(V vAdj, Edge<V,E> edge){ outVerts.put(vAdj, edge); }
+    public void addAdjVert(V vAdj, Edge<V,E> edge){ outVerts.put(vAdj, edge); outEdgeArr = null; }
     
     public V getAdjVert(Edge<V,E> edge){ 
         
+        // the edge knows its destination, so only that entry needs checking
+        V vDest = edge.getVDest();
+        if (vDest != null) {
+            Edge<V,E> adjEdge = outVerts.get(vDest);
+            if (adjEdge == edge || (adjEdge != null && edge.equals(adjEdge)))
+                return vDest;
+            return null;
+        }
+        
         for (V vert : outVerts.keySet())
             if (edge.equals(outVerts.get(vert)))
                 return vert; 
@@ -49,7 +63,7 @@ public class Vertex<V, E> {
         return null;
     }
     
-    public void remAdjVert(V vAdj){ outVerts.remove(vAdj); }
+    public void remAdjVert(V vAdj){ outVerts.remove(vAdj); outEdgeArr = null; }
     
     public Edge<V,E> getEdge(V vAdj){ return outVerts.get(vAdj); }
     
@@ -58,6 +72,32 @@ public class Vertex<V, E> {
     public Iterable<V> getAllAdjVerts() {  return outVerts.keySet(); }
     
     public Iterable<Edge<V,E>> getAllOutEdges() {  return outVerts.values(); }
+    
+    // Outgoing edges as an array, rebuilt only after the adjacency changes (must not be modified)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Edge<V,E>[] outEdgeArray() {
+        Edge<V,E>[] arr = outEdgeArr;
+        if (arr == null) {
+            arr = outVerts.values().toArray((Edge<V,E>[]) new Edge[outVerts.size()]);
+            outEdgeArr = arr;
+        }
+        return arr;
+    }
+    
+    // Incoming edges are only kept once indexIncoming() is called
+    public void indexIncoming() { if (inVerts == null) inVerts = new LinkedHashMap<>(); }
+    
+    public boolean isIncomingIndexed() { return inVerts != null; }
+    
+    public void addInAdjVert(V vAdj, Edge<V,E> edge){ if (inVerts != null) inVerts.put(vAdj, edge); }
+    
+    public void remInAdjVert(V vAdj){ if (inVerts != null) inVerts.remove(vAdj); }
+    
+    public Edge<V,E> getInEdge(V vAdj){ return inVerts == null ? null : inVerts.get(vAdj); }
+    
+    public int numInAdjVerts() { return inVerts == null ? -1 : inVerts.size(); }
+    
+    public Iterable<Edge<V,E>> getAllInEdges() { return inVerts == null ? null : inVerts.values(); }
          
     @Override
     public boolean equals(Object otherObj) {
@@ -107,6 +147,12 @@ public class Vertex<V, E> {
         
         for (V vert : outVerts.keySet())
             newVertex.addAdjVert(vert, this.getEdge(vert));
+        
+        if (inVerts != null) {
+            newVertex.indexIncoming();
+            for (V vert : inVerts.keySet())
+                newVertex.addInAdjVert(vert, inVerts.get(vert));
+        }
 
         return newVertex;
     }
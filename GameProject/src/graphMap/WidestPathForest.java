@@ -0,0 +1,102 @@
+package graphMap;
+
+import java.util.LinkedList;
+
+/**
+ * Result of GraphAlgorithms.widestPaths: a maximum spanning forest of an
+ * undirected graph, kept as parent links indexed by the ids of the frozen
+ * graph (the vertex keys). The path between two vertices in a maximum
+ * spanning tree is a widest path between them, so any pair is answered by
+ * climbing the tree, in time proportional to its height.
+ *
+ * @author DEI-ESINF
+ * @param <V>
+ */
+public class WidestPathForest<V> {
+
+    private final FrozenGraph<V> g;
+    private final int[] parent;           // id -> parent in its tree, -1 for a root
+    private final double[] parentWidth;   // id -> weight of the edge to its parent
+    private final int[] depth;            // id -> edges up to its root
+    private final int[] root;             // id -> root of its tree, -1 if not a vertex
+
+    WidestPathForest(FrozenGraph<V> g, int[] parent, double[] parentWidth, int[] depth, int[] root) {
+        this.g = g;
+        this.parent = parent;
+        this.parentWidth = parentWidth;
+        this.depth = depth;
+        this.root = root;
+    }
+
+    // The frozen graph whose ids index the forest
+    public FrozenGraph<V> graph() {
+        return g;
+    }
+
+    /**
+     * @param id vertex id
+     * @return id of the parent of the vertex in the forest, -1 for a root
+     */
+    public int parent(int id) {
+        return parent[id];
+    }
+
+    /**
+     * @param orig id of the source vertex
+     * @param dest id of the destination vertex
+     * @return width (lowest edge weight) of a widest path, Double.MAX_VALUE
+     * if orig is dest, -1 if there is no path
+     */
+    public double width(int orig, int dest) {
+        if (root[orig] == -1 || root[orig] != root[dest]) {
+            return -1;
+        }
+        double width = Double.MAX_VALUE;
+        while (orig != dest) {
+            if (depth[orig] >= depth[dest]) {
+                width = Math.min(width, parentWidth[orig]);
+                orig = parent[orig];
+            } else {
+                width = Math.min(width, parentWidth[dest]);
+                dest = parent[dest];
+            }
+        }
+        return width;
+    }
+
+    /**
+     * Returns a widest path between two vertices, as
+     * GraphAlgorithms.widestPath does
+     *
+     * @param vOrig Vertex origin
+     * @param vDest Vertex destination
+     * @param path the widest path (correct order), empty if no path
+     * @return the width of the path, -1 if vertices not in graph or no path
+     */
+    public double widestPath(V vOrig, V vDest, LinkedList<V> path) {
+        path.clear();
+        int orig = g.id(vOrig);
+        int dest = g.id(vDest);
+        if (orig == -1 || dest == -1) {
+            return -1;
+        }
+        double width = width(orig, dest);
+        if (width == -1) {
+            return -1;
+        }
+        // climb from both ends up to the common ancestor
+        LinkedList<V> tail = new LinkedList<>();
+        while (orig != dest) {
+            if (depth[orig] >= depth[dest]) {
+                path.add(g.vertex(orig));
+                orig = parent[orig];
+            } else {
+                tail.push(g.vertex(dest));
+                dest = parent[dest];
+            }
+        }
+        path.add(g.vertex(orig));
+        path.addAll(tail);
+        return width;
+    }
+}
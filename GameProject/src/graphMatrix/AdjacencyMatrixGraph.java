@@ -7,6 +7,7 @@ package graphMatrix;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 
 /**
  *
@@ -20,7 +21,11 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
     int numVertices;
     int numEdges;
     ArrayList<V> vertices;
-    E[][] edgeMatrix;
+    HashMap<V, Integer> vertexIndex;   // vertex -> its position in vertices
+    int capacity;       // length of a row of edgeMatrix
+    E[] edgeMatrix;     // edge (x, y) at x * capacity + y, rows one after the other
+    long version;       // incremented by every change to vertices or edges
+    private BitAdjacencyMatrix adjacencyBits;  // of some version, see adjacencyBits()
 
     /**
      * Returns the edge reference associated with edgeMatrix x,y position used
@@ -31,7 +36,7 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
      * @return edge at position (x,y)
      */
     E privateGet(int x, int y) {
-        return edgeMatrix[x][y];
+        return edgeMatrix[x * capacity + y];
     }
 
     /**
@@ -43,33 +48,66 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
      * @param e the new reference
      */
     void privateSet(int x, int y, E e) {
-        edgeMatrix[x][y] = e;
+        edgeMatrix[x * capacity + y] = e;
+        version++;
     }
 
     /**
-     * Returns the index associated with a vertex
+     * Returns the adjacency of the graph as bits, built again only when the
+     * graph changed since the last call. The result must not be modified.
+     *
+     * @return the bits of the current version of the graph
+     */
+    BitAdjacencyMatrix adjacencyBits() {
+        BitAdjacencyMatrix bits = adjacencyBits;
+        if (bits == null || bits.version != version) {
+            bits = new BitAdjacencyMatrix(this);
+            adjacencyBits = bits;
+        }
+        return bits;
+    }
+
+    /**
+     * Returns the index associated with a vertex, in constant time through
+     * vertexIndex. Vertices must not change their equals or hashCode while in
+     * the graph.
      *
      * @param V vertex
      * @return vertex index, -1 if vertex does not exist in the graph
      */
     int toIndex(V vertex) {
-        return vertices.indexOf(vertex);
+        Integer index = vertexIndex.get(vertex);
+        return index == null ? -1 : index;
     }
 
     /**
      * Resizes the matrix when a new vertex increases the length of ArrayList
      */
     private void resizeMatrix() {
-        if (edgeMatrix.length < numVertices) {
-            int newSize = (int) (edgeMatrix.length * RESIZE_FACTOR);
+        if (capacity < numVertices) {
+            ensureCapacity(Math.max(numVertices, (int) (capacity * RESIZE_FACTOR)));
+        }
+    }
 
+    /**
+     * Makes room for at least minCapacity vertices, so inserting up to that
+     * many vertices does not copy the matrix again. Loaders that know how
+     * many vertices they will insert should call it first.
+     *
+     * @param minCapacity number of vertices the graph should hold
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity) {
             @SuppressWarnings("unchecked")
-            E[][] temp = (E[][]) new Object[newSize][newSize];
-            for (int i = 0; i < edgeMatrix.length; i++) {
-                temp[i] = Arrays.copyOf(edgeMatrix[i], newSize);
+            E[] temp = (E[]) new Object[minCapacity * minCapacity];
+            // a vertex being inserted may not fit in the old rows yet
+            int used = Math.min(numVertices, capacity);
+            for (int i = 0; i < used; i++) {
+                System.arraycopy(edgeMatrix, i * capacity, temp, i * minCapacity, used);
             }
-
             edgeMatrix = temp;
+            capacity = minCapacity;
+            vertices.ensureCapacity(minCapacity);
         }
     }
 
@@ -85,9 +123,11 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
      */
     @SuppressWarnings("unchecked")
     public AdjacencyMatrixGraph(int initialSize) {
-        vertices = new ArrayList<V>(initialSize);
+        capacity = Math.max(1, initialSize);
+        vertices = new ArrayList<V>(capacity);
+        vertexIndex = new HashMap<>();
 
-        edgeMatrix = (E[][]) new Object[initialSize][initialSize];
+        edgeMatrix = (E[]) new Object[capacity * capacity];
     }
 
     /**
@@ -99,6 +139,17 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
         return numVertices;
     }
 
+    /**
+     * Returns the modification counter of the graph. It changes whenever a
+     * vertex or edge is inserted or removed, so results computed from the
+     * graph can be kept while it stays the same.
+     *
+     * @return the current version of the graph
+     */
+    public long version() {
+        return version;
+    }
+
     /**
      * Returns the number of edges in the graph
      *
@@ -115,7 +166,7 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
      * @return true if exists
      */
     public boolean checkVertex(V vertex) {
-        return (vertices.indexOf(vertex) != -1);
+        return toIndex(vertex) != -1;
     }
 
     /**
@@ -140,9 +191,10 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
         // graph could actually only keep one copy of the edge but algorithms
         // would then need to consider that case.
         for (int i = 0; i < numVertices - 1; i++) {
+            int row = i * capacity;
             for (int j = i + 1; j < numVertices; j++) {
-                if (edgeMatrix[i][j] != null) {
-                    edges.add(edgeMatrix[i][j]);
+                if (edgeMatrix[row + j] != null) {
+                    edges.add(edgeMatrix[row + j]);
                 }
             }
         }
@@ -163,9 +215,10 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
             return -1;
         }
 
+        int row = index * capacity;
         int edgeCount = 0;
         for (int i = 0; i < numVertices; i++) {
-            if (edgeMatrix[index][i] != null) {
+            if (edgeMatrix[row + i] != null) {
                 edgeCount++;
             }
         }
@@ -197,8 +250,9 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
         if (posicao == -1) {
             return null;
         } else {
-            for (int i = 0; i < edgeMatrix.length; i++) {
-                if (edgeMatrix[posicao][i] != null) {
+            int row = posicao * capacity;
+            for (int i = 0; i < numVertices; i++) {
+                if (edgeMatrix[row + i] != null) {
                     vizinhos.add(vertices.get(i));
                 }
             }
@@ -220,9 +274,10 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
         if (posicao == -1) {
             return null;
         } else {
-            for (int i = 0; i < edgeMatrix.length; i++) {
-                if (edgeMatrix[posicao][i] != null) {
-                    edgesOnVertex.add(edgeMatrix[posicao][i]);
+            int row = posicao * capacity;
+            for (int i = 0; i < numVertices; i++) {
+                if (edgeMatrix[row + i] != null) {
+                    edgesOnVertex.add(edgeMatrix[row + i]);
                 }
             }
             return edgesOnVertex;
@@ -260,7 +315,7 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
             return null;
         }
 
-        return edgeMatrix[indexA][indexB];
+        return edgeMatrix[indexA * capacity + indexB];
     }
 
     /**
@@ -272,9 +327,10 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
      */
     public V[] endVertices(E edge) {
         for (int i = 0; i < numVertices - 1; i++) {
+            int row = i * capacity;
             for (int j = i + 1; j < numVertices; j++) {
-                if (edgeMatrix[i][j] != null) {
-                    if (edgeMatrix[i][j].equals(edge)) {
+                if (edgeMatrix[row + j] != null) {
+                    if (edgeMatrix[row + j].equals(edge)) {
                         @SuppressWarnings("unchecked")
                         V[] result = (V[]) new Object[2];
                         result[0] = vertices.get(i);
@@ -301,8 +357,10 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
         }
 
         vertices.add(newVertex);
+        vertexIndex.put(newVertex, numVertices);
         numVertices++;
         resizeMatrix();
+        version++;
         return true;
     }
 
@@ -317,8 +375,9 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
      * an edge already exists between the two.
      */
     void insertEdge(int indexA, int indexB, E newEdge) {
-        edgeMatrix[indexA][indexB] = edgeMatrix[indexB][indexA] = newEdge; // undirected graph
+        edgeMatrix[indexA * capacity + indexB] = edgeMatrix[indexB * capacity + indexA] = newEdge; // undirected graph
         numEdges++;
+        version++;
     }
 
     public boolean insertEdge(V vertexA, V vertexB, E newEdge) {
@@ -337,7 +396,7 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
             return false;
         }
 
-        if (edgeMatrix[indexA][indexB] != null) {
+        if (edgeMatrix[indexA * capacity + indexB] != null) {
             return false;
         }
 
@@ -359,37 +418,33 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
         }
 
         // first let's remove edges to/from the vertex
+        int row = index * capacity;
         for (int i = 0; i < numVertices; i++) {
-            if (edgeMatrix[index][i] != null) {
+            if (edgeMatrix[row + i] != null) {
                 removeEdge(index, i);
             }
         }
 
         vertices.remove(index);
+        vertexIndex.remove(vertex);
         numVertices--;
-
-        // remove shifts left all vertices after the one removed
-        // It is necessary to collapse the edge matrix
-        //first the lines after line vertex removed
+        version++;
+        // the vertices after the one removed move one position left
         for (int i = index; i < numVertices; i++) {
-            for (int j = 0; j < edgeMatrix.length; j++) {
-                edgeMatrix[i][j] = edgeMatrix[i + 1][j];
-            }
+            vertexIndex.put(vertices.get(i), i);
         }
 
-        for (int j = 0; j < edgeMatrix.length; j++) {
-            edgeMatrix[numVertices][j] = null;
-        }
+        // remove shifts left all vertices after the one removed
+        // It is necessary to collapse the edge matrix
+        //first the lines after line vertex removed, in one block
+        System.arraycopy(edgeMatrix, row + capacity, edgeMatrix, row, (numVertices - index) * capacity);
+        Arrays.fill(edgeMatrix, numVertices * capacity, (numVertices + 1) * capacity, null);
 
         //second the columns after column vertex removed
-        for (int i = index; i < numVertices; i++) {
-            for (int j = 0; j < edgeMatrix.length; j++) {
-                edgeMatrix[j][i] = edgeMatrix[j][i + 1];
-            }
-        }
-
-        for (int j = 0; j < edgeMatrix.length; j++) {
-            edgeMatrix[j][numVertices] = null;
+        for (int i = 0; i < numVertices; i++) {
+            int start = i * capacity;
+            System.arraycopy(edgeMatrix, start + index + 1, edgeMatrix, start + index, numVertices - index);
+            edgeMatrix[start + numVertices] = null;
         }
 
         return true;
@@ -404,9 +459,10 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
      * connected
      */
     E removeEdge(int indexA, int indexB) {
-        E edge = edgeMatrix[indexA][indexB];
-        edgeMatrix[indexA][indexB] = edgeMatrix[indexB][indexA] = null; // undirected graph
+        E edge = edgeMatrix[indexA * capacity + indexB];
+        edgeMatrix[indexA * capacity + indexB] = edgeMatrix[indexB * capacity + indexA] = null; // undirected graph
         numEdges--;
+        version++;
         return edge;
     }
 
@@ -448,7 +504,7 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
         for (int i = 0; i < numVertices; i++) {
             sb.append(" " + i + " ");
             for (int j = 0; j < numVertices; j++) {
-                if (edgeMatrix[i][j] != null) {
+                if (privateGet(i, j) != null) {
                     sb.append("|  X  ");
                 } else {
                     sb.append("|     ");
@@ -461,8 +517,8 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
 
         for (int i = 0; i < numVertices; i++) {
             for (int j = 0; j < numVertices; j++) {
-                if (edgeMatrix[i][j] != null) {
-                    sb.append("From " + i + " to " + j + "-> " + edgeMatrix[i][j] + "\n");
+                if (privateGet(i, j) != null) {
+                    sb.append("From " + i + " to " + j + "-> " + privateGet(i, j) + "\n");
                 }
             }
         }
@@ -479,17 +535,15 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
      */
     @SuppressWarnings("unchecked")
     public Object clone() {
-        AdjacencyMatrixGraph<V, E> newObject = new AdjacencyMatrixGraph<V, E>();
+        AdjacencyMatrixGraph<V, E> newObject = new AdjacencyMatrixGraph<V, E>(1);
 
         newObject.vertices = (ArrayList<V>) vertices.clone();
+        newObject.vertexIndex = new HashMap<>(vertexIndex);
 
         newObject.numVertices = numVertices;
 
-        newObject.edgeMatrix = (E[][]) new Object[edgeMatrix.length][edgeMatrix.length];
-
-        for (int i = 0; i < edgeMatrix.length; i++) {
-            newObject.edgeMatrix[i] = Arrays.copyOf(edgeMatrix[i], edgeMatrix.length);
-        }
+        newObject.capacity = capacity;
+        newObject.edgeMatrix = edgeMatrix.clone();
 
         newObject.numEdges = numEdges;
 
@@ -526,8 +580,15 @@ public class AdjacencyMatrixGraph<V, E> implements BasicGraph<V, E>, Cloneable {
             return false;
         }
 
-        if (!Arrays.deepEquals(edgeMatrix, other.edgeMatrix)) {
-            return false;
+        // the capacities may differ, so compare the used part row by row
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 0; j < numVertices; j++) {
+                Object edge = privateGet(i, j);
+                Object otherEdge = other.privateGet(i, j);
+                if (edge == null ? otherEdge != null : !edge.equals(otherEdge)) {
+                    return false;
+                }
+            }
         }
 
         // fails to recognise difference between objects with different <E> type
@@ -0,0 +1,74 @@
+package graphMatrix;
+
+/**
+ * Which vertices of an AdjacencyMatrixGraph are adjacent, one bit per pair:
+ * row i is words() longs, with bit j % 64 of long j / 64 set when there is
+ * an edge (i, j). The traversals that only need to know whether an edge
+ * exists read 64 neighbours at a time from it, skipping the empty and the
+ * already visited ones with a mask.
+ *
+ * AdjacencyMatrixGraph.adjacencyBits() keeps one for each version of the
+ * graph, so it is built once while the graph does not change.
+ *
+ * @author DEI-ESINF
+ */
+public class BitAdjacencyMatrix {
+
+    final int numVertices;
+    final int words;        // longs in a row
+    final long[] bits;      // row i at i * words
+    final long version;     // version of the graph it was built from
+
+    /**
+     * Builds the bits of the edges of graph, its vertices keeping their
+     * indexes
+     *
+     * @param graph the graph
+     */
+    public BitAdjacencyMatrix(AdjacencyMatrixGraph<?, ?> graph) {
+        this(graph.numVertices, graph.version);
+        for (int i = 0; i < numVertices; i++) {
+            int row = i * words;
+            for (int j = 0; j < numVertices; j++) {
+                if (graph.privateGet(i, j) != null) {
+                    bits[row + (j >>> 6)] |= 1L << j;
+                }
+            }
+        }
+    }
+
+    BitAdjacencyMatrix(int numVertices, long version) {
+        this.numVertices = numVertices;
+        this.words = words(numVertices);
+        this.bits = new long[numVertices * words];
+        this.version = version;
+    }
+
+    // Longs needed for a set of n vertices
+    static int words(int n) {
+        return (n + 63) >>> 6;
+    }
+
+    public int numVertices() {
+        return numVertices;
+    }
+
+    /**
+     * @return true if there is an edge between the vertices of indexes i
+     * and j
+     */
+    public boolean hasEdge(int i, int j) {
+        return (bits[i * words + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    /**
+     * @return number of vertices adjacent to the vertex of index i
+     */
+    public int degree(int i) {
+        int count = 0;
+        for (int w = i * words; w < (i + 1) * words; w++) {
+            count += Long.bitCount(bits[w]);
+        }
+        return count;
+    }
+}
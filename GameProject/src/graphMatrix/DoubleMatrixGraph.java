@@ -0,0 +1,455 @@
+package graphMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Undirected graph with double weights, as AdjacencyMatrixGraph&lt;V, Double&gt;
+ * but kept in a single double[] of capacity x capacity, row by row, with
+ * NO_EDGE (+infinity) where there is no edge. The algorithms of
+ * EdgeAsDoubleGraphAlgorithms read it without unboxing, and the ones that
+ * build distances (minDistGraph) write it without boxing.
+ *
+ * The BasicGraph methods still give the weights as Double, null where there
+ * is no edge. NaN and infinite weights cannot be inserted.
+ *
+ * @author DEI-ESINF
+ * @param <V>
+ */
+public class DoubleMatrixGraph<V> implements BasicGraph<V, Double>, Cloneable {
+
+    public static final int INITIAL_CAPACITY = 10;
+    public static final float RESIZE_FACTOR = 1.5F;
+    public static final double NO_EDGE = Double.POSITIVE_INFINITY;
+
+    int numVertices;
+    int numEdges;
+    ArrayList<V> vertices;
+    HashMap<V, Integer> vertexIndex;   // vertex -> its position in vertices
+    int capacity;       // length of a row of weights
+    double[] weights;   // weight of edge (i, j) at i * capacity + j
+    long version;       // incremented by every change to vertices or edges
+
+    /**
+     * Constructs an empty graph.
+     */
+    public DoubleMatrixGraph() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a graph with room for initialSize vertices.
+     */
+    public DoubleMatrixGraph(int initialSize) {
+        capacity = Math.max(1, initialSize);
+        vertices = new ArrayList<>(capacity);
+        vertexIndex = new HashMap<>();
+        weights = new double[capacity * capacity];
+        Arrays.fill(weights, NO_EDGE);
+    }
+
+    /**
+     * Constructs a graph with the vertices of graph, in the same order, and
+     * an edge weighing weight.applyAsDouble(e) for each of its edges e. The
+     * matrix is copied directly, without looking up any vertex.
+     *
+     * @param graph the graph to copy
+     * @param weight weight of an edge, must be finite
+     */
+    public <E> DoubleMatrixGraph(AdjacencyMatrixGraph<V, E> graph, ToDoubleFunction<E> weight) {
+        this(graph.numVertices);
+        for (V vertex : graph.vertices) {
+            vertexIndex.put(vertex, vertices.size());
+            vertices.add(vertex);
+        }
+        numVertices = graph.numVertices;
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = i + 1; j < numVertices; j++) {
+                E edge = graph.privateGet(i, j);
+                if (edge != null) {
+                    insertEdge(i, j, checkWeight(weight.applyAsDouble(edge)));
+                }
+            }
+        }
+    }
+
+    private static double checkWeight(double weight) {
+        if (Double.isNaN(weight) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Invalid edge weight: " + weight);
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the index associated with a vertex
+     *
+     * @param V vertex
+     * @return vertex index, -1 if vertex does not exist in the graph
+     */
+    int toIndex(V vertex) {
+        Integer index = vertexIndex.get(vertex);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the weight at position (x, y), NO_EDGE if there is no edge
+     */
+    double privateGet(int x, int y) {
+        return weights[x * capacity + y];
+    }
+
+    /**
+     * Grows the matrix when a new vertex does not fit
+     */
+    private void resizeMatrix() {
+        if (capacity < numVertices) {
+            ensureCapacity(Math.max(numVertices, (int) (capacity * RESIZE_FACTOR)));
+        }
+    }
+
+    /**
+     * Makes room for at least minCapacity vertices, as
+     * AdjacencyMatrixGraph.ensureCapacity does
+     *
+     * @param minCapacity number of vertices the graph should hold
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity) {
+            double[] temp = new double[minCapacity * minCapacity];
+            Arrays.fill(temp, NO_EDGE);
+            for (int i = 0; i < capacity; i++) {
+                System.arraycopy(weights, i * capacity, temp, i * minCapacity, capacity);
+            }
+            weights = temp;
+            capacity = minCapacity;
+            vertices.ensureCapacity(minCapacity);
+        }
+    }
+
+    public int numVertices() {
+        return numVertices;
+    }
+
+    public int numEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Returns the modification counter of the graph, as
+     * AdjacencyMatrixGraph.version does
+     *
+     * @return the current version of the graph
+     */
+    public long version() {
+        return version;
+    }
+
+    public boolean checkVertex(V vertex) {
+        return toIndex(vertex) != -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Iterable<V> vertices() {
+        return (Iterable<V>) vertices.clone();
+    }
+
+    /**
+     * Returns the weights of the edges, once each
+     */
+    public Iterable<Double> edges() {
+        ArrayList<Double> edges = new ArrayList<>();
+        for (int i = 0; i < numVertices - 1; i++) {
+            int row = i * capacity;
+            for (int j = i + 1; j < numVertices; j++) {
+                if (weights[row + j] != NO_EDGE) {
+                    edges.add(weights[row + j]);
+                }
+            }
+        }
+        return edges;
+    }
+
+    public int outDegree(V vertex) {
+        int index = toIndex(vertex);
+        if (index == -1) {
+            return -1;
+        }
+        int row = index * capacity;
+        int edgeCount = 0;
+        for (int i = 0; i < numVertices; i++) {
+            if (weights[row + i] != NO_EDGE) {
+                edgeCount++;
+            }
+        }
+        return edgeCount;
+    }
+
+    public int inDegree(V vertex) {
+        return outDegree(vertex);
+    }
+
+    /**
+     * Returns the vertices directly connected to vertex
+     *
+     * @param vertex
+     * @return collection of vertices connected to vertex, null if vertex does
+     * not exist in the graph
+     */
+    public Iterable<V> directConnections(V vertex) {
+        int index = toIndex(vertex);
+        if (index == -1) {
+            return null;
+        }
+        ArrayList<V> adjacent = new ArrayList<>();
+        int row = index * capacity;
+        for (int i = 0; i < numVertices; i++) {
+            if (weights[row + i] != NO_EDGE) {
+                adjacent.add(vertices.get(i));
+            }
+        }
+        return adjacent;
+    }
+
+    public Iterable<Double> outgoingEdges(V vertex) {
+        int index = toIndex(vertex);
+        if (index == -1) {
+            return null;
+        }
+        ArrayList<Double> edges = new ArrayList<>();
+        int row = index * capacity;
+        for (int i = 0; i < numVertices; i++) {
+            if (weights[row + i] != NO_EDGE) {
+                edges.add(weights[row + i]);
+            }
+        }
+        return edges;
+    }
+
+    public Iterable<Double> incomingEdges(V vertex) {
+        return outgoingEdges(vertex);
+    }
+
+    /**
+     * Returns the weight of the edge between two vertices
+     *
+     * @return the weight or null if source and dest are not adjacent or do not
+     * exist in the graph.
+     */
+    public Double getEdge(V vertexA, V vertexB) {
+        double weight = weight(vertexA, vertexB);
+        return weight == NO_EDGE ? null : weight;
+    }
+
+    /**
+     * Returns the weight of the edge between two vertices, without boxing
+     *
+     * @return the weight, NO_EDGE if source and dest are not adjacent or do
+     * not exist in the graph.
+     */
+    public double weight(V vertexA, V vertexB) {
+        int indexA = toIndex(vertexA);
+        int indexB = toIndex(vertexB);
+        if (indexA == -1 || indexB == -1) {
+            return NO_EDGE;
+        }
+        return weights[indexA * capacity + indexB];
+    }
+
+    /**
+     * Returns the vertices of the first edge, in the order of the vertices,
+     * with the given weight
+     *
+     * @return array of two vertices or null if no edge has that weight
+     */
+    public V[] endVertices(Double edge) {
+        if (edge == null) {
+            return null;
+        }
+        for (int i = 0; i < numVertices - 1; i++) {
+            int row = i * capacity;
+            for (int j = i + 1; j < numVertices; j++) {
+                if (weights[row + j] == edge) {
+                    @SuppressWarnings("unchecked")
+                    V[] result = (V[]) new Object[2];
+                    result[0] = vertices.get(i);
+                    result[1] = vertices.get(j);
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    public boolean insertVertex(V newVertex) {
+        if (toIndex(newVertex) != -1) {
+            return false;
+        }
+        vertices.add(newVertex);
+        vertexIndex.put(newVertex, numVertices);
+        numVertices++;
+        resizeMatrix();
+        version++;
+        return true;
+    }
+
+    /**
+     * Sets the edge between two vertex positions, for use of the algorithms
+     * class. The edge must not exist yet.
+     */
+    void insertEdge(int indexA, int indexB, double weight) {
+        weights[indexA * capacity + indexB] = weights[indexB * capacity + indexA] = weight;
+        numEdges++;
+        version++;
+    }
+
+    /**
+     * Inserts a new edge between two vertices
+     *
+     * @return false if vertices are not in the graph or are the same vertex,
+     * an edge already exists between the two or the weight is null, NaN or
+     * infinite
+     */
+    public boolean insertEdge(V vertexA, V vertexB, Double weight) {
+        return weight != null && insertEdge(vertexA, vertexB, weight.doubleValue());
+    }
+
+    public boolean insertEdge(V vertexA, V vertexB, double weight) {
+        if (vertexA.equals(vertexB) || Double.isNaN(weight) || Double.isInfinite(weight)) {
+            return false;
+        }
+        int indexA = toIndex(vertexA);
+        int indexB = toIndex(vertexB);
+        if (indexA == -1 || indexB == -1 || weights[indexA * capacity + indexB] != NO_EDGE) {
+            return false;
+        }
+        insertEdge(indexA, indexB, weight);
+        return true;
+    }
+
+    public boolean removeVertex(V vertex) {
+        int index = toIndex(vertex);
+        if (index == -1) {
+            return false;
+        }
+
+        int row = index * capacity;
+        for (int i = 0; i < numVertices; i++) {
+            if (weights[row + i] != NO_EDGE) {
+                numEdges--;
+            }
+        }
+
+        vertices.remove(index);
+        vertexIndex.remove(vertex);
+        numVertices--;
+        version++;
+        for (int i = index; i < numVertices; i++) {
+            vertexIndex.put(vertices.get(i), i);
+        }
+
+        // rows after the removed one move up, then columns move left
+        System.arraycopy(weights, (index + 1) * capacity, weights, row, (numVertices - index) * capacity);
+        Arrays.fill(weights, numVertices * capacity, (numVertices + 1) * capacity, NO_EDGE);
+        for (int i = 0; i < numVertices; i++) {
+            int start = i * capacity;
+            System.arraycopy(weights, start + index + 1, weights, start + index, numVertices - index);
+            weights[start + numVertices] = NO_EDGE;
+        }
+        return true;
+    }
+
+    public Double removeEdge(V vertexA, V vertexB) {
+        int indexA = toIndex(vertexA);
+        int indexB = toIndex(vertexB);
+        if (indexA == -1 || indexB == -1) {
+            return null;
+        }
+        double weight = weights[indexA * capacity + indexB];
+        if (weight == NO_EDGE) {
+            return null;
+        }
+        weights[indexA * capacity + indexB] = weights[indexB * capacity + indexA] = NO_EDGE;
+        numEdges--;
+        version++;
+        return weight;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Vertices:\n");
+        for (int i = 0; i < numVertices; i++) {
+            sb.append(vertices.get(i)).append("\n");
+        }
+        sb.append("\nEdges:\n");
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 0; j < numVertices; j++) {
+                if (weights[i * capacity + j] != NO_EDGE) {
+                    sb.append("From " + i + " to " + j + "-> " + weights[i * capacity + j] + "\n");
+                }
+            }
+        }
+        sb.append("\n");
+        return sb.toString();
+    }
+
+    /**
+     * Returns a clone of the graph (a shallow copy).
+     *
+     * @return the new cloned graph
+     */
+    @SuppressWarnings("unchecked")
+    public Object clone() {
+        DoubleMatrixGraph<V> newObject = new DoubleMatrixGraph<>(1);
+        newObject.vertices = (ArrayList<V>) vertices.clone();
+        newObject.vertexIndex = new HashMap<>(vertexIndex);
+        newObject.numVertices = numVertices;
+        newObject.numEdges = numEdges;
+        newObject.capacity = capacity;
+        newObject.weights = weights.clone();
+        return newObject;
+    }
+
+    /**
+     * Two graphs are equal when they have the same vertices, in the same
+     * order, and the same weights
+     */
+    public boolean equals(Object oth) {
+        if (oth == null) {
+            return false;
+        }
+        if (this == oth) {
+            return true;
+        }
+        if (!(oth instanceof DoubleMatrixGraph<?>)) {
+            return false;
+        }
+        DoubleMatrixGraph<?> other = (DoubleMatrixGraph<?>) oth;
+        if (numVertices != other.numVertices || numEdges != other.numEdges || !vertices.equals(other.vertices)) {
+            return false;
+        }
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 0; j < numVertices; j++) {
+                if (Double.compare(weights[i * capacity + j], other.weights[i * other.capacity + j]) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash of the vertices, in order, and of the weights between them, as
+     * compared by equals
+     */
+    public int hashCode() {
+        int hash = 31 * (31 * numVertices + numEdges) + vertices.hashCode();
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 0; j < numVertices; j++) {
+                hash = 31 * hash + Double.hashCode(weights[i * capacity + j]);
+            }
+        }
+        return hash;
+    }
+}
@@ -1,7 +1,14 @@
 package graphMatrix;
 
-
+import graphCommon.AlgorithmMetrics;
+import graphCommon.AlgorithmProbe;
+import graphCommon.IndexedMinHeap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.TreeSet;
+import java.util.function.ToDoubleFunction;
 
 /**
  *
@@ -9,6 +16,16 @@ import java.util.LinkedList;
  */
 public class EdgeAsDoubleGraphAlgorithms {
 
+    private static final AlgorithmProbe SHORTEST_PATH = probe("shortestPath");
+    private static final AlgorithmProbe MULTI_SOURCE = probe("shortestPath.multiSource");
+    private static final AlgorithmProbe K_SHORTEST = probe("kShortestPaths");
+    private static final AlgorithmProbe SHORTEST_PATH_TREE = probe("shortestPathTree");
+    private static final AlgorithmProbe MIN_DIST_GRAPH = probe("minDistGraph");
+
+    private static AlgorithmProbe probe(String algorithm) {
+        return AlgorithmMetrics.probe("graphMatrix.EdgeAsDoubleGraphAlgorithms." + algorithm);
+    }
+
     /**
      * Determine the shortest path to all vertices from a vertex using
      * Dijkstra's algorithm To be called by public short method
@@ -18,14 +35,22 @@ public class EdgeAsDoubleGraphAlgorithms {
      * @param knownVertices previously discovered vertices
      * @param verticesIndex index of vertices in the minimum path
      * @param minDist minimum distances in the path
+     * @param call metrics of the call, null if they are off
      *
      */
-    private static <V> void shortestPath(AdjacencyMatrixGraph<V, Double> graph, int sourceIdx, boolean[] knownVertices, int[] verticesIndex, double[] minDist) {
+    private static <V> void shortestPath(AdjacencyMatrixGraph<V, Double> graph, int sourceIdx, boolean[] knownVertices, int[] verticesIndex, double[] minDist,
+            AlgorithmProbe.Call call) {
         minDist[sourceIdx] = 0;
         while (sourceIdx != -1) {
             knownVertices[sourceIdx] = true;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+            }
             for (int i = 0; i < graph.numVertices; i++) {
                 if (graph.privateGet(sourceIdx, i) != null) {
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.relaxed++;
+                    }
                     if (!knownVertices[i] && minDist[i] > (minDist[sourceIdx] + graph.privateGet(sourceIdx, i))) {
                         minDist[i] = minDist[sourceIdx] + graph.privateGet(sourceIdx, i);
                         verticesIndex[i] = sourceIdx;
@@ -65,6 +90,7 @@ public class EdgeAsDoubleGraphAlgorithms {
             return -1;
         }
 
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? SHORTEST_PATH.begin() : null;
         path.clear();
         int[] vertIndex = new int[graph.numVertices];
         double[] minDist = new double[graph.numVertices];
@@ -74,7 +100,10 @@ public class EdgeAsDoubleGraphAlgorithms {
             minDist[i] = Double.MAX_VALUE;
             vertIndex[i] = -1;
         }
-        shortestPath(graph, srcIndex, knownVertices, vertIndex, minDist);
+        shortestPath(graph, srcIndex, knownVertices, vertIndex, minDist, call);
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
         if (knownVertices[dstIndex] == false) {
             return -1;
         }
@@ -89,6 +118,558 @@ public class EdgeAsDoubleGraphAlgorithms {
         return minDist[dstIndex];
     }
 
+    /**
+     * Determine the shortest path between two vertices using Dijkstra's
+     * algorithm
+     *
+     * @param graph Graph object
+     * @param source Source vertex
+     * @param dest Destination vertices
+     * @param path Returns the vertices in the path (empty if no path)
+     * @return minimum distance, -1 if vertices not in graph or no path
+     */
+    public static <V> double shortestPath(DoubleMatrixGraph<V> graph, V source, V dest, LinkedList<V> path) {
+        int srcIndex = graph.toIndex(source);
+        int dstIndex = graph.toIndex(dest);
+        if (srcIndex == -1 || dstIndex == -1) {
+            return -1;
+        }
+
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? SHORTEST_PATH.begin() : null;
+        path.clear();
+        int[] vertIndex = new int[graph.numVertices];
+        double[] minDist = new double[graph.numVertices];
+        boolean[] knownVertices = new boolean[graph.numVertices];
+        Arrays.fill(minDist, Double.MAX_VALUE);
+        Arrays.fill(vertIndex, -1);
+        minDist[srcIndex] = 0;
+        shortestPath(graph, srcIndex, -1, null, knownVertices, vertIndex, minDist, call);
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        if (!knownVertices[dstIndex]) {
+            return -1;
+        }
+        for (int i = dstIndex; i != -1; i = vertIndex[i]) {
+            path.push(graph.vertices.get(i));
+        }
+        return minDist[dstIndex];
+    }
+
+    /**
+     * Determine the k shortest simple paths between two vertices, in
+     * increasing length, with Yen's algorithm: each new path leaves the
+     * previous one at some vertex (the spur) through a Dijkstra that avoids
+     * the vertices before the spur and the edges already taken from it. The
+     * rows of the matrix are read once into adjacency lists, so each of those
+     * searches is O(E log V). Only the best k candidates are kept, so memory
+     * stays O(k V) besides the lists.
+     *
+     * @param graph Graph object
+     * @param source Source vertex
+     * @param dest Destination vertex
+     * @param k maximum number of paths
+     * @param lengths if not null, returns the length of each path
+     * @return up to k paths, null if vertices not in graph
+     */
+    public static <V> LinkedList<LinkedList<V>> kShortestPaths(AdjacencyMatrixGraph<V, Double> graph, V source, V dest,
+            int k, LinkedList<Double> lengths) {
+        if (!graph.checkVertex(source) || !graph.checkVertex(dest)) {
+            return null;
+        }
+        return kShortestPaths(new DoubleMatrixGraph<>(graph, Double::doubleValue), source, dest, k, lengths);
+    }
+
+    /**
+     * Determine the k shortest simple paths between two vertices, as
+     * kShortestPaths on an AdjacencyMatrixGraph does
+     *
+     * @param graph Graph object
+     * @param source Source vertex
+     * @param dest Destination vertex
+     * @param k maximum number of paths
+     * @param lengths if not null, returns the length of each path
+     * @return up to k paths, null if vertices not in graph
+     */
+    public static <V> LinkedList<LinkedList<V>> kShortestPaths(DoubleMatrixGraph<V> graph, V source, V dest,
+            int k, LinkedList<Double> lengths) {
+        int srcIndex = graph.toIndex(source);
+        int dstIndex = graph.toIndex(dest);
+        if (srcIndex == -1 || dstIndex == -1) {
+            return null;
+        }
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? K_SHORTEST.begin() : null;
+        int n = graph.numVertices;
+        int[][] adj = new int[n][];
+        double[][] weight = new double[n][];
+        for (int i = 0; i < n; i++) {
+            int degree = 0;
+            for (int j = 0; j < n; j++) {
+                if (graph.privateGet(i, j) != DoubleMatrixGraph.NO_EDGE) {
+                    degree++;
+                }
+            }
+            adj[i] = new int[degree];
+            weight[i] = new double[degree];
+            degree = 0;
+            for (int j = 0; j < n; j++) {
+                if (graph.privateGet(i, j) != DoubleMatrixGraph.NO_EDGE) {
+                    adj[i][degree] = j;
+                    weight[i][degree++] = graph.privateGet(i, j);
+                }
+            }
+        }
+        boolean[] banned = new boolean[n];        // vertices before the spur
+        boolean[] bannedNext = new boolean[n];    // edges already taken from the spur
+        boolean[] knownVertices = new boolean[n];
+        int[] vertIndex = new int[n];
+        double[] minDist = new double[n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        ArrayList<PathCandidate> found = new ArrayList<>();
+        TreeSet<PathCandidate> candidates = new TreeSet<>();
+
+        if (k > 0 && restrictedShortestPath(adj, weight, srcIndex, dstIndex, banned, bannedNext, knownVertices, vertIndex, minDist, heap, call)) {
+            found.add(new PathCandidate(indexPath(srcIndex, dstIndex, vertIndex), minDist[dstIndex]));
+        }
+        while (!found.isEmpty() && found.size() < k) {
+            int[] prev = found.get(found.size() - 1).path;
+            double rootLength = 0;
+            for (int i = 0; i < prev.length - 1; i++) {
+                int spur = prev[i];
+                for (PathCandidate taken : found) {
+                    if (taken.path.length > i + 1 && taken.startsWith(prev, i + 1)) {
+                        bannedNext[taken.path[i + 1]] = true;
+                    }
+                }
+                for (int j = 0; j < i; j++) {
+                    banned[prev[j]] = true;
+                }
+
+                if (restrictedShortestPath(adj, weight, spur, dstIndex, banned, bannedNext, knownVertices, vertIndex, minDist, heap, call)) {
+                    int[] spurPath = indexPath(spur, dstIndex, vertIndex);
+                    int[] path = Arrays.copyOf(prev, i + spurPath.length);
+                    System.arraycopy(spurPath, 0, path, i, spurPath.length);
+                    // summed from the source, so equal paths get equal lengths
+                    double length = rootLength;
+                    for (int j = i; j < path.length - 1; j++) {
+                        length += graph.privateGet(path[j], path[j + 1]);
+                    }
+                    candidates.add(new PathCandidate(path, length));
+                    while (candidates.size() > k - found.size()) {
+                        candidates.pollLast();
+                    }
+                }
+
+                Arrays.fill(bannedNext, false);
+                for (int j = 0; j < i; j++) {
+                    banned[prev[j]] = false;
+                }
+                rootLength += graph.privateGet(spur, prev[i + 1]);
+            }
+            PathCandidate best = candidates.pollFirst();
+            if (best == null) {
+                break;
+            }
+            found.add(best);
+        }
+
+        LinkedList<LinkedList<V>> paths = new LinkedList<>();
+        if (lengths != null) {
+            lengths.clear();
+        }
+        for (PathCandidate candidate : found) {
+            LinkedList<V> path = new LinkedList<>();
+            for (int idx : candidate.path) {
+                path.add(graph.vertices.get(idx));
+            }
+            paths.add(path);
+            if (lengths != null) {
+                lengths.add(candidate.length);
+            }
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return paths;
+    }
+
+    /**
+     * Path found by kShortestPaths, as vertex indexes, ordered by length and
+     * then by the indexes
+     */
+    private static final class PathCandidate implements Comparable<PathCandidate> {
+
+        final int[] path;
+        final double length;
+
+        PathCandidate(int[] path, double length) {
+            this.path = path;
+            this.length = length;
+        }
+
+        boolean startsWith(int[] other, int len) {
+            for (int i = 0; i < len; i++) {
+                if (path[i] != other[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int compareTo(PathCandidate other) {
+            int cmp = Double.compare(length, other.length);
+            if (cmp != 0) {
+                return cmp;
+            }
+            if (path.length != other.path.length) {
+                return path.length - other.path.length;
+            }
+            for (int i = 0; i < path.length; i++) {
+                if (path[i] != other.path[i]) {
+                    return path[i] - other.path[i];
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Dijkstra over adjacency lists, from sourceIdx to destIdx, that skips the
+     * banned vertices and, leaving sourceIdx, the vertices in bannedNext.
+     * Stops once destIdx is known. knownVertices must be all false and heap
+     * empty; both are left that way for the next call.
+     *
+     * @param call metrics of the call, null if they are off
+     * @return false if destIdx cannot be reached
+     */
+    private static boolean restrictedShortestPath(int[][] adj, double[][] weight, int sourceIdx, int destIdx,
+            boolean[] banned, boolean[] bannedNext, boolean[] knownVertices, int[] verticesIndex, double[] minDist,
+            IndexedMinHeap heap, AlgorithmProbe.Call call) {
+        Arrays.fill(minDist, Double.MAX_VALUE);
+        Arrays.fill(verticesIndex, -1);
+        minDist[sourceIdx] = 0;
+        heap.insertOrDecrease(sourceIdx, 0);
+        while (!heap.isEmpty()) {
+            int idx = heap.removeMin();
+            knownVertices[idx] = true;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+                call.heapOps++;
+            }
+            if (idx == destIdx) {
+                break;
+            }
+            for (int e = 0; e < adj[idx].length; e++) {
+                int i = adj[idx][e];
+                double dist = minDist[idx] + weight[idx][e];
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed++;
+                }
+                if (!knownVertices[i] && !banned[i] && !(idx == sourceIdx && bannedNext[i]) && minDist[i] > dist) {
+                    minDist[i] = dist;
+                    verticesIndex[i] = idx;
+                    heap.insertOrDecrease(i, dist);
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.heapOps++;
+                    }
+                }
+            }
+        }
+        heap.clear();
+        Arrays.fill(knownVertices, false);
+        return minDist[destIdx] != Double.MAX_VALUE;
+    }
+
+    // Indexes of the path from sourceIdx to destIdx in verticesIndex
+    private static int[] indexPath(int sourceIdx, int destIdx, int[] verticesIndex) {
+        int len = 1;
+        for (int v = destIdx; v != sourceIdx; v = verticesIndex[v]) {
+            len++;
+        }
+        int[] path = new int[len];
+        for (int v = destIdx; len > 0; v = verticesIndex[v]) {
+            path[--len] = v;
+        }
+        return path;
+    }
+
+    /**
+     * Determine the shortest path to a vertex from the nearest of several
+     * sources, with a single run of Dijkstra's algorithm seeded with every
+     * source at distance 0. Besides the edge weights, a path pays the entry
+     * cost of each vertex it reaches after its source.
+     *
+     * @param graph Graph object
+     * @param sources Source vertices (the ones not in the graph are ignored)
+     * @param dest Destination vertex
+     * @param entryCost cost added when the path enters a vertex
+     * @param path Returns the vertices in the path, starting in the best
+     * source (empty if no path)
+     * @return minimum cost, -1 if dest not in graph or no path
+     */
+    public static <V> double shortestPath(AdjacencyMatrixGraph<V, Double> graph, Iterable<V> sources, V dest,
+            ToDoubleFunction<V> entryCost, LinkedList<V> path) {
+        int dstIndex = graph.toIndex(dest);
+        if (dstIndex == -1) {
+            return -1;
+        }
+
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? MULTI_SOURCE.begin() : null;
+        path.clear();
+        int[] vertIndex = new int[graph.numVertices];
+        double[] minDist = new double[graph.numVertices];
+        double[] cost = new double[graph.numVertices];
+        boolean[] knownVertices = new boolean[graph.numVertices];
+
+        for (int i = 0; i < graph.numVertices; i++) {
+            minDist[i] = Double.MAX_VALUE;
+            vertIndex[i] = -1;
+            cost[i] = Double.NaN;
+        }
+        for (V source : sources) {
+            int srcIndex = graph.toIndex(source);
+            if (srcIndex != -1) {
+                minDist[srcIndex] = 0;
+            }
+        }
+
+        int index = nextVertex(graph, knownVertices, minDist);
+        while (index != -1 && index != dstIndex) {
+            knownVertices[index] = true;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+            }
+            for (int i = 0; i < graph.numVertices; i++) {
+                Double weight = graph.privateGet(index, i);
+                if (weight != null && !knownVertices[i]) {
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.relaxed++;
+                    }
+                    if (Double.isNaN(cost[i])) {
+                        cost[i] = entryCost.applyAsDouble(graph.vertices.get(i));
+                    }
+                    if (minDist[i] > minDist[index] + weight + cost[i]) {
+                        minDist[i] = minDist[index] + weight + cost[i];
+                        vertIndex[i] = index;
+                    }
+                }
+            }
+            index = nextVertex(graph, knownVertices, minDist);
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        if (index == -1) {
+            return -1;
+        }
+        for (int i = dstIndex; i != -1; i = vertIndex[i]) {
+            path.push(graph.vertices.get(i));
+        }
+        return minDist[dstIndex];
+    }
+
+    public static <V> double shortestPath(AdjacencyMatrixGraph<V, Double> graph, Iterable<V> sources, V dest, LinkedList<V> path) {
+        return shortestPath(graph, sources, dest, v -> 0, path);
+    }
+
+    /**
+     * @return index of the unknown vertex with the lowest distance, -1 if
+     * none can be reached
+     */
+    private static <V> int nextVertex(AdjacencyMatrixGraph<V, Double> graph, boolean[] knownVertices, double[] minDist) {
+        double min = Double.MAX_VALUE;
+        int index = -1;
+        for (int i = 0; i < graph.numVertices; i++) {
+            if (!knownVertices[i] && minDist[i] < min) {
+                min = minDist[i];
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Determine the shortest path to a vertex from the nearest of several
+     * sources, as shortestPath on an AdjacencyMatrixGraph does. The entry
+     * cost of every vertex is asked once, before the search.
+     *
+     * @param graph Graph object
+     * @param sources Source vertices (the ones not in the graph are ignored)
+     * @param dest Destination vertex
+     * @param entryCost cost added when the path enters a vertex
+     * @param path Returns the vertices in the path, starting in the best
+     * source (empty if no path)
+     * @return minimum cost, -1 if dest not in graph or no path
+     */
+    public static <V> double shortestPath(DoubleMatrixGraph<V> graph, Iterable<V> sources, V dest,
+            ToDoubleFunction<V> entryCost, LinkedList<V> path) {
+        int dstIndex = graph.toIndex(dest);
+        if (dstIndex == -1) {
+            return -1;
+        }
+
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? MULTI_SOURCE.begin() : null;
+        path.clear();
+        int n = graph.numVertices;
+        int[] vertIndex = new int[n];
+        double[] minDist = new double[n];
+        double[] cost = new double[n];
+        boolean[] knownVertices = new boolean[n];
+        Arrays.fill(minDist, Double.MAX_VALUE);
+        Arrays.fill(vertIndex, -1);
+        // asked up front, so the loop over the rows makes no calls
+        for (int i = 0; i < n; i++) {
+            cost[i] = entryCost.applyAsDouble(graph.vertices.get(i));
+        }
+        int index = -1;
+        for (V source : sources) {
+            int srcIndex = graph.toIndex(source);
+            if (srcIndex != -1) {
+                minDist[srcIndex] = 0;
+                // the first vertex settled is the lowest source, as in nextVertex
+                if (index == -1 || srcIndex < index) {
+                    index = srcIndex;
+                }
+            }
+        }
+
+        index = shortestPath(graph, index, dstIndex, cost, knownVertices, vertIndex, minDist, call);
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        if (index == -1) {
+            return -1;
+        }
+        for (int i = dstIndex; i != -1; i = vertIndex[i]) {
+            path.push(graph.vertices.get(i));
+        }
+        return minDist[dstIndex];
+    }
+
+    public static <V> double shortestPath(DoubleMatrixGraph<V> graph, Iterable<V> sources, V dest, LinkedList<V> path) {
+        return shortestPath(graph, sources, dest, v -> 0, path);
+    }
+
+    /**
+     * Dijkstra's algorithm on a DoubleMatrixGraph, from the vertices at
+     * distance 0 in minDist, until destIdx is settled (or every reachable
+     * vertex, if destIdx is -1). Each settled vertex reads its row of the
+     * matrix once, relaxing the edges and choosing the next vertex in the
+     * same pass. The pass works on a copy of the distances where the settled
+     * vertices are NaN: no comparison with NaN holds, so they are never
+     * relaxed nor chosen, and the loop needs no test of knownVertices.
+     *
+     * @param index first vertex to settle
+     * @param cost cost added to the paths entering each vertex, null for none
+     * @param minDist Double.MAX_VALUE but for the sources; returns the
+     * distances of the settled vertices
+     * @param call metrics of the call, null if they are off
+     * @return destIdx, or -1 if it cannot be reached
+     */
+    private static <V> int shortestPath(DoubleMatrixGraph<V> graph, int index, int destIdx, double[] cost,
+            boolean[] knownVertices, int[] verticesIndex, double[] minDist, AlgorithmProbe.Call call) {
+        double[] weights = graph.weights;
+        double[] dist = minDist.clone();
+        int n = graph.numVertices;
+        while (index != -1 && index != destIdx) {
+            knownVertices[index] = true;
+            double d = dist[index];
+            minDist[index] = d;
+            dist[index] = Double.NaN;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+            }
+            int row = index * graph.capacity;
+            double min = Double.MAX_VALUE;
+            int next = -1;
+            for (int i = 0; i < n; i++) {
+                double path = d + weights[row + i];
+                if (cost != null) {
+                    path += cost[i];
+                }
+                if (AlgorithmMetrics.ENABLED && weights[row + i] != DoubleMatrixGraph.NO_EDGE && !knownVertices[i]) {
+                    call.relaxed++;
+                }
+                if (path < dist[i]) {
+                    dist[i] = path;
+                    verticesIndex[i] = index;
+                }
+                if (dist[i] < min) {
+                    min = dist[i];
+                    next = i;
+                }
+            }
+            index = next;
+        }
+        if (index != -1) {
+            minDist[index] = dist[index];
+        }
+        return index;
+    }
+
+    /**
+     * Determine the shortest paths from a vertex to all the others using
+     * Dijkstra's algorithm
+     *
+     * @param graph Graph object
+     * @param source Source vertex
+     * @return the shortest path tree of source, null if source is not in the
+     * graph
+     */
+    public static <V> ShortestPathTree<V> shortestPathTree(AdjacencyMatrixGraph<V, Double> graph, V source) {
+        int srcIndex = graph.toIndex(source);
+        if (srcIndex == -1) {
+            return null;
+        }
+
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? SHORTEST_PATH_TREE.begin() : null;
+        int[] vertIndex = new int[graph.numVertices];
+        double[] minDist = new double[graph.numVertices];
+        boolean[] knownVertices = new boolean[graph.numVertices];
+
+        for (int i = 0; i < graph.numVertices; i++) {
+            minDist[i] = Double.MAX_VALUE;
+            vertIndex[i] = -1;
+        }
+        shortestPath(graph, srcIndex, knownVertices, vertIndex, minDist, call);
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return new ShortestPathTree<>(new ArrayList<>(graph.vertices), new HashMap<>(graph.vertexIndex), srcIndex, vertIndex,
+                minDist, knownVertices);
+    }
+
+    /**
+     * Determine the shortest paths from a vertex to all the others using
+     * Dijkstra's algorithm
+     *
+     * @param graph Graph object
+     * @param source Source vertex
+     * @return the shortest path tree of source, null if source is not in the
+     * graph
+     */
+    public static <V> ShortestPathTree<V> shortestPathTree(DoubleMatrixGraph<V> graph, V source) {
+        int srcIndex = graph.toIndex(source);
+        if (srcIndex == -1) {
+            return null;
+        }
+
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? SHORTEST_PATH_TREE.begin() : null;
+        int[] vertIndex = new int[graph.numVertices];
+        double[] minDist = new double[graph.numVertices];
+        boolean[] knownVertices = new boolean[graph.numVertices];
+        Arrays.fill(minDist, Double.MAX_VALUE);
+        Arrays.fill(vertIndex, -1);
+        minDist[srcIndex] = 0;
+        shortestPath(graph, srcIndex, -1, null, knownVertices, vertIndex, minDist, call);
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return new ShortestPathTree<>(new ArrayList<>(graph.vertices), new HashMap<>(graph.vertexIndex), srcIndex, vertIndex,
+                minDist, knownVertices);
+    }
+
     /**
      * Recreates the minimum path between two vertex, from the result of
      * Dikstra's algorithm
@@ -117,6 +698,7 @@ public class EdgeAsDoubleGraphAlgorithms {
      * @return the new graph
      */
     public static <V> AdjacencyMatrixGraph<V, Double> minDistGraph(AdjacencyMatrixGraph<V, Double> graph) {
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? MIN_DIST_GRAPH.begin() : null;
         AdjacencyMatrixGraph<V, Double> newGraph = (AdjacencyMatrixGraph<V, Double>) graph.clone();
 
         for (int k = 0; k < newGraph.numVertices; k++) {
@@ -134,7 +716,57 @@ public class EdgeAsDoubleGraphAlgorithms {
                 }
             }
         }
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
         return newGraph;
     }
 
+    /**
+     * Creates new graph with minimum distances between all pairs using the
+     * Floyd-Warshall algorithm, as minDistGraph on an AdjacencyMatrixGraph
+     * does. Missing edges are +infinity, so the inner loop is a plain min
+     * over two contiguous rows, and no weight is boxed.
+     *
+     * @param <V>
+     * @param graph Graph object
+     * @return the new graph
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> DoubleMatrixGraph<V> minDistGraph(DoubleMatrixGraph<V> graph) {
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? MIN_DIST_GRAPH.begin() : null;
+        DoubleMatrixGraph<V> newGraph = (DoubleMatrixGraph<V>) graph.clone();
+        double[] dist = newGraph.weights;
+        int n = newGraph.numVertices;
+        int stride = newGraph.capacity;
+        int added = 0;      // new entries, two per new edge
+
+        for (int k = 0; k < n; k++) {
+            int rowK = k * stride;
+            for (int i = 0; i < n; i++) {
+                int rowI = i * stride;
+                double ik = dist[rowI + k];
+                if (i == k || ik == DoubleMatrixGraph.NO_EDGE) {
+                    continue;
+                }
+                for (int j = 0; j < n; j++) {
+                    double via = ik + dist[rowK + j];
+                    if (via < dist[rowI + j] && j != i) {
+                        if (dist[rowI + j] == DoubleMatrixGraph.NO_EDGE) {
+                            added++;
+                        }
+                        dist[rowI + j] = via;
+                    }
+                }
+            }
+        }
+        newGraph.numEdges += added / 2;
+        if (added > 0) {
+            newGraph.version++;
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return newGraph;
+    }
 }
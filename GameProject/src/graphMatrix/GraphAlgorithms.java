@@ -1,8 +1,15 @@
 package graphMatrix;
 
+import graphCommon.AlgorithmMetrics;
+import graphCommon.AlgorithmProbe;
+import graphCommon.SpanningForest;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.Iterator;
-import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Implementation of graph algorithms for a (undirected) graph structure
@@ -15,6 +22,17 @@ import java.util.Queue;
  */
 public class GraphAlgorithms {
 
+    private static final AlgorithmProbe DFS = probe("DFS");
+    private static final AlgorithmProbe BFS = probe("BFS");
+    private static final AlgorithmProbe ALL_PATHS = probe("allPaths");
+    private static final AlgorithmProbe TRANSITIVE_CLOSURE = probe("transitiveClosure");
+    private static final AlgorithmProbe PRIM = probe("prim");
+    private static final AlgorithmProbe KRUSKAL = probe("kruskal");
+
+    private static AlgorithmProbe probe(String algorithm) {
+        return AlgorithmMetrics.probe("graphMatrix.GraphAlgorithms." + algorithm);
+    }
+
     private static <T> LinkedList<T> reverse(LinkedList<T> list) {
         LinkedList<T> reversed = new LinkedList<T>();
         Iterator<T> it = list.iterator();
@@ -41,35 +59,57 @@ public class GraphAlgorithms {
             return null;
         }
 
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? DFS.begin() : null;
+        BitAdjacencyMatrix adjacency = graph.adjacencyBits();
         LinkedList<V> resultQueue = new LinkedList<V>();
         resultQueue.add(vertex);
-        boolean[] knownVertices = new boolean[graph.numVertices];
-        DFS(graph, index, knownVertices, resultQueue);
+        long[] knownVertices = new long[adjacency.words];
+        DFS(graph, adjacency, index, knownVertices, resultQueue);
+        if (AlgorithmMetrics.ENABLED) {
+            call.settled = resultQueue.size();
+            // the edges of the visited vertices, as BFS counts them
+            for (int w = 0; w < adjacency.words; w++) {
+                for (long known = knownVertices[w]; known != 0; known &= known - 1) {
+                    call.relaxed += adjacency.degree((w << 6) + Long.numberOfTrailingZeros(known));
+                }
+            }
+            call.end();
+        }
         return resultQueue;
     }
 
     /**
      * Actual depth-first search of the graph starting at vertex. The method
-     * adds discovered vertices (including vertex) to the queue of vertices
+     * adds discovered vertices (including vertex) to the queue of vertices.
+     * The unknown neighbours of a word are its bits not in knownVertices, so
+     * they are masked again after each visit, which may have found some.
      *
      * @param graph Graph object
+     * @param adjacency bits of the edges of graph
      * @param index Index of vertex of graph that will be the source of the
      * search
-     * @param known previously discovered vertices
+     * @param knownVertices bits of the previously discovered vertices
      * @param verticesQueue queue of vertices found by search
      *
      */
-    static <V, E> void DFS(AdjacencyMatrixGraph<V, E> graph, int index, boolean[] knownVertices, LinkedList<V> verticesQueue) {
-        knownVertices[index] = true;
-        for (int i = 0; i < graph.numVertices; i++) {
-            if (graph.edgeMatrix[index][i] != null && knownVertices[i] == false) {
+    static <V, E> void DFS(AdjacencyMatrixGraph<V, E> graph, BitAdjacencyMatrix adjacency, int index, long[] knownVertices, LinkedList<V> verticesQueue) {
+        knownVertices[index >>> 6] |= 1L << index;
+        int row = index * adjacency.words;
+        for (int w = 0; w < adjacency.words; w++) {
+            long unknown = adjacency.bits[row + w] & ~knownVertices[w];
+            while (unknown != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(unknown);
                 verticesQueue.add(graph.vertices.get(i));
-                DFS(graph, i, knownVertices, verticesQueue);
+                DFS(graph, adjacency, i, knownVertices, verticesQueue);
+                unknown &= ~knownVertices[w];
             }
         }
     }
 
     /**
+     * Performs breadth-first search of the graph starting at vertex. A vertex
+     * is known from the moment it is queued, and the unknown neighbours of a
+     * vertex are queued a word of 64 at a time, in the order of the indexes.
      *
      * @param graph Graph object
      * @param vertex Vertex of graph that will be the source of the search
@@ -79,34 +119,45 @@ public class GraphAlgorithms {
      */
     public static <V, E> LinkedList<V> BFS(AdjacencyMatrixGraph<V, E> graph, V vertex) {
 
-        if (!graph.checkVertex(vertex)) {      //se ele não existir retorna null
+        int index = graph.toIndex(vertex);
+        if (index == -1) {
             return null;
-        } else {
-            LinkedList<V> qbfs = new LinkedList();               // lista a retornar
-            Queue<V> qaux = new LinkedList<>();               // auxiliar para guardar os vértices ainda não visitados
-
-            qbfs.add(vertex);                                // adiciono porque é a origem. Adiciono sempre ao fim que assim eles ficam na ordem
-            qaux.add(vertex);
+        }
 
-            while (!qaux.isEmpty()) {
-                V temp = qaux.peek();               //guardo temporariamente o Vértice
-                qaux.remove();
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? BFS.begin() : null;
+        BitAdjacencyMatrix adjacency = graph.adjacencyBits();
+        int words = adjacency.words;
+        long[] knownVertices = new long[words];
+        int[] queue = new int[graph.numVertices];      // every vertex is queued once
+        int head = 0, tail = 0;
 
-                if (!qbfs.contains(temp)) {
-                    qbfs.add(temp);
+        knownVertices[index >>> 6] |= 1L << index;
+        queue[tail++] = index;
+        while (head < tail) {
+            int row = queue[head++] * words;
+            for (int w = 0; w < words; w++) {
+                long adjacent = adjacency.bits[row + w];
+                if (AlgorithmMetrics.ENABLED) {
+                    call.relaxed += Long.bitCount(adjacent);
                 }
-
-                for (V it : graph.directConnections(temp)) {
-                    if (!(qbfs.contains(it)) && !(qaux.contains(it))) {
-                       qaux.add(it);
-                    }
-
+                long unknown = adjacent & ~knownVertices[w];
+                knownVertices[w] |= unknown;
+                while (unknown != 0) {
+                    queue[tail++] = (w << 6) + Long.numberOfTrailingZeros(unknown);
+                    unknown &= unknown - 1;
                 }
-
             }
-            return qbfs;
         }
 
+        LinkedList<V> qbfs = new LinkedList<>();
+        for (int i = 0; i < tail; i++) {
+            qbfs.add(graph.vertices.get(queue[i]));
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.settled = tail;
+            call.end();
+        }
+        return qbfs;
     }
 
     /**
@@ -122,13 +173,20 @@ public class GraphAlgorithms {
      */
     public static <V, E> boolean allPaths(AdjacencyMatrixGraph<V, E> graph, V source, V dest, LinkedList<LinkedList<V>> paths) {
 
-        if (graph.checkVertex(source) && graph.checkVertex(dest)) {
+        int sourceIdx = graph.toIndex(source);
+        int destIdx = graph.toIndex(dest);
+        if (sourceIdx != -1 && destIdx != -1) {
 
+            AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? ALL_PATHS.begin() : null;
+            BitAdjacencyMatrix adjacency = graph.adjacencyBits();
             paths.clear();
-            boolean[] knownVertices = new boolean[graph.numVertices];
-            LinkedList<V> auxStack = new LinkedList<>();
+            long[] onPath = new long[adjacency.words];
+            int[] path = new int[graph.numVertices];
 
-            GraphAlgorithms.allPaths(graph, graph.vertices.indexOf(source), graph.vertices.indexOf(dest), knownVertices, auxStack, paths);
+            GraphAlgorithms.allPaths(graph, adjacency, sourceIdx, destIdx, onPath, path, 0, paths);
+            if (AlgorithmMetrics.ENABLED) {
+                call.end();
+            }
 
             return paths.size() > 0;
         }
@@ -137,60 +195,321 @@ public class GraphAlgorithms {
 
     /**
      * Actual paths search The method adds vertices to the current path (stack
-     * of vertices) when destination is found, the current path is saved to the
-     * list of paths
+     * of vertices) when destination is found, a copy of the current path is
+     * saved to the list of paths. The next vertices are the neighbours not
+     * in onPath, 64 per word.
      *
      * @param graph Graph object
+     * @param adjacency bits of the edges of graph
      * @param sourceIdx Index of source vertex
      * @param destIdx Index of destination vertex
-     * @param knownVertices previously discovered vertices
-     * @param auxStack stack of vertices in the path
-     * @param path LinkedList with paths (queues)
+     * @param onPath bits of the vertices in the path
+     * @param path indexes of the vertices in the path
+     * @param length number of vertices in the path
+     * @param paths LinkedList with paths (queues)
      *
      */
-    public static <V, E> void allPaths(AdjacencyMatrixGraph<V, E> graph, int sourceIdx, int destIdx, boolean[] knownVertices, LinkedList<V> auxStack, LinkedList<LinkedList<V>> paths) {
+    static <V, E> void allPaths(AdjacencyMatrixGraph<V, E> graph, BitAdjacencyMatrix adjacency, int sourceIdx, int destIdx,
+            long[] onPath, int[] path, int length, LinkedList<LinkedList<V>> paths) {
+        path[length++] = sourceIdx;
         if (sourceIdx == destIdx) {
-            auxStack.add(graph.vertices.get(sourceIdx));
-            paths.add(auxStack);
-        } else {
-            knownVertices[sourceIdx] = true;
-            auxStack.add(graph.vertices.get(sourceIdx));
-
-            for (V adjVert : graph.directConnections(graph.vertices.get(sourceIdx))) {
+            LinkedList<V> found = new LinkedList<>();
+            for (int i = 0; i < length; i++) {
+                found.add(graph.vertices.get(path[i]));
+            }
+            paths.add(found);
+            return;
+        }
+        onPath[sourceIdx >>> 6] |= 1L << sourceIdx;
+        int row = sourceIdx * adjacency.words;
+        for (int w = 0; w < adjacency.words; w++) {
+            long next = adjacency.bits[row + w] & ~onPath[w];
+            while (next != 0) {
+                allPaths(graph, adjacency, (w << 6) + Long.numberOfTrailingZeros(next), destIdx, onPath, path, length, paths);
+                next &= next - 1;
+            }
+        }
+        onPath[sourceIdx >>> 6] &= ~(1L << sourceIdx);
+    }
 
-                if (knownVertices[graph.toIndex(adjVert)] == false) {
-                    GraphAlgorithms.allPaths(graph, graph.vertices.indexOf(adjVert), destIdx, knownVertices, auxStack, paths);
-                }
+    /**
+     * Paths from the vertex of index sourceIdx to the one of index destIdx
+     * not going through knownVertices, each added to paths after the
+     * vertices of auxStack. Neither knownVertices nor auxStack change.
+     *
+     * @param graph Graph object
+     * @param sourceIdx Index of source vertex
+     * @param destIdx Index of destination vertex
+     * @param knownVertices vertices the paths must not go through
+     * @param auxStack vertices to put before each path
+     * @param paths LinkedList with paths (queues)
+     * @deprecated the recursion is now package-private, on the bits of the
+     * edges; use allPaths(graph, source, dest, paths)
+     */
+    @Deprecated
+    public static <V, E> void allPaths(AdjacencyMatrixGraph<V, E> graph, int sourceIdx, int destIdx, boolean[] knownVertices, LinkedList<V> auxStack, LinkedList<LinkedList<V>> paths) {
+        BitAdjacencyMatrix adjacency = graph.adjacencyBits();
+        long[] onPath = new long[adjacency.words];
+        for (int i = 0; i < Math.min(knownVertices.length, graph.numVertices); i++) {
+            if (knownVertices[i]) {
+                onPath[i >>> 6] |= 1L << i;
             }
         }
-        knownVertices[sourceIdx] = false;
-        auxStack.remove();
+        LinkedList<LinkedList<V>> found = new LinkedList<>();
+        allPaths(graph, adjacency, sourceIdx, destIdx, onPath, new int[graph.numVertices], 0, found);
+        for (LinkedList<V> path : found) {
+            path.addAll(0, auxStack);
+            paths.add(path);
+        }
     }
 
     /**
-     * transitive closure uses the Floyd-Warshall algorithm
+     * transitive closure uses the Floyd-Warshall algorithm, rows computed in
+     * parallel in the common ForkJoinPool
      *
      * @param graph Graph object
      * @param dummyEdge object to insert in the newly created edges
      * @return the new graph
      */
     public static <V, E> AdjacencyMatrixGraph<V, E> transitiveClosure(AdjacencyMatrixGraph<V, E> graph, E dummyEdge) {
+        return transitiveClosure(graph, dummyEdge, ForkJoinPool.commonPool());
+    }
 
-        AdjacencyMatrixGraph<V, E> newGraph = (AdjacencyMatrixGraph) graph.clone();
-        int tamV = newGraph.numVertices;
+    /**
+     * transitive closure uses the Floyd-Warshall algorithm (Warshall's, on
+     * the rows of bits): through each vertex k in turn, every row that
+     * reaches k gets the row of k, 64 vertices per word. The vertices k go
+     * in blocks of 64: the rows of the block are closed first, then the other
+     * rows take from them in parallel in the given pool, so the rows only
+     * wait for each other once per block. Small graphs, or a pool of one
+     * thread, run in the calling thread. The vertices joined in the end but
+     * not by the graph get a new edge.
+     *
+     * @param graph Graph object
+     * @param dummyEdge object to insert in the newly created edges
+     * @param pool pool that computes the rows
+     * @return the new graph
+     */
+    public static <V, E> AdjacencyMatrixGraph<V, E> transitiveClosure(AdjacencyMatrixGraph<V, E> graph, E dummyEdge, ForkJoinPool pool) {
+
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? TRANSITIVE_CLOSURE.begin() : null;
+        BitAdjacencyMatrix adjacency = graph.adjacencyBits();
+        int tamV = adjacency.numVertices;
+        int words = adjacency.words;
+        long[] reach = adjacency.bits.clone();
+        // a single thread or task would only add the handing over to the pool
+        boolean sequential = pool.getParallelism() == 1 || tamV <= 2 * ClosureTask.THRESHOLD;
+
+        for (int block = 0; block < words; block++) {
+            int first = block << 6;
+            int last = Math.min(first + 64, tamV);
+            // rows of the block only need each other
+            for (int k = first; k < last; k++) {
+                for (int i = first; i < last; i++) {
+                    closeRow(reach, words, i, k);
+                }
+            }
+            if (sequential) {
+                closeRows(reach, words, block, 0, tamV);
+            } else {
+                pool.invoke(new ClosureTask(reach, words, block, 0, tamV));
+            }
+        }
 
+        AdjacencyMatrixGraph<V, E> newGraph = (AdjacencyMatrixGraph) graph.clone();
         for (int i = 0; i < tamV; i++) {
+            int rowI = i * words;
+            for (int w = (i + 1) >>> 6; w < words; w++) {
+                long added = reach[rowI + w] & ~adjacency.bits[rowI + w];
+                if (w == (i + 1) >>> 6) {
+                    added &= -1L << (i + 1);       // only j > i, the edge is undirected
+                }
+                while (added != 0) {
+                    newGraph.insertEdge(i, (w << 6) + Long.numberOfTrailingZeros(added), dummyEdge);
+                    added &= added - 1;
+                }
+            }
+        }
+        if (AlgorithmMetrics.ENABLED) {
+            call.settled = tamV;
+            call.end();
+        }
+        return newGraph;
+    }
+
+    // Step k of Warshall on row i: if i reaches k, it reaches what k reaches
+    private static void closeRow(long[] reach, int words, int i, int k) {
+        int rowI = i * words;
+        if ((reach[rowI + (k >>> 6)] & (1L << k)) != 0) {
+            int rowK = k * words;
+            for (int w = 0; w < words; w++) {
+                reach[rowI + w] |= reach[rowK + w];
+            }
+        }
+    }
+
+    /**
+     * Runs the steps of a block of 64 vertices k on the rows [from, to)
+     * outside the block, splitting the range while it is larger than
+     * THRESHOLD. The rows of the block are already closed and only read: the
+     * row of k holds the rows of the vertices of the block k reaches, so the
+     * block vertices a row gets from it need no step of their own.
+     */
+    private static class ClosureTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 64;
+
+        private final long[] reach;
+        private final int words, block, from, to;
+
+        ClosureTask(long[] reach, int words, int block, int from, int to) {
+            this.reach = reach;
+            this.words = words;
+            this.block = block;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ClosureTask(reach, words, block, from, mid),
+                        new ClosureTask(reach, words, block, mid, to));
+                return;
+            }
+            closeRows(reach, words, block, from, to);
+        }
+    }
+
+    // Steps of the block of 64 vertices k on the rows [from, to) outside it
+    private static void closeRows(long[] reach, int words, int block, int from, int to) {
+        int first = block << 6;
+        for (int i = from; i < to; i++) {
+            if (i >>> 6 == block) {
+                continue;
+            }
+            int rowI = i * words;
+            long through = reach[rowI + block];     // the vertices of the block i reaches
+            while (through != 0) {
+                closeRow(reach, words, i, first + Long.numberOfTrailingZeros(through));
+                through &= through - 1;
+            }
+        }
+    }
+
+    /**
+     * Computes a minimum (or maximum) spanning forest, with Prim when
+     * SpanningForest.preferDensePrim says the graph is dense and with Kruskal
+     * otherwise
+     *
+     * @param graph Graph object
+     * @param weight weight of an edge (for instance Road::getDifficulty)
+     * @param maximum true for a maximum spanning forest
+     * @return the forest, with vertex indexes as ids
+     */
+    public static <V, E> SpanningForest<V> spanningForest(AdjacencyMatrixGraph<V, E> graph, ToDoubleFunction<E> weight, boolean maximum) {
+        return SpanningForest.preferDensePrim(graph.numVertices, graph.numEdges)
+                ? prim(graph, weight, maximum) : kruskal(graph, weight, maximum);
+    }
+
+    /**
+     * Computes a minimum (or maximum) spanning forest with Prim, taking as
+     * next vertex the one with the lowest key in a scan of all of them: the
+     * rows of the matrix are read anyway, so a heap would not make it faster
+     * than O(V^2). When no vertex left is reached, the scan gives the first
+     * of them, which starts a new tree.
+     *
+     * @param graph Graph object
+     * @param weight weight of an edge
+     * @param maximum true for a maximum spanning forest
+     * @return the forest, with vertex indexes as ids
+     */
+    public static <V, E> SpanningForest<V> prim(AdjacencyMatrixGraph<V, E> graph, ToDoubleFunction<E> weight, boolean maximum) {
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? PRIM.begin() : null;
+        int tamV = graph.numVertices;
+        double sign = maximum ? -1 : 1;      // the lowest sign*weight joins first
+        boolean[] inTree = new boolean[tamV];
+        double[] key = new double[tamV];
+        int[] parent = new int[tamV];
+        double[] parentWeight = new double[tamV];
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        int[] orig = new int[Math.max(0, tamV - 1)];
+        int[] dest = new int[orig.length];
+        double[] weights = new double[orig.length];
+        int numEdges = 0;
+
+        for (int count = 0; count < tamV; count++) {
+            int i = -1;
             for (int j = 0; j < tamV; j++) {
-                if (i != j && newGraph.getEdge(newGraph.vertices.get(i), newGraph.vertices.get(j)) != null) {
-                    for (int k = 0; k < tamV; k++) {
-                        if (k != j && k != i && newGraph.getEdge(newGraph.vertices.get(k), newGraph.vertices.get(j)) != null) {
-                            newGraph.insertEdge(newGraph.vertices.get(i), newGraph.vertices.get(j), dummyEdge);
-                        }
+                if (!inTree[j] && (i == -1 || key[j] < key[i])) {
+                    i = j;
+                }
+            }
+            inTree[i] = true;
+            if (AlgorithmMetrics.ENABLED) {
+                call.settled++;
+            }
+            if (parent[i] != -1) {
+                orig[numEdges] = parent[i];
+                dest[numEdges] = i;
+                weights[numEdges++] = parentWeight[i];
+            }
+            int row = i * graph.capacity;
+            for (int j = 0; j < tamV; j++) {
+                E edge = graph.edgeMatrix[row + j];
+                if (edge != null && !inTree[j]) {
+                    double w = weight.applyAsDouble(edge);
+                    if (AlgorithmMetrics.ENABLED) {
+                        call.relaxed++;
+                    }
+                    if (sign * w < key[j]) {
+                        key[j] = sign * w;
+                        parent[j] = i;
+                        parentWeight[j] = w;
                     }
                 }
             }
         }
-        return newGraph;
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return new SpanningForest<>(new ArrayList<>(graph.vertices), orig, dest, weights, numEdges);
+    }
+
+    /**
+     * Computes a minimum (or maximum) spanning forest with Kruskal: the edges
+     * are sorted in parallel and joined through a union-find
+     *
+     * @param graph Graph object
+     * @param weight weight of an edge
+     * @param maximum true for a maximum spanning forest
+     * @return the forest, with vertex indexes as ids
+     */
+    public static <V, E> SpanningForest<V> kruskal(AdjacencyMatrixGraph<V, E> graph, ToDoubleFunction<E> weight, boolean maximum) {
+        AlgorithmProbe.Call call = AlgorithmMetrics.ENABLED ? KRUSKAL.begin() : null;
+        int tamV = graph.numVertices;
+        int[] ends = new int[graph.numEdges];
+        int[] others = new int[graph.numEdges];
+        double[] weights = new double[graph.numEdges];
+        int nEdges = 0;
+        for (int i = 0; i < tamV; i++) {
+            for (int j = i + 1; j < tamV; j++) {
+                E edge = graph.privateGet(i, j);
+                if (edge != null) {
+                    ends[nEdges] = i;
+                    others[nEdges] = j;
+                    weights[nEdges++] = weight.applyAsDouble(edge);
+                }
+            }
+        }
+        SpanningForest<V> forest = SpanningForest.kruskal(new ArrayList<>(graph.vertices), tamV, ends, others, weights, nEdges, maximum, call);
+        if (AlgorithmMetrics.ENABLED) {
+            call.end();
+        }
+        return forest;
     }
 
 }
@@ -0,0 +1,79 @@
+package graphMatrix;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+
+/**
+ * Shortest paths from one source vertex to every vertex of a graph, as left
+ * by Dijkstra's algorithm. The tree keeps its own copy of the vertices, so it
+ * can still be read after the graph changes (it then describes the old graph).
+ *
+ * @author DEI-ESINF
+ * @param <V>
+ */
+public class ShortestPathTree<V> {
+
+    private final ArrayList<V> vertices;
+    private final HashMap<V, Integer> vertexIndex;   // vertex -> its position in vertices
+    private final int sourceIdx;
+    private final int[] verticesIndex;     // index of the previous vertex in the path
+    private final double[] minDist;
+    private final boolean[] knownVertices; // vertices reachable from the source
+
+    ShortestPathTree(ArrayList<V> vertices, HashMap<V, Integer> vertexIndex, int sourceIdx, int[] verticesIndex,
+            double[] minDist, boolean[] knownVertices) {
+        this.vertices = vertices;
+        this.vertexIndex = vertexIndex;
+        this.sourceIdx = sourceIdx;
+        this.verticesIndex = verticesIndex;
+        this.minDist = minDist;
+        this.knownVertices = knownVertices;
+    }
+
+    public V source() {
+        return vertices.get(sourceIdx);
+    }
+
+    /**
+     * @param dest Destination vertex
+     * @return minimum distance from the source, -1 if dest is not in the
+     * graph or there is no path
+     */
+    public double distance(V dest) {
+        int destIdx = indexOf(dest);
+        if (destIdx == -1 || !knownVertices[destIdx]) {
+            return -1;
+        }
+        return minDist[destIdx];
+    }
+
+    /**
+     * Returns the shortest path from the source to a vertex, as
+     * EdgeAsDoubleGraphAlgorithms.shortestPath does
+     *
+     * @param dest Destination vertex
+     * @param path Returns the vertices in the path (empty if no path)
+     * @return minimum distance, -1 if dest is not in the graph or no path
+     */
+    public double path(V dest, LinkedList<V> path) {
+        int destIdx = indexOf(dest);
+        if (destIdx == -1) {
+            return -1;
+        }
+        path.clear();
+        if (!knownVertices[destIdx]) {
+            return -1;
+        }
+        for (int i = destIdx; i != sourceIdx; i = verticesIndex[i]) {
+            path.push(vertices.get(i));
+        }
+        path.push(vertices.get(sourceIdx));
+        return minDist[destIdx];
+    }
+
+    private int indexOf(V vertex) {
+        Integer index = vertexIndex.get(vertex);
+        return index == null ? -1 : index;
+    }
+}
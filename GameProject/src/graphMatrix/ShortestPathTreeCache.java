@@ -0,0 +1,85 @@
+package graphMatrix;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of shortest path trees keyed by their source vertex. The
+ * cache watches the version of the graph the trees come from and forgets all
+ * of them as soon as that version changes.
+ *
+ * @author DEI-ESINF
+ * @param <V>
+ */
+public class ShortestPathTreeCache<V> {
+
+    private final int maxSize;
+    private final LongSupplier version;
+    private final Function<V, ShortestPathTree<V>> loader;
+    private final LinkedHashMap<V, ShortestPathTree<V>> trees;
+    private long cachedVersion;
+    private int hits;
+    private int misses;
+
+    /**
+     * @param maxSize maximum number of trees kept
+     * @param version version of the graph, e.g. graph::version
+     * @param loader computes the tree of a source vertex on a miss
+     */
+    public ShortestPathTreeCache(int maxSize, LongSupplier version, Function<V, ShortestPathTree<V>> loader) {
+        this.maxSize = maxSize;
+        this.version = version;
+        this.loader = loader;
+        this.trees = new LinkedHashMap<V, ShortestPathTree<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<V, ShortestPathTree<V>> eldest) {
+                return size() > ShortestPathTreeCache.this.maxSize;
+            }
+        };
+        this.cachedVersion = version.getAsLong();
+    }
+
+    /**
+     * Returns the tree of a source vertex, computing it if it is not cached
+     * for the current version of the graph
+     *
+     * @param source Source vertex
+     * @return the tree, or what the loader returns for an unknown vertex
+     */
+    public synchronized ShortestPathTree<V> get(V source) {
+        long current = version.getAsLong();
+        if (current != cachedVersion) {
+            trees.clear();
+            cachedVersion = current;
+        }
+        ShortestPathTree<V> tree = trees.get(source);
+        if (tree != null) {
+            hits++;
+            return tree;
+        }
+        misses++;
+        tree = loader.apply(source);
+        if (tree != null) {
+            trees.put(source, tree);
+        }
+        return tree;
+    }
+
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    public synchronized int hits() {
+        return hits;
+    }
+
+    public synchronized int misses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        trees.clear();
+    }
+}
@@ -5,9 +5,12 @@
  */
 package gameproject;
 
+import graphMap.ConcurrentGraph;
 import graphMap.Edge;
 import graphMap.Graph;
+import graphCommon.SpanningForest;
 import graphMatrix.AdjacencyMatrixGraph;
+import graphMatrix.DoubleMatrixGraph;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -115,7 +118,7 @@ public class GameBaseTest {
         expResult.insertVertex(a);
         expResult.insertVertex(b);
         expResult.insertEdge(a, b, 20.0);
-        AdjacencyMatrixGraph<Locale, Double> result = instance.cloneToDouble(instance.getMatrix());
+        DoubleMatrixGraph<Locale> result = instance.cloneToDouble(instance.getMatrix());
         assertEquals(expResult.edges(), result.edges());
     }
 
@@ -256,6 +259,27 @@ public class GameBaseTest {
         assertEquals("ja existe uma alianca entre as duas personagens", expResult, result);
     }
 
+    /**
+     * Test of novaAlianca method with a concurrent map, of class GameBase.
+     */
+    @Test
+    public void testNovaAliancaConcorrente() {
+        System.out.println("novaAlianca concorrente");
+        GameBase instance = new GameBase();
+        Character c1 = new Character("dude", 50, new Locale());
+        Character c2 = new Character("aliado", 50, new Locale());
+        ConcurrentGraph<Character, Aliance> map = new ConcurrentGraph<>(false);
+        map.insertVertex(c1);
+        map.insertVertex(c2);
+        Graph<Character, Aliance> antes = map.read();
+
+        Aliance result = instance.novaAlianca(map, c1, c2);
+        assertEquals("Compara primeira personagem da alianca", "dude", result.getFirstCharacter().getName());
+        assertTrue("a nova versao tem a alianca", map.read().getEdge(c1, c2) != null);
+        assertTrue("a versao anterior nao muda", antes.getEdge(c1, c2) == null);
+        assertEquals("ja existe uma alianca entre as duas personagens", null, instance.novaAlianca(map, c1, c2));
+    }
+
     /**
      * Test of todasAliancasPossiveis method, of class GameBase.
      */
@@ -509,4 +533,112 @@ public class GameBaseTest {
         assertEquals("Nao existe caminho",expResult, result, 0.0);
     }
     
+
+    /**
+     * Test of caminhoMaisFacil method after the world changes, of class GameBase.
+     */
+    @Test
+    public void testCaminhoMaisFacilMundoAlterado() {
+        System.out.println("caminhoMaisFacil mundo alterado");
+        LinkedList<Locale> path = new LinkedList<>();
+        Locale A = new Locale("A", 10);
+        Locale B = new Locale("B", 10);
+        Locale C = new Locale("C", 10);
+        GameBase instance = new GameBase();
+        instance.insertLocale(A.getName(), A.getDifficulty());
+        instance.insertLocale(B.getName(), B.getDifficulty());
+        instance.insertLocale(C.getName(), C.getDifficulty());
+        instance.insertRoads(30, A, B);
+        instance.insertRoads(10, A, C);
+
+        assertEquals("Caminho direto", 40.0, instance.caminhoMaisFacil(instance.getMatrix(), path, A, B), 0.0);
+        assertEquals("Caminho repetido", 40.0, instance.caminhoMaisFacil(instance.getMatrix(), path, A, B), 0.0);
+        assertEquals("Caminho com dois locais", 2, path.size());
+
+        instance.insertRoads(5, C, B);
+        assertEquals("Caminho pela nova estrada", 35.0, instance.caminhoMaisFacil(instance.getMatrix(), path, A, B), 0.0);
+        assertEquals("Caminho com tres locais", 3, path.size());
+
+        instance.getMatrix().getEdge(A, B).setDifficulty(1);
+        assertEquals("Caminho pela estrada mais facil", 11.0, instance.caminhoMaisFacil(instance.getMatrix(), path, A, B), 0.0);
+        assertEquals("Caminho com dois locais", 2, path.size());
+    }
+
+
+    /**
+     * Test of conquerLocale method with several owned locales, of class GameBase.
+     */
+    @Test
+    public void testConquerLocaleVariasOrigens() {
+        System.out.println("conquerLocale varias origens");
+
+        GameBase instance = new GameBase();
+        instance.insertLocale("Kyoto", 5);
+        instance.insertLocale("Argel", 3);
+        instance.insertLocale("Cartum", 6);
+        instance.insertLocale("Munique", 8);
+        Locale la = instance.searchForLocal("Kyoto");
+        Locale lb = instance.searchForLocal("Argel");
+        Locale lc = instance.searchForLocal("Cartum");
+        Locale ld = instance.searchForLocal("Munique");
+
+        instance.insertCharacter("Trump", 35, la);
+        instance.insertCharacter("Hilary", 7, lb);
+        Character t = instance.searchForCharacter("Trump");
+        Character h = instance.searchForCharacter("Hilary");
+        la.setOwner(t);
+        lb.setOwner(h);
+        lc.setOwner(h);
+        ld.setOwner(t);
+
+        instance.insertRoads(30, la, lc);
+        instance.insertRoads(4, ld, lb);
+        instance.insertRoads(5, lb, lc);
+
+        LinkedList<Locale> path = new LinkedList<>();
+        assertEquals("Munique-Argel-Cartum", 4 + 5 + 3 + 3 + 7 + 6 + 6 + 7, instance.conquerLocale(t, lc, path), 0.0);
+        assertEquals("Caminho deve comecar em Munique", ld, path.getFirst());
+        assertEquals("Caminho com tres locais", 3, path.size());
+
+        assertEquals("Local proprio", 0, instance.conquerLocale(t, ld, path), 0.0);
+        assertEquals("Personagem sem locais", -1, instance.conquerLocale(new Character("x", 1, la), lc, path), 0.0);
+        assertTrue("Caminho vazio", path.isEmpty());
+    }
+
+    /**
+     * Test of estradasMaisFaceis and aliancasMaisFortes methods, of class GameBase.
+     */
+    @Test
+    public void testArvoresAbrangentes() {
+        System.out.println("estradasMaisFaceis e aliancasMaisFortes");
+
+        GameBase instance = new GameBase();
+        instance.insertLocale("Kyoto", 5);
+        instance.insertLocale("Argel", 3);
+        instance.insertLocale("Cartum", 6);
+        Locale la = instance.searchForLocal("Kyoto");
+        Locale lb = instance.searchForLocal("Argel");
+        Locale lc = instance.searchForLocal("Cartum");
+        instance.insertRoads(30, la, lc);
+        instance.insertRoads(4, la, lb);
+        instance.insertRoads(5, lb, lc);
+
+        SpanningForest<Locale> estradas = instance.estradasMaisFaceis();
+        assertEquals("Duas estradas", 2, estradas.numEdges());
+        assertEquals("Dificuldade total", 9, estradas.totalWeight(), 0.0);
+
+        instance.insertCharacter("Trump", 35, la);
+        instance.insertCharacter("Hilary", 7, lb);
+        instance.insertCharacter("Obama", 20, lc);
+        Character t = instance.searchForCharacter("Trump");
+        Character h = instance.searchForCharacter("Hilary");
+        Character o = instance.searchForCharacter("Obama");
+        instance.insertAliance(true, 0.5f, 10, t, h);
+        instance.insertAliance(true, 0.5f, 40, h, o);
+        instance.insertAliance(true, 0.5f, 25, o, t);
+
+        SpanningForest<Character> aliancas = instance.aliancasMaisFortes();
+        assertEquals("Duas aliancas", 2, aliancas.numEdges());
+        assertEquals("Poder total", 65, aliancas.totalWeight(), 0.0);
+    }
 }
@@ -0,0 +1,237 @@
+package gameproject;
+
+import graphMap.Edge;
+import graphMap.Graph;
+import graphMatrix.AdjacencyMatrixGraph;
+import graphMatrix.DoubleMatrixGraph;
+import graphMatrix.EdgeAsDoubleGraphAlgorithms;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of the graph algorithms and of GameBase on the
+ * locais_/pers_ S, M, L and XL datasets. Each benchmark runs on each dataset
+ * in a JVM of its own, so what the JIT learned from one does not profile
+ * the next; the dataset is loaded once per trial, outside the measurement.
+ *
+ * Run from the project folder, where the datasets are, with JMH on the test
+ * classpath (the jmh library, jmh-core and jmh-generator-annprocess):
+ * ant benchmark -Dbenchmark.args="[regex] [JMH options]", for instance
+ * ant benchmark -Dbenchmark.args="shortestPath -p dataset=M,XL"
+ * The target adds -prof gc, which reports the bytes allocated per operation
+ * and the collections during the measured iterations.
+ *
+ * allPaths has as many results as simple paths, which grow exponentially:
+ * it only runs on the alliance graphs of S and M.
+ *
+ * @author DEI-ESINF
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class GameBenchmark {
+
+    /**
+     * Everything a benchmark needs from a dataset
+     */
+    public abstract static class Dataset {
+
+        GameBase gb;
+        AdjacencyMatrixGraph<Locale, Road> world;
+        DoubleMatrixGraph<Locale> worldDouble;
+        Graph<Character, Aliance> aliances;
+        AdjacencyMatrixGraph<Character, Aliance> aliancesMatrix;
+        Locale[] locales;
+        Road[] roads;
+        Character[] characters;
+        String localesFile;
+        String charactersFile;
+        int next;       // position in the query pairs
+
+        void load(String dataset) {
+            localesFile = "locais_" + dataset + ".txt";
+            charactersFile = "pers_" + dataset + ".txt";
+            gb = new FileRead(localesFile, charactersFile).getGamebase();
+            world = gb.getMatrix();
+            // each character owns its starting locale, as conquerLocale needs
+            for (Character c : gb.getMap().vertices()) {
+                if (c.getStartingLocale() != null) {
+                    c.getStartingLocale().setOwner(c);
+                }
+            }
+            worldDouble = gb.cloneToDouble(world);
+            aliances = gb.getMap();
+            aliancesMatrix = new AdjacencyMatrixGraph<>();
+            for (Character c : aliances.vertices()) {
+                aliancesMatrix.insertVertex(c);
+            }
+            for (Edge<Character, Aliance> edge : aliances.edges()) {
+                aliancesMatrix.insertEdge(edge.getVOrig(), edge.getVDest(), edge.getElement());
+            }
+            List<Locale> locs = new ArrayList<>();
+            for (Locale l : world.vertices()) {
+                locs.add(l);
+            }
+            locales = locs.toArray(new Locale[0]);
+            List<Road> roadList = new ArrayList<>();
+            for (Road r : world.edges()) {
+                roadList.add(r);
+            }
+            roads = roadList.toArray(new Road[0]);
+            List<Character> chars = new ArrayList<>();
+            for (Character c : aliances.vertices()) {
+                chars.add(c);
+            }
+            characters = chars.toArray(new Character[0]);
+        }
+
+        // Fixed sequence of pseudo-random indexes, so every run asks the same
+        int nextIndex(int bound) {
+            next = next * 1103515245 + 12345;
+            return (next >>> 1) % bound;
+        }
+
+        Locale nextLocale() {
+            return locales[nextIndex(locales.length)];
+        }
+
+        Character nextCharacter() {
+            return characters[nextIndex(characters.length)];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Trial extends Dataset {
+
+        @Param({"S", "M", "L", "XL"})
+        public String dataset;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            load(dataset);
+        }
+    }
+
+    /**
+     * The datasets small enough to enumerate every simple path
+     */
+    @State(Scope.Benchmark)
+    public static class SmallTrial extends Dataset {
+
+        @Param({"S", "M"})
+        public String dataset;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            load(dataset);
+        }
+    }
+
+    @Benchmark
+    public GameBase fileReadLoad(Trial t) {
+        return new FileRead(t.localesFile, t.charactersFile).getGamebase();
+    }
+
+    @Benchmark
+    public AdjacencyMatrixGraph<Locale, Road> matrixInsertEdges(Trial t) {
+        AdjacencyMatrixGraph<Locale, Road> g = new AdjacencyMatrixGraph<>();
+        for (Locale l : t.locales) {
+            g.insertVertex(l);
+        }
+        for (Road r : t.roads) {
+            g.insertEdge(r.getFirst(), r.getSecond(), r);
+        }
+        return g;
+    }
+
+    @Benchmark
+    public AdjacencyMatrixGraph<Locale, Road> matrixInsertEdgesReserved(Trial t) {
+        AdjacencyMatrixGraph<Locale, Road> g = new AdjacencyMatrixGraph<>();
+        g.ensureCapacity(t.locales.length);
+        for (Locale l : t.locales) {
+            g.insertVertex(l);
+        }
+        for (Road r : t.roads) {
+            g.insertEdge(r.getFirst(), r.getSecond(), r);
+        }
+        return g;
+    }
+
+    @Benchmark
+    public double matrixShortestPath(Trial t) {
+        return EdgeAsDoubleGraphAlgorithms.shortestPath(t.worldDouble, t.nextLocale(), t.nextLocale(), new LinkedList<>());
+    }
+
+    @Benchmark
+    public LinkedList<Locale> matrixBFS(Trial t) {
+        return graphMatrix.GraphAlgorithms.BFS(t.world, t.nextLocale());
+    }
+
+    @Benchmark
+    public LinkedList<Locale> matrixDFS(Trial t) {
+        return graphMatrix.GraphAlgorithms.DFS(t.world, t.nextLocale());
+    }
+
+    @Benchmark
+    public LinkedList<LinkedList<Character>> matrixAllPaths(SmallTrial t) {
+        LinkedList<LinkedList<Character>> paths = new LinkedList<>();
+        graphMatrix.GraphAlgorithms.allPaths(t.aliancesMatrix, t.nextCharacter(), t.nextCharacter(), paths);
+        return paths;
+    }
+
+    @Benchmark
+    public DoubleMatrixGraph<Locale> matrixMinDistGraph(Trial t) {
+        return EdgeAsDoubleGraphAlgorithms.minDistGraph(t.worldDouble);
+    }
+
+    @Benchmark
+    public AdjacencyMatrixGraph<Locale, Road> matrixTransitiveClosure(Trial t) {
+        return graphMatrix.GraphAlgorithms.transitiveClosure(t.world, new Road());
+    }
+
+    @Benchmark
+    public double mapShortestPath(Trial t) {
+        return graphMap.GraphAlgorithms.shortestPath(t.aliances, t.nextCharacter(), t.nextCharacter(), new LinkedList<>());
+    }
+
+    @Benchmark
+    public LinkedList<Character> mapBreadthFirstSearch(Trial t) {
+        return graphMap.GraphAlgorithms.BreadthFirstSearch(t.aliances, t.nextCharacter());
+    }
+
+    @Benchmark
+    public LinkedList<Character> mapDepthFirstSearch(Trial t) {
+        return graphMap.GraphAlgorithms.DepthFirstSearch(t.aliances, t.nextCharacter());
+    }
+
+    @Benchmark
+    public List<LinkedList<Character>> mapAllPaths(SmallTrial t) {
+        return graphMap.GraphAlgorithms.allPaths(t.aliances, t.nextCharacter(), t.nextCharacter());
+    }
+
+    @Benchmark
+    public double gameBaseConquerLocale(Trial t) {
+        return t.gb.conquerLocale(t.nextCharacter(), t.nextLocale(), new LinkedList<>());
+    }
+
+    @Benchmark
+    public Graph<Character, Aliance> gameBaseTodasAliancasPossiveis(Trial t) {
+        return t.gb.todasAliancasPossiveis();
+    }
+}
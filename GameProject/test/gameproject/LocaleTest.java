@@ -129,4 +129,29 @@ public class LocaleTest {
         boolean result = instance.equals(instance);
         assertEquals(expResult, result);
     }
+
+    /**
+     * Test of hashCode method, of class Locale.
+     */
+    @Test
+    public void testHashCode() {
+        System.out.println("hashCode");
+        Locale instance = new Locale("porto", 50);
+        int hash = instance.hashCode();
+        instance.setOwner(new Character("dude", 40, instance));
+        instance.setDifficulty(10);
+        assertEquals(hash, instance.hashCode());
+        Locale other = new Locale("PORTO", 20);
+        assertTrue(instance.equals(other));
+        assertEquals(hash, other.hashCode());
+        // equalsIgnoreCase matches these char by char, so must hashCode
+        Locale dotted = new Locale("\u0130stanbul", 10);
+        Locale plain = new Locale("istanbul", 10);
+        assertTrue(dotted.equals(plain));
+        assertEquals(dotted.hashCode(), plain.hashCode());
+        Locale sigma = new Locale("\u03a3\u03c2", 10);
+        Locale lowerSigma = new Locale("\u03c3\u03c3", 10);
+        assertTrue(sigma.equals(lowerSigma));
+        assertEquals(sigma.hashCode(), lowerSigma.hashCode());
+    }
 }
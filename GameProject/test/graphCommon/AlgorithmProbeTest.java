@@ -0,0 +1,109 @@
+package graphCommon;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author DEI-ESINF
+ */
+public class AlgorithmProbeTest {
+
+    AlgorithmProbe instance;
+
+    public AlgorithmProbeTest() {
+    }
+
+    @Before
+    public void setUp() {
+        instance = AlgorithmMetrics.probe("test.AlgorithmProbeTest");
+        instance.reset();
+    }
+
+    /**
+     * Test of record method, of class AlgorithmProbe.
+     */
+    @Test
+    public void testRecord() {
+        System.out.println("Test record");
+
+        instance.record(500, 100, 3, 5, 7);
+        instance.record(3_000_000, -1, 1, 2, 3);
+        assertTrue("Should count 2 calls", instance.getCalls() == 2);
+        assertTrue("Should add the settled vertices", instance.getVerticesSettled() == 4);
+        assertTrue("Should add the relaxed edges", instance.getEdgesRelaxed() == 7);
+        assertTrue("Should add the heap operations", instance.getHeapOperations() == 10);
+        assertTrue("Should ignore unknown allocations", instance.getAllocatedBytes() == 100
+                || instance.getAllocatedBytes() == -1);
+        assertTrue("Mean should be 1500.25 us", instance.getMeanMicros() == 1500.25);
+
+        long[] histogram = instance.getLatencyHistogram();
+        assertTrue("Histogram should have " + AlgorithmProbe.BUCKETS + " buckets", histogram.length == AlgorithmProbe.BUCKETS);
+        assertTrue("500 ns goes to the first bucket", histogram[0] == 1);
+        assertTrue("3 ms goes to the bucket up to 4096 us", histogram[12] == 1);
+
+        instance.reset();
+        assertTrue("Reset should clear the calls", instance.getCalls() == 0 && instance.getMeanMicros() == 0);
+        assertTrue("Reset should clear the histogram", instance.getLatencyHistogram()[12] == 0);
+    }
+
+    /**
+     * Test of bucket method, of class AlgorithmProbe.
+     */
+    @Test
+    public void testBucket() {
+        System.out.println("Test bucket");
+
+        assertTrue("Under 1 us is bucket 0", AlgorithmProbe.bucket(999) == 0);
+        assertTrue("1 us is bucket 1", AlgorithmProbe.bucket(1000) == 1);
+        assertTrue("3 us is bucket 2", AlgorithmProbe.bucket(3999) == 2);
+        assertTrue("4 us is bucket 3", AlgorithmProbe.bucket(4000) == 3);
+        assertTrue("Long calls go to the last bucket", AlgorithmProbe.bucket(Long.MAX_VALUE) == AlgorithmProbe.BUCKETS - 1);
+    }
+
+    /**
+     * Test of begin method, of class AlgorithmProbe.
+     */
+    @Test
+    public void testBegin() {
+        System.out.println("Test begin");
+
+        AlgorithmProbe.Call call = instance.begin();
+        call.settled = 2;
+        call.relaxed = 3;
+        call.heapOps = 4;
+        long[] buffer = new long[1000];
+        call.end();
+        assertTrue("Should count the call", instance.getCalls() == 1 && instance.getVerticesSettled() == 2
+                && instance.getEdgesRelaxed() == 3 && instance.getHeapOperations() == 4);
+        assertTrue("Should see the allocation", instance.getAllocatedBytes() == -1
+                || instance.getAllocatedBytes() >= 8 * buffer.length);
+    }
+
+    /**
+     * Test of register method, of class AlgorithmMetrics.
+     */
+    @Test
+    public void testRegister() throws Exception {
+        System.out.println("Test register");
+
+        assertTrue("Same name should give the same probe", AlgorithmMetrics.probe("test.AlgorithmProbeTest") == instance);
+        assertTrue("Should list the probe", AlgorithmMetrics.probes().contains(instance));
+
+        AlgorithmMetrics.register(instance);
+        AlgorithmMetrics.register(instance);    // replaces itself
+        instance.record(2000, 0, 1, 1, 1);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = AlgorithmMetrics.objectName("test.AlgorithmProbeTest");
+        assertTrue("Should be registered", server.isRegistered(name));
+        assertTrue("Should read the calls", (Long) server.getAttribute(name, "Calls") == 1);
+        assertTrue("Should read the histogram", ((long[]) server.getAttribute(name, "LatencyHistogram"))[2] == 1);
+        server.invoke(name, "reset", null, null);
+        assertTrue("Should reset through JMX", instance.getCalls() == 0);
+        server.unregisterMBean(name);
+    }
+}
@@ -0,0 +1,69 @@
+package graphCommon;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author DEI-ESINF
+ */
+public class IndexedMinHeapTest {
+
+    IndexedMinHeap instance;
+
+    public IndexedMinHeapTest() {
+    }
+
+    @Before
+    public void setUp() {
+        instance = new IndexedMinHeap(6);
+    }
+
+    /**
+     * Test of insertOrDecrease and removeMin methods, of class IndexedMinHeap.
+     */
+    @Test
+    public void testRemoveMin() {
+        System.out.println("Test removeMin");
+
+        assertTrue("Empty heap should return -1", instance.removeMin() == -1);
+
+        instance.insertOrDecrease(3, 7);
+        instance.insertOrDecrease(1, 4);
+        instance.insertOrDecrease(5, 9);
+        instance.insertOrDecrease(0, 4);
+        assertTrue("Heap should have four keys", instance.size() == 4);
+
+        assertTrue("Minimum should be key 0", instance.peekMin() == 0);
+        assertTrue("Ties should go to the lowest key", instance.removeMin() == 0);
+        assertTrue("then 1", instance.removeMin() == 1);
+        assertTrue("then 3", instance.removeMin() == 3);
+        assertTrue("then 5", instance.removeMin() == 5);
+        assertTrue("Heap should be empty", instance.isEmpty());
+        assertTrue("Empty heap should peek -1", instance.peekMin() == -1);
+    }
+
+    /**
+     * Test of decrease-key through insertOrDecrease, of class IndexedMinHeap.
+     */
+    @Test
+    public void testInsertOrDecrease() {
+        System.out.println("Test insertOrDecrease");
+
+        instance.insertOrDecrease(2, 10);
+        instance.insertOrDecrease(4, 5);
+        assertTrue("Key 2 should be in the heap", instance.contains(2));
+        assertFalse("Key 1 should not be in the heap", instance.contains(1));
+
+        assertFalse("Should not raise the priority", instance.insertOrDecrease(4, 8));
+        assertTrue("Should lower the priority", instance.insertOrDecrease(2, 1));
+        assertTrue("Priority of key 2 should be 1", instance.priorityOf(2) == 1);
+        assertTrue("Key 2 should now be the minimum", instance.removeMin() == 2);
+        assertFalse("Key 2 should no longer be in the heap", instance.contains(2));
+
+        instance.clear();
+        assertTrue("Heap should be empty after clear", instance.isEmpty());
+        assertFalse("Key 4 should not be in the heap", instance.contains(4));
+    }
+}
@@ -0,0 +1,74 @@
+package graphCommon;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author DEI-ESINF
+ */
+public class UnionFindTest {
+
+    UnionFind instance;
+
+    public UnionFindTest() {
+    }
+
+    @Before
+    public void setUp() {
+        instance = new UnionFind(6);
+    }
+
+    /**
+     * Test of union and connected methods, of class UnionFind.
+     */
+    @Test
+    public void testUnion() {
+        System.out.println("Test union");
+
+        assertTrue("Every key should start alone", instance.numSets() == 6 && !instance.connected(0, 1));
+        assertTrue("Should join 0 and 1", instance.union(0, 1));
+        assertTrue("Should join 2 and 3", instance.union(2, 3));
+        assertTrue("Should join 1 and 3", instance.union(1, 3));
+        assertFalse("0 and 2 are already joined", instance.union(0, 2));
+        assertTrue("0 and 3 should be connected", instance.connected(0, 3));
+        assertFalse("0 and 4 should not be connected", instance.connected(0, 4));
+        assertTrue("Should be 3 sets", instance.numSets() == 3);
+        assertTrue("Set of 2 should have 4 keys", instance.setSize(2) == 4);
+        assertTrue("Set of 5 should have 1 key", instance.setSize(5) == 1);
+        assertTrue("Same representative", instance.find(0) == instance.find(3));
+    }
+
+    /**
+     * Test of the copy constructor of class UnionFind.
+     */
+    @Test
+    public void testCopy() {
+        System.out.println("Test copy");
+
+        instance.union(0, 1);
+        UnionFind copy = new UnionFind(instance);
+        assertTrue("Copy should have the same sets", copy.connected(0, 1) && copy.numSets() == 5 && copy.setSize(1) == 2);
+        copy.union(1, 2);
+        assertFalse("Original should not change with the copy", instance.connected(0, 2));
+        assertTrue("Original should keep its sets", instance.numSets() == 5 && instance.setSize(0) == 2);
+        assertTrue("Copy should have changed", copy.connected(0, 2) && copy.numSets() == 4);
+    }
+
+    /**
+     * Test of ensureCapacity method, of class UnionFind.
+     */
+    @Test
+    public void testEnsureCapacity() {
+        System.out.println("Test ensureCapacity");
+
+        instance.union(0, 5);
+        instance.ensureCapacity(9);
+        assertTrue("Capacity should grow", instance.capacity() >= 9);
+        assertTrue("New keys should be alone", instance.numSets() == instance.capacity() - 1 && instance.setSize(8) == 1);
+        assertTrue("Old sets should be kept", instance.connected(0, 5));
+        instance.ensureCapacity(3);
+        assertTrue("Capacity should not shrink", instance.capacity() >= 9);
+    }
+}
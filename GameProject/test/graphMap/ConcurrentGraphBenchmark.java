@@ -0,0 +1,142 @@
+package graphMap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contention benchmark for ConcurrentGraph on the alliance graph of
+ * pers_XL.txt: 1, 4 and 16 reader threads run breadth-first searches while
+ * one writer inserts and removes alliances. The same load runs over a Graph
+ * guarded by a ReentrantReadWriteLock for comparison. Run from the project
+ * folder: java graphMap.ConcurrentGraphBenchmark [file] [millis]
+ *
+ * @author DEI-ESINF
+ */
+public class ConcurrentGraphBenchmark {
+
+    // Access to the graph under test
+    interface Target {
+
+        int read(String vert);
+
+        void write(String vOrig, String vDest);
+    }
+
+    static final class Published implements Target {
+
+        final ConcurrentGraph<String, String> g;
+
+        Published(Graph<String, String> g) {
+            this.g = new ConcurrentGraph<>(g);
+        }
+
+        @Override
+        public int read(String vert) {
+            return GraphAlgorithms.BreadthFirstSearch(g.read(), vert).size();
+        }
+
+        @Override
+        public void write(String vOrig, String vDest) {
+            if (!g.removeEdge(vOrig, vDest)) {
+                g.insertEdge(vOrig, vDest, "bench", 1);
+            }
+        }
+    }
+
+    static final class Locked implements Target {
+
+        final Graph<String, String> g;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        Locked(Graph<String, String> g) {
+            this.g = g;
+        }
+
+        @Override
+        public int read(String vert) {
+            lock.readLock().lock();
+            try {
+                return GraphAlgorithms.BreadthFirstSearch(g, vert).size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void write(String vOrig, String vDest) {
+            lock.writeLock().lock();
+            try {
+                if (!g.removeEdge(vOrig, vDest)) {
+                    g.insertEdge(vOrig, vDest, "bench", 1);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    static void run(String name, Target target, List<String> verts, int readers, long millis) throws InterruptedException {
+        AtomicBoolean done = new AtomicBoolean(false);
+        LongAdder reads = new LongAdder();
+        long[] writes = new long[1];
+        long[] sink = new long[1];
+
+        Thread[] threads = new Thread[readers];
+        for (int t = 0; t < readers; t++) {
+            final Random rnd = new Random(t);
+            threads[t] = new Thread(() -> {
+                long local = 0;
+                while (!done.get()) {
+                    local += target.read(verts.get(rnd.nextInt(verts.size())));
+                    reads.increment();
+                }
+                synchronized (sink) {
+                    sink[0] += local;
+                }
+            });
+        }
+        Thread writer = new Thread(() -> {
+            Random rnd = new Random(-1);
+            while (!done.get()) {
+                target.write(verts.get(rnd.nextInt(verts.size())), verts.get(rnd.nextInt(verts.size())));
+                writes[0]++;
+            }
+        });
+
+        for (Thread t : threads) {
+            t.start();
+        }
+        writer.start();
+        Thread.sleep(millis);
+        done.set(true);
+        for (Thread t : threads) {
+            t.join();
+        }
+        writer.join();
+        System.out.printf("%-10s %2d readers: %10.0f reads/s %10.0f writes/s (%d)%n", name, readers,
+                reads.sum() * 1000.0 / millis, writes[0] * 1000.0 / millis, sink[0] % 10);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String fileName = args.length > 0 ? args[0] : "pers_XL.txt";
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        Graph<String, String> g = OppositeBenchmark.loadAliances(fileName);
+        System.out.println(fileName + ": " + g.numVertices() + " vertices, " + g.numEdges() + " edges");
+        List<String> verts = new ArrayList<>();
+        for (String vert : g.vertices()) {
+            verts.add(vert);
+        }
+
+        run("warm-up", new Published(g.clone()), verts, 4, millis);
+        run("warm-up", new Locked(g.clone()), verts, 4, millis);
+        for (int readers : new int[]{1, 4, 16}) {
+            run("published", new Published(g.clone()), verts, readers, millis);
+            run("rw-lock", new Locked(g.clone()), verts, readers, millis);
+        }
+    }
+}
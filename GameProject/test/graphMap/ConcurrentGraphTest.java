@@ -0,0 +1,126 @@
+package graphMap;
+
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author DEI-ESINF
+ */
+public class ConcurrentGraphTest {
+
+    ConcurrentGraph<String, String> instance;
+
+    public ConcurrentGraphTest() {
+    }
+
+    @Before
+    public void setUp() {
+        instance = new ConcurrentGraph<>(false);
+    }
+
+    /**
+     * Test of read method, of class ConcurrentGraph.
+     */
+    @Test
+    public void testRead() {
+        System.out.println("Test read");
+
+        Graph<String, String> empty = instance.read();
+        assertTrue("New graph should be empty", empty.numVertices() == 0);
+
+        assertTrue("Should insert the edge", instance.insertEdge("A", "B", "Edge1", 1));
+        assertFalse("Should not insert it twice", instance.insertEdge("A", "B", "Edge1", 1));
+        Graph<String, String> first = instance.read();
+        assertTrue("Published graph should have the edge", first.getEdge("A", "B") != null);
+        assertTrue("Earlier version should not change", empty.numVertices() == 0);
+
+        instance.insertEdge("B", "C", "Edge2", 2);
+        instance.removeVertex("A");
+        assertTrue("Earlier version should keep A", first.validVertex("A") && !first.validVertex("C"));
+        assertFalse("Last version should not have A", instance.read().validVertex("A"));
+        assertTrue("Version should be the one of the published graph", instance.version() == instance.read().version());
+
+        Graph<String, String> last = instance.read();
+        assertFalse("Failed change should not publish", instance.removeEdge("A", "B"));
+        assertTrue("Version should be kept", instance.read() == last);
+    }
+
+    /**
+     * Test of update method, of class ConcurrentGraph.
+     */
+    @Test
+    public void testUpdate() {
+        System.out.println("Test update");
+
+        Graph<String, String> before = instance.read();
+        int edges = instance.update(g -> {
+            g.insertEdge("A", "B", "Edge1", 1);
+            g.insertEdge("B", "C", "Edge2", 2);
+            return g.numEdges();
+        });
+        assertTrue("Update should return the result", edges == 4);
+        assertTrue("Both edges should be published together", instance.read().numEdges() == 4 && before.numEdges() == 0);
+
+        Graph<String, String> last = instance.read();
+        instance.update(g -> g.validVertex("A"));
+        assertTrue("Update without changes should not publish", instance.read() == last);
+
+        try {
+            instance.update(g -> {
+                g.insertEdge("C", "D", "Edge3", 3);
+                throw new IllegalStateException("change failed");
+            });
+            fail("Update should throw what change throws");
+        } catch (IllegalStateException ex) {
+        }
+        assertTrue("Failed update should not publish", instance.read() == last);
+        instance.insertVertex("E");
+        assertTrue("Failed update should leave no changes", !instance.read().validVertex("D")
+                && instance.read().numEdges() == 4 && instance.read().numVertices() == 4);
+    }
+
+    /**
+     * Test of readers working while a writer changes the graph, of class ConcurrentGraph.
+     */
+    @Test
+    public void testConcurrentReaders() throws InterruptedException {
+        System.out.println("Test concurrent readers");
+
+        // the writer keeps the path 0-1-...-49 and adds shortcuts of weight 100
+        for (int i = 0; i < 49; i++) {
+            instance.insertEdge("V" + i, "V" + (i + 1), "E", 1);
+        }
+        AtomicBoolean failed = new AtomicBoolean(false);
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread[] readers = new Thread[4];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                LinkedList<String> path = new LinkedList<>();
+                while (!done.get()) {
+                    Graph<String, String> g = instance.read();
+                    int[] count = new int[1];
+                    g.forEachEdge(edge -> count[0]++);
+                    if (count[0] != g.numEdges() || GraphAlgorithms.shortestPath(g, "V0", "V49", path) != 49) {
+                        failed.set(true);
+                    }
+                }
+            });
+            readers[t].start();
+        }
+        for (int i = 0; i < 200; i++) {
+            instance.insertEdge("V" + (i % 50), "W" + i, "F", 100);
+            if (i % 3 == 0) {
+                instance.removeVertex("W" + (i / 2));
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertFalse("Readers should always see a whole version", failed.get());
+    }
+}
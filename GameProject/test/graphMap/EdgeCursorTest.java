@@ -0,0 +1,74 @@
+package graphMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author DEI-ESINF
+ */
+public class EdgeCursorTest {
+
+    Graph<String, String> g;
+    EdgeCursor<String, String> instance;
+
+    public EdgeCursorTest() {
+    }
+
+    @Before
+    public void setUp() {
+        g = new Graph<>(true);
+        g.insertEdge("A", "B", "Edge1", 1);
+        g.insertEdge("A", "C", "Edge2", 2);
+        g.insertEdge("B", "C", "Edge3", 3);
+        g.insertVertex("D");
+        instance = g.edgeCursor();
+    }
+
+    /**
+     * Test of reset and next methods, of class EdgeCursor.
+     */
+    @Test
+    public void testNext() {
+        System.out.println("Test next");
+
+        assertTrue("A should be in the graph", instance.reset("A"));
+        assertTrue("A should have two edges", instance.size() == 2);
+        assertTrue("First edge should go to B", instance.next() && instance.dest().equals("B") && instance.weight() == 1);
+        assertTrue("Second edge should go to C", instance.next() && instance.edge().getElement().equals("Edge2"));
+        assertFalse("A should have no more edges", instance.next());
+        assertFalse("and stay at the end", instance.next());
+
+        assertTrue("Cursor should be reusable", instance.resetKey(g.getKey("B")) && instance.next() && instance.dest().equals("C"));
+
+        assertTrue("D should be in the graph", instance.reset("D"));
+        assertFalse("D should have no edges", instance.next());
+
+        assertFalse("Z should not be in the graph", instance.reset("Z"));
+        assertFalse("Cursor of unknown vertex should be empty", instance.next());
+        assertFalse("Unknown key", instance.resetKey(7));
+    }
+
+    /**
+     * Test of the cursor after the graph changes, of class EdgeCursor.
+     */
+    @Test
+    public void testGraphChanged() {
+        System.out.println("Test cursor after changes");
+
+        instance.reset("A");
+        try {
+            instance.edge();
+            fail("No edge before next");
+        } catch (IllegalStateException ex) {
+        }
+
+        g.removeEdge("A", "B");
+        g.insertEdge("A", "D", "Edge4", 4);
+        instance.reset("A");
+        assertTrue("First edge should now go to C", instance.next() && instance.dest().equals("C"));
+        assertTrue("Second edge should go to D", instance.next() && instance.dest().equals("D"));
+        assertFalse("A should have no more edges", instance.next());
+    }
+}
@@ -5,9 +5,17 @@
  */
 package graphMap;
 
+import graphCommon.IndexedMinHeap;
+import graphCommon.SpanningForest;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -216,4 +224,519 @@ public class GraphAlgorithmsTest {
         assertTrue("then Castelo Branco", it.next().compareTo("Castelo Branco")==0);
 		
     }
+
+    /**
+     * Test of shortestPath method with each engine, of class GraphAlgorithms.
+     */
+    @Test
+    public void testShortestPathEngines() {
+        System.out.println("Test of shortest path engines");
+
+        completeMap.insertEdge("Aveiro","Viseu","A25",85);
+        completeMap.insertEdge("Leiria","Castelo Branco","A23",170);
+        completeMap.insertEdge("Lisboa","Faro","A2",280);
+
+        assertTrue("Sparse map should use the heap", GraphAlgorithms.preferredEngine(completeMap) == GraphAlgorithms.Engine.HEAP);
+
+        for (String vOrig : completeMap.vertices()) {
+            for (String vDest : completeMap.vertices()) {
+                LinkedList<String> heapPath = new LinkedList<>();
+                LinkedList<String> scanPath = new LinkedList<>();
+                double heapLen = GraphAlgorithms.shortestPath(completeMap, vOrig, vDest, heapPath, GraphAlgorithms.Engine.HEAP);
+                double scanLen = GraphAlgorithms.shortestPath(completeMap, vOrig, vDest, scanPath, GraphAlgorithms.Engine.SCAN);
+                assertTrue("Both engines should give the same length", heapLen == scanLen);
+                assertEquals("Both engines should give the same path", scanPath, heapPath);
+            }
+        }
+
+        Graph<Integer, String> dense = new Graph<>(false);
+        for (int i = 0; i < 8; i++) {
+            for (int j = i + 1; j < 8; j++) {
+                dense.insertEdge(i, j, "E", 1);
+            }
+        }
+        assertTrue("Complete graph should use the scan", GraphAlgorithms.preferredEngine(dense) == GraphAlgorithms.Engine.SCAN);
+    }
+
+    /**
+     * Test of the FrozenGraph versions of the searches, of class GraphAlgorithms.
+     */
+    @Test
+    public void testFrozenSearches() {
+        System.out.println("Test of searches on a frozen graph");
+
+        FrozenGraph<String> frozen = completeMap.freeze();
+
+        assertTrue("Should be null if id does not exist", GraphAlgorithms.BreadthFirstSearch(frozen, -1) == null);
+        assertTrue("Should be null if id does not exist", GraphAlgorithms.DepthFirstSearch(frozen, 42) == null);
+
+        for (String vert : completeMap.vertices()) {
+            int[] bfs = GraphAlgorithms.BreadthFirstSearch(frozen, frozen.id(vert));
+            LinkedList<String> expected = GraphAlgorithms.BreadthFirstSearch(completeMap, vert);
+            assertTrue("BFS should visit the same vertices", bfs.length == expected.size());
+            for (int i = 0; i < bfs.length; i++) {
+                assertEquals("BFS should keep the same order", expected.get(i), frozen.vertex(bfs[i]));
+            }
+
+            int[] dfs = GraphAlgorithms.DepthFirstSearch(frozen, frozen.id(vert));
+            expected = GraphAlgorithms.DepthFirstSearch(completeMap, vert);
+            assertTrue("DFS should visit the same vertices", dfs.length == expected.size());
+            for (int i = 0; i < dfs.length; i++) {
+                assertEquals("DFS should keep the same order", expected.get(i), frozen.vertex(dfs[i]));
+            }
+        }
+
+        ArrayList<int[]> paths = GraphAlgorithms.allPaths(frozen, frozen.id("Porto"), frozen.id("Lisboa"));
+        assertTrue("There should be 4 paths", paths.size() == 4);
+        for (int[] path : paths) {
+            assertTrue("Paths should start in Porto", path[0] == frozen.id("Porto"));
+            assertTrue("Paths should end in Lisboa", path[path.length - 1] == frozen.id("Lisboa"));
+        }
+        paths = GraphAlgorithms.allPaths(frozen, frozen.id("Porto"), frozen.id("Faro"));
+        assertTrue("There should not be paths between Porto and Faro", paths.size() == 0);
+    }
+
+    /**
+     * Test of the FrozenGraph version of shortestPath, of class GraphAlgorithms.
+     */
+    @Test
+    public void testFrozenShortestPath() {
+        System.out.println("Test of shortest path on a frozen graph");
+
+        FrozenGraph<String> frozen = completeMap.freeze();
+        int[] pathKeys = new int[frozen.numVertices()];
+        double[] dist = new double[frozen.numVertices()];
+
+        assertTrue("Should be -1 if id does not exist", GraphAlgorithms.shortestPath(frozen, 0, 99, pathKeys, dist) == -1);
+
+        int porto = frozen.id("Porto");
+        assertTrue("Should be -1 if there is no path", GraphAlgorithms.shortestPath(frozen, porto, frozen.id("Faro"), pathKeys, dist) == -1);
+        assertTrue("No path should give an empty path", GraphAlgorithms.getPath(porto, frozen.id("Faro"), pathKeys).length == 0);
+
+        for (String vOrig : completeMap.vertices()) {
+            for (String vDest : completeMap.vertices()) {
+                LinkedList<String> expected = new LinkedList<>();
+                double len = GraphAlgorithms.shortestPath(completeMap, vOrig, vDest, expected);
+                int orig = frozen.id(vOrig);
+                int dest = frozen.id(vDest);
+                assertTrue("Lengths should match", GraphAlgorithms.shortestPath(frozen, orig, dest, pathKeys, dist) == len);
+                int[] path = GraphAlgorithms.getPath(orig, dest, pathKeys);
+                assertTrue("Paths should have the same size", path.length == expected.size());
+                for (int i = 0; i < path.length; i++) {
+                    assertEquals("Paths should match", expected.get(i), frozen.vertex(path[i]));
+                }
+            }
+        }
+
+        // the same queries reusing the visited flags and the heap
+        boolean[] visited = new boolean[frozen.idBound()];
+        IndexedMinHeap heap = new IndexedMinHeap(frozen.idBound());
+        int[] reusedKeys = new int[frozen.idBound()];
+        double[] reusedDist = new double[frozen.idBound()];
+        for (String vOrig : completeMap.vertices()) {
+            for (String vDest : completeMap.vertices()) {
+                int orig = frozen.id(vOrig);
+                int dest = frozen.id(vDest);
+                assertTrue("Lengths should match with the buffers reused",
+                        GraphAlgorithms.shortestPath(frozen, orig, dest, reusedKeys, reusedDist, visited, heap)
+                        == GraphAlgorithms.shortestPath(frozen, orig, dest, pathKeys, dist));
+                assertTrue("Predecessors should match with the buffers reused", Arrays.equals(reusedKeys, pathKeys));
+                assertTrue("Should leave the heap empty", heap.isEmpty());
+            }
+        }
+        assertTrue("Should leave no vertex visited", Arrays.equals(visited, new boolean[frozen.idBound()]));
+    }
+
+    /**
+     * Test of pathIterator and pathStream methods, of class GraphAlgorithms.
+     */
+    @Test
+    public void testPathIterator() {
+        System.out.println("Test of path iterator");
+
+        assertTrue("Should be null if vertex does not exist", GraphAlgorithms.pathIterator(completeMap, "Porto", "LX") == null);
+        assertTrue("Should be null if vertex does not exist", GraphAlgorithms.pathStream(completeMap, "LX", "Porto", 5, 5) == null);
+
+        ArrayList<List<String>> paths = new ArrayList<>();
+        Iterator<List<String>> it = GraphAlgorithms.pathIterator(completeMap, "Porto", "Lisboa");
+        while (it.hasNext()) {
+            paths.add(new ArrayList<>(it.next()));
+        }
+        assertTrue("There should be 4 paths", paths.size() == 4);
+        assertEquals("First path", Arrays.asList("Porto", "Aveiro", "Coimbra", "Lisboa"), paths.get(0));
+        assertEquals("Second path", Arrays.asList("Porto", "Aveiro", "Coimbra", "Leiria", "Lisboa"), paths.get(1));
+        assertEquals("Third path", Arrays.asList("Porto", "Aveiro", "Leiria", "Coimbra", "Lisboa"), paths.get(2));
+        assertEquals("Fourth path", Arrays.asList("Porto", "Aveiro", "Leiria", "Lisboa"), paths.get(3));
+
+        assertFalse("There should not be paths between Porto and Faro",
+                GraphAlgorithms.pathIterator(completeMap, "Porto", "Faro").hasNext());
+
+        assertTrue("Only 2 paths have at most 3 edges",
+                GraphAlgorithms.pathStream(completeMap, "Porto", "Lisboa", 3, Long.MAX_VALUE).count() == 2);
+        assertTrue("Count should be limited to 3",
+                GraphAlgorithms.pathStream(completeMap, "Porto", "Lisboa", Integer.MAX_VALUE, 3).count() == 3);
+
+        it = GraphAlgorithms.pathIterator(completeMap, "Porto", "Lisboa", 3, 1);
+        List<String> path = it.next();
+        assertTrue("Path should have 4 vertices", path.size() == 4);
+        assertFalse("Count should be limited to 1", it.hasNext());
+        try {
+            it.next();
+            fail("next should fail when there are no more paths");
+        } catch (NoSuchElementException ex) {
+        }
+
+        assertTrue("A path with 5 vertices should exist", GraphAlgorithms.pathStream(completeMap, "Porto", "Lisboa", 10, 10)
+                .anyMatch(p -> p.size() == 5));
+        assertFalse("Length 0 should give no path", GraphAlgorithms.pathIterator(completeMap, "Porto", "Lisboa", 0, 10).hasNext());
+        try {
+            GraphAlgorithms.pathIterator(completeMap, "Porto", "Lisboa", -1, 10);
+            fail("Negative maxLength should fail");
+        } catch (IllegalArgumentException ex) {
+        }
+        try {
+            GraphAlgorithms.pathStream(completeMap, "Porto", "Lisboa", 10, -1);
+            fail("Negative maxCount should fail");
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    /**
+     * Test of pathIterator on a deep graph, of class GraphAlgorithms.
+     */
+    @Test
+    public void testPathIteratorDeepGraph() {
+        System.out.println("Test of path iterator on a deep graph");
+
+        Graph<Integer, String> chain = new Graph<>(true);
+        for (int i = 0; i < 100000; i++) {
+            chain.insertEdge(i, i + 1, "E", 1);
+        }
+        Iterator<List<Integer>> it = GraphAlgorithms.pathIterator(chain, 0, 100000);
+        assertTrue("There should be one path", it.next().size() == 100001);
+        assertFalse("There should be only one path", it.hasNext());
+    }
+
+    /**
+     * Test of allPairsShortestPaths method, of class GraphAlgorithms.
+     */
+    @Test
+    public void testAllPairsShortestPaths() {
+        System.out.println("Test of all pairs shortest paths");
+
+        completeMap.insertEdge("Aveiro","Viseu","A25",85);
+        completeMap.insertEdge("Leiria","Castelo Branco","A23",170);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ShortestPathMatrix<String> matrix = GraphAlgorithms.allPairsShortestPaths(completeMap, pool);
+        pool.shutdown();
+
+        LinkedList<String> path = new LinkedList<>();
+        assertTrue("Should be -1 if vertex does not exist", matrix.shortestPath("Porto", "LX", path) == -1);
+        assertTrue("Should be -1 if there is no path", matrix.shortestPath("Porto", "Faro", path) == -1);
+        assertTrue("Path should be empty if there is no path", path.isEmpty());
+
+        FrozenGraph<String> frozen = matrix.graph();
+        for (String vOrig : completeMap.vertices()) {
+            for (String vDest : completeMap.vertices()) {
+                LinkedList<String> expected = new LinkedList<>();
+                double len = GraphAlgorithms.shortestPath(completeMap, vOrig, vDest, expected);
+                assertTrue("Lengths should match", matrix.shortestPath(vOrig, vDest, path) == len);
+                assertEquals("Paths should match", expected, path);
+                if (len == -1) {
+                    assertTrue("No path should have no predecessor", matrix.predecessor(frozen.id(vOrig), frozen.id(vDest)) == -1);
+                } else {
+                    assertTrue("Distances should match", matrix.distance(frozen.id(vOrig), frozen.id(vDest)) == len);
+                }
+            }
+        }
+
+        Graph<String, String> empty = new Graph<>(false);
+        assertTrue("Empty graph should have no paths", GraphAlgorithms.allPairsShortestPaths(empty).shortestPath("A", "B", path) == -1);
+    }
+
+    /**
+     * Test of bidirectionalShortestPath method, of class GraphAlgorithms.
+     */
+    @Test
+    public void testBidirectionalShortestPath() {
+        System.out.println("Test of bidirectional shortest path");
+
+        LinkedList<String> path = new LinkedList<>();
+        assertTrue("Should be -1 if vertex does not exist", GraphAlgorithms.bidirectionalShortestPath(completeMap, "Porto", "LX", path, null) == -1);
+        assertTrue("Should be -1 if there is no path", GraphAlgorithms.bidirectionalShortestPath(completeMap, "Porto", "Faro", path, null) == -1);
+        assertTrue("Path should be empty if there is no path", path.isEmpty());
+        assertTrue("Should be 0 if source and vertex are the same", GraphAlgorithms.bidirectionalShortestPath(completeMap, "Porto", "Porto", path, null) == 0);
+        assertTrue("Path should be single vertex", path.size() == 1);
+
+        SearchStats stats = new SearchStats();
+        assertTrue("Path between Porto and Lisboa should be 335 Km",
+                GraphAlgorithms.bidirectionalShortestPath(completeMap, "Porto", "Lisboa", path, stats) == 335);
+        assertEquals("Path should go through Aveiro and Coimbra", Arrays.asList("Porto", "Aveiro", "Coimbra", "Lisboa"), path);
+        assertTrue("Search should stop before settling every vertex", stats.settled() < 7);
+
+        completeMap.insertEdge("Aveiro","Viseu","A25",85);
+        completeMap.insertEdge("Leiria","Castelo Branco","A23",170);
+        Graph<String, String> directed = new Graph<>(true);
+        for (Edge<String, String> edge : completeMap.edges()) {
+            if (edge.getVOrig().compareTo(edge.getVDest()) < 0) {
+                directed.insertEdge(edge.getVOrig(), edge.getVDest(), edge.getElement(), edge.getWeight());
+            }
+        }
+        for (Graph<String, String> g : Arrays.asList(completeMap, directed)) {
+            for (String vOrig : g.vertices()) {
+                for (String vDest : g.vertices()) {
+                    LinkedList<String> expected = new LinkedList<>();
+                    double len = GraphAlgorithms.shortestPath(g, vOrig, vDest, expected);
+                    assertTrue("Lengths should match", GraphAlgorithms.bidirectionalShortestPath(g, vOrig, vDest, path, null) == len);
+                    assertTrue("Paths should have the same ends", len == -1 || (path.getFirst().equals(vOrig) && path.getLast().equals(vDest)));
+                    double pathLen = 0;
+                    for (int i = 1; i < path.size(); i++) {
+                        pathLen += g.getEdge(path.get(i - 1), path.get(i)).getWeight();
+                    }
+                    assertTrue("Path should have the returned length", len == -1 || pathLen == len);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of aStarShortestPath method, of class GraphAlgorithms.
+     */
+    @Test
+    public void testAStarShortestPath() {
+        System.out.println("Test of A* shortest path");
+
+        LinkedList<String> path = new LinkedList<>();
+        assertTrue("Should be -1 if vertex does not exist", GraphAlgorithms.aStarShortestPath(completeMap, "LX", "Porto", v -> 0, path, null) == -1);
+        assertTrue("Should be -1 if there is no path", GraphAlgorithms.aStarShortestPath(completeMap, "Porto", "Faro", v -> 0, path, null) == -1);
+        assertTrue("Without heuristic it should match Dijkstra",
+                GraphAlgorithms.aStarShortestPath(completeMap, "Braga", "Leiria", v -> 0, path, null) == 255);
+        assertEquals("Path should go through Porto and Aveiro", Arrays.asList("Braga", "Porto", "Aveiro", "Leiria"), path);
+
+        // 20x20 grid with unit edges: the Manhattan distance is admissible
+        final int side = 20;
+        Graph<Integer, String> grid = new Graph<>(false);
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                if (c + 1 < side) {
+                    grid.insertEdge(r * side + c, r * side + c + 1, "H", 1);
+                }
+                if (r + 1 < side) {
+                    grid.insertEdge(r * side + c, (r + 1) * side + c, "V", 1);
+                }
+            }
+        }
+        int dest = 5 * side + 5;
+        SearchStats blind = new SearchStats();
+        SearchStats guided = new SearchStats();
+        LinkedList<Integer> gridPath = new LinkedList<>();
+        assertTrue("Length should be 10", GraphAlgorithms.aStarShortestPath(grid, 0, dest, v -> 0, gridPath, blind) == 10);
+        assertTrue("Length should be 10", GraphAlgorithms.aStarShortestPath(grid, 0, dest,
+                v -> Math.abs(v / side - 5) + Math.abs(v % side - 5), gridPath, guided) == 10);
+        assertTrue("Path should have 11 vertices", gridPath.size() == 11);
+        assertTrue("Heuristic should settle fewer vertices", guided.settled() < blind.settled());
+
+        SearchStats bidir = new SearchStats();
+        assertTrue("Length should be 10", GraphAlgorithms.bidirectionalShortestPath(grid, 0, dest, gridPath, bidir) == 10);
+        assertTrue("Bidirectional should settle fewer vertices than the whole grid", bidir.settled() < side * side);
+    }
+
+    /**
+     * Test of widestPath method, of class GraphAlgorithms.
+     */
+    @Test
+    public void testWidestPath() {
+        System.out.println("Test of widest path");
+
+        LinkedList<String> path = new LinkedList<>();
+        assertTrue("Should be -1 if vertex does not exist", GraphAlgorithms.widestPath(completeMap, "LX", "Porto", path) == -1);
+        assertTrue("Should be -1 if there is no path", GraphAlgorithms.widestPath(completeMap, "Porto", "Faro", path) == -1 && path.isEmpty());
+        assertTrue("Same vertex should have no bottleneck", GraphAlgorithms.widestPath(completeMap, "Porto", "Porto", path) == Double.MAX_VALUE);
+        assertEquals("Path of the same vertex", Arrays.asList("Porto"), path);
+
+        assertTrue("Width Porto-Lisboa should be 75", GraphAlgorithms.widestPath(completeMap, "Porto", "Lisboa", path) == 75);
+        assertEquals("Path should avoid Coimbra", Arrays.asList("Porto", "Aveiro", "Leiria", "Lisboa"), path);
+        assertTrue("Width Aveiro-Lisboa should be 120", GraphAlgorithms.widestPath(completeMap, "Aveiro", "Lisboa", path) == 120);
+    }
+
+    /**
+     * Test of widestPaths method, of class GraphAlgorithms.
+     */
+    @Test
+    public void testWidestPaths() {
+        System.out.println("Test of widest paths forest");
+
+        WidestPathForest<String> forest = GraphAlgorithms.widestPaths(completeMap);
+        LinkedList<String> path = new LinkedList<>();
+        assertTrue("Width Porto-Lisboa should be 75", forest.widestPath("Porto", "Lisboa", path) == 75);
+        assertEquals("Path should avoid Coimbra", Arrays.asList("Porto", "Aveiro", "Leiria", "Lisboa"), path);
+        assertTrue("Width Lisboa-Braga should be 60", forest.widestPath("Lisboa", "Braga", path) == 60);
+        assertEquals("Reverse path", Arrays.asList("Lisboa", "Leiria", "Aveiro", "Porto", "Braga"), path);
+        assertTrue("Should be -1 if there is no path", forest.widestPath("Porto", "Guarda", path) == -1 && path.isEmpty());
+        assertTrue("Should be -1 if vertex does not exist", forest.widestPath("LX", "Porto", path) == -1);
+        assertTrue("Other tree", forest.widestPath("Viseu", "Castelo Branco", path) == 75 && path.size() == 3);
+
+        // random graph: both must match the best bottleneck over all paths
+        Random rnd = new Random(7);
+        Graph<Integer, String> g = new Graph<>(false);
+        for (int i = 0; i < 40; i++) {
+            g.insertEdge(rnd.nextInt(10), rnd.nextInt(10), "E", 1 + rnd.nextInt(50));
+        }
+        WidestPathForest<Integer> numForest = GraphAlgorithms.widestPaths(g);
+        LinkedList<Integer> numPath = new LinkedList<>();
+        for (Integer a : g.vertices()) {
+            for (Integer b : g.vertices()) {
+                if (a.equals(b)) {
+                    continue;
+                }
+                double best = -1;
+                Iterator<List<Integer>> it = GraphAlgorithms.pathIterator(g, a, b);
+                while (it.hasNext()) {
+                    List<Integer> p = it.next();
+                    double w = Double.MAX_VALUE;
+                    for (int i = 0; i + 1 < p.size(); i++) {
+                        w = Math.min(w, g.getEdge(p.get(i), p.get(i + 1)).getWeight());
+                    }
+                    best = Math.max(best, w);
+                }
+                assertTrue("Widest path " + a + "-" + b, GraphAlgorithms.widestPath(g, a, b, numPath) == best);
+                assertTrue("Forest " + a + "-" + b, numForest.widestPath(a, b, numPath) == best);
+            }
+        }
+
+        try {
+            GraphAlgorithms.widestPaths(new Graph<String, String>(true));
+            fail("Directed graphs should be rejected");
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    /**
+     * Test of spanningForest, prim and kruskal methods, of class GraphAlgorithms.
+     */
+    @Test
+    public void testSpanningForest() {
+        System.out.println("Test of spanning forest");
+
+        SpanningForest<String> prim = GraphAlgorithms.prim(completeMap, false);
+        SpanningForest<String> kruskal = GraphAlgorithms.kruskal(completeMap, false);
+        assertTrue("Three components should leave 8 edges", prim.numEdges() == 8 && kruskal.numEdges() == 8);
+        assertTrue("Minimum weight should be 700", prim.totalWeight() == 700 && kruskal.totalWeight() == 700);
+        assertTrue("Maximum weight should be 880", GraphAlgorithms.prim(completeMap, true).totalWeight() == 880
+                && GraphAlgorithms.kruskal(completeMap, true).totalWeight() == 880);
+        for (int i = 0; i < kruskal.numEdges(); i++) {
+            Edge<String, String> edge = completeMap.getEdge(kruskal.vertex(kruskal.orig(i)), kruskal.vertex(kruskal.dest(i)));
+            assertTrue("Forest edge should be in the graph", edge != null && edge.getWeight() == kruskal.weight(i));
+        }
+
+        // random graphs: both algorithms give the same weight and a forest of every component
+        Random rnd = new Random(3);
+        for (int round = 0; round < 20; round++) {
+            Graph<Integer, String> g = new Graph<>(false, true);
+            int n = 5 + rnd.nextInt(30);
+            for (int i = 0; i < n; i++) {
+                g.insertVertex(i);
+            }
+            int m = rnd.nextInt(n * n / 2 + 1);
+            for (int i = 0; i < m; i++) {
+                g.insertEdge(rnd.nextInt(n), rnd.nextInt(n), "E", rnd.nextInt(100));
+            }
+            g.removeVertex(0);
+            boolean maximum = round % 2 == 0;
+            SpanningForest<Integer> a = GraphAlgorithms.prim(g, maximum);
+            SpanningForest<Integer> b = GraphAlgorithms.kruskal(g, maximum);
+            SpanningForest<Integer> c = GraphAlgorithms.spanningForest(g, maximum);
+            SpanningForest<Integer> d = GraphAlgorithms.densePrim(g, maximum);
+            int edges = g.numVertices() - g.numComponents();
+            assertTrue("Forest should have V - components edges", a.numEdges() == edges && b.numEdges() == edges
+                    && c.numEdges() == edges && d.numEdges() == edges);
+            assertTrue("Prim and Kruskal should have the same weight", a.totalWeight() == b.totalWeight()
+                    && c.totalWeight() == a.totalWeight() && d.totalWeight() == a.totalWeight());
+        }
+
+        // weights a few ulps apart are sorted apart from the edge indexes
+        double w0 = 1.0, w1 = Math.nextUp(w0), w2 = Math.nextUp(w1);
+        List<Integer> triangle = Arrays.asList(0, 1, 2);
+        SpanningForest<Integer> close = GraphAlgorithms.kruskal(triangle, 3, new int[]{0, 1, 0}, new int[]{1, 2, 2},
+                new double[]{w2, w1, w0}, 3, false);
+        assertTrue("Should keep the two lightest edges", close.numEdges() == 2 && close.weight(0) == w0 && close.weight(1) == w1);
+        close = GraphAlgorithms.kruskal(triangle, 3, new int[]{0, 1, 0}, new int[]{1, 2, 2},
+                new double[]{w0, w1, w2}, 3, true);
+        assertTrue("Should keep the two heaviest edges", close.weight(0) == w2 && close.weight(1) == w1);
+
+        // E log2 E against V^2, with each undirected edge counted once
+        assertTrue("Complete graphs should be dense", SpanningForest.preferDensePrim(100, 100 * 99 / 2));
+        assertTrue("Sparse graphs should not be dense", !SpanningForest.preferDensePrim(100, 300));
+        assertTrue("Empty graph should not be dense", !SpanningForest.preferDensePrim(0, 0));
+
+        try {
+            GraphAlgorithms.spanningForest(new Graph<String, String>(true), false);
+            fail("Directed graphs should be rejected");
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    /**
+     * Test of kShortestPaths method, of class GraphAlgorithms.
+     */
+    @Test
+    public void testKShortestPaths() {
+        System.out.println("Test of k shortest paths");
+
+        ArrayList<Double> lengths = new ArrayList<>();
+        assertTrue("Should be null if vertex does not exist", GraphAlgorithms.kShortestPaths(completeMap, "LX", "Porto", 3, lengths) == null);
+        assertTrue("No paths to Faro", GraphAlgorithms.kShortestPaths(completeMap, "Porto", "Faro", 3, lengths).isEmpty());
+        assertTrue("k of 0", GraphAlgorithms.kShortestPaths(completeMap, "Porto", "Lisboa", 0, lengths).isEmpty());
+        ArrayList<LinkedList<String>> paths = GraphAlgorithms.kShortestPaths(completeMap, "Porto", "Porto", 3, lengths);
+        assertTrue("Same vertex has one path", paths.size() == 1 && paths.get(0).size() == 1 && lengths.get(0) == 0);
+
+        paths = GraphAlgorithms.kShortestPaths(completeMap, "Porto", "Lisboa", 2, lengths);
+        assertEquals("First is the shortest path", Arrays.asList("Porto", "Aveiro", "Coimbra", "Lisboa"), paths.get(0));
+        assertTrue("Lengths should be 335 and 345", lengths.get(0) == 335 && lengths.get(1) == 345);
+
+        // a k beyond the number of paths asks for all of them
+        int numPaths = 0;
+        for (Iterator<List<String>> it = GraphAlgorithms.pathIterator(completeMap, "Porto", "Lisboa"); it.hasNext(); it.next()) {
+            numPaths++;
+        }
+        paths = GraphAlgorithms.kShortestPaths(completeMap, "Porto", "Lisboa", Integer.MAX_VALUE, lengths);
+        assertTrue("Should give every path", paths.size() == numPaths && lengths.size() == numPaths);
+        FrozenGraph<String> frozen = completeMap.freeze();
+        ArrayList<Double> frozenLengths = new ArrayList<>();
+        assertTrue("Frozen graph should give every path", GraphAlgorithms.kShortestPaths(frozen, frozen.id("Porto"),
+                frozen.id("Lisboa"), Integer.MAX_VALUE, frozenLengths).size() == numPaths);
+        assertEquals("Frozen graph should give the same lengths", lengths, frozenLengths);
+
+        // random graphs: the lengths must be the k smallest of all simple paths
+        Random rnd = new Random(11);
+        for (int round = 0; round < 10; round++) {
+            Graph<Integer, String> g = new Graph<>(round % 2 == 0);
+            for (int i = 0; i < 40; i++) {
+                g.insertEdge(rnd.nextInt(9), rnd.nextInt(9), "E", rnd.nextInt(20));
+            }
+            if (!g.validVertex(0) || !g.validVertex(8)) {
+                continue;
+            }
+            ArrayList<Double> all = new ArrayList<>();
+            Iterator<List<Integer>> it = GraphAlgorithms.pathIterator(g, 0, 8);
+            while (it.hasNext()) {
+                List<Integer> p = it.next();
+                double len = 0;
+                for (int i = 0; i + 1 < p.size(); i++) {
+                    len += g.getEdge(p.get(i), p.get(i + 1)).getWeight();
+                }
+                all.add(len);
+            }
+            Collections.sort(all);
+            int k = 1 + rnd.nextInt(30);
+            ArrayList<LinkedList<Integer>> kPaths = GraphAlgorithms.kShortestPaths(g, 0, 8, k, lengths);
+            assertTrue("Should give min(k, paths) paths", kPaths.size() == Math.min(k, all.size()));
+            for (int i = 0; i < kPaths.size(); i++) {
+                assertTrue("Length of path " + i, lengths.get(i).doubleValue() == all.get(i));
+                assertTrue("Paths should be different", kPaths.indexOf(kPaths.get(i)) == i);
+                assertTrue("Path should start in 0 and end in 8", kPaths.get(i).getFirst() == 0 && kPaths.get(i).getLast() == 8);
+            }
+        }
+    }
 }
@@ -5,7 +5,13 @@
  */
 package graphMap;
 
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -615,4 +621,396 @@ public class GraphTest {
         System.out.println(instance);
     }
     
+
+    /**
+     * Test of freeze method, of class Graph.
+     */
+    @Test
+    public void testFreeze() {
+        System.out.println("Test freeze");
+
+        instance.insertEdge("A","B","Edge1",6);
+        instance.insertEdge("A","C","Edge2",1);
+        instance.insertEdge("B","D","Edge3",3);
+        instance.insertEdge("C","D","Edge4",4);
+        instance.insertVertex("E");
+
+        FrozenGraph<String> frozen = instance.freeze();
+        assertTrue("Frozen graph should be directed", frozen.isDirected());
+        assertTrue("Frozen graph should have 5 vertices", frozen.numVertices() == 5);
+        assertTrue("Frozen graph should have 4 edges", frozen.numEdges() == 4);
+
+        for (String vert : instance.vertices()) {
+            int id = frozen.id(vert);
+            assertTrue("Ids should be the vertex keys", id == instance.getKey(vert));
+            assertEquals("Ids should map back to the vertex", vert, frozen.vertex(id));
+            assertTrue("Out degrees should match", frozen.outDegree(id) == instance.outDegree(vert));
+        }
+        assertTrue("Unknown vertex should have id -1", frozen.id("Z") == -1);
+
+        int a = frozen.id("A");
+        assertTrue("First edge of A goes to B", frozen.target(frozen.firstEdge(a)) == frozen.id("B"));
+        assertTrue("First edge of A weighs 6", frozen.weight(frozen.firstEdge(a)) == 6);
+        assertTrue("Second edge of A goes to C", frozen.target(frozen.firstEdge(a) + 1) == frozen.id("C"));
+        assertTrue("E has no edges", frozen.firstEdge(frozen.id("E")) == frozen.endEdge(frozen.id("E")));
+
+        instance.insertEdge("D","E","Edge5",1);
+        assertTrue("Frozen graph should not see later changes", frozen.numEdges() == 4);
+    }
+
+    /**
+     * Test of the incoming edges index kept by removeVertex, of class Graph.
+     */
+    @Test
+    public void testRemoveVertexIncomingIndex() {
+        System.out.println("Test removeVertex with incoming edges");
+
+        instance.insertEdge("A","B","Edge1",6);
+        instance.insertEdge("A","C","Edge2",1);
+        instance.insertEdge("B","D","Edge3",3);
+        instance.insertEdge("C","D","Edge4",4);
+        instance.insertEdge("D","A","Edge6",2);
+
+        instance.removeVertex("B");
+        assertTrue("Edges of B should be removed", instance.numEdges() == 3);
+        assertTrue("in degree of D should be 1", instance.inDegree("D") == 1);
+        assertTrue("out degree of A should be 1", instance.outDegree("A") == 1);
+
+        instance.removeVertex("A");
+        assertTrue("Edges of A should be removed", instance.numEdges() == 1);
+        assertTrue("in degree of C should be 0", instance.inDegree("C") == 0);
+        assertTrue("out degree of D should be 0", instance.outDegree("D") == 0);
+        assertTrue("C to D should remain", instance.getEdge("C", "D") != null);
+    }
+
+    /**
+     * Test of inDegree and incomingEdges on an undirected graph, of class Graph.
+     */
+    @Test
+    public void testIncomingEdgesUndirected() {
+        System.out.println("Test incomingEdges undirected");
+
+        Graph<String, String> undirected = new Graph<>(false);
+        undirected.insertEdge("A","B","Edge1",6);
+        undirected.insertEdge("A","C","Edge2",1);
+        undirected.insertEdge("C","B","Edge3",3);
+
+        assertTrue("in degree of A should be 2", undirected.inDegree("A") == 2);
+
+        Iterator<Edge<String,String>> itEdge = undirected.incomingEdges("B").iterator();
+        Edge<String,String> edge = itEdge.next();
+        assertTrue("first edge should come from A", edge.getVOrig().equals("A") && edge.getVDest().equals("B"));
+        edge = itEdge.next();
+        assertTrue("second edge should come from C", edge.getVOrig().equals("C") && edge.getVDest().equals("B"));
+        assertFalse("there should be only two edges", itEdge.hasNext());
+
+        undirected.removeVertex("B");
+        assertTrue("Edges of B should be removed", undirected.numEdges() == 2);
+        assertTrue("in degree of C should be 1", undirected.inDegree("C") == 1);
+    }
+
+    /**
+     * Test of removeVertex, insertVertex and compact with stable keys, of class Graph.
+     */
+    @Test
+    public void testStableKeys() {
+        System.out.println("Test stable keys");
+
+        Graph<String, String> stable = new Graph<>(true, true);
+        assertTrue("Graph should have stable keys", stable.hasStableKeys());
+        assertFalse("Default graph should not have stable keys", instance.hasStableKeys());
+
+        stable.insertEdge("A","B","Edge1",6);
+        stable.insertEdge("B","C","Edge2",1);
+        stable.insertEdge("C","D","Edge3",3);
+
+        stable.removeVertex("B");
+        assertTrue("Num vertices should be 3", stable.numVertices() == 3);
+        assertTrue("Key capacity should stay 4", stable.keyCapacity() == 4);
+        assertTrue("Key of C should not change", stable.getKey("C") == 2);
+        assertTrue("Key of D should not change", stable.getKey("D") == 3);
+
+        stable.insertVertex("E");
+        assertTrue("E should reuse the key of B", stable.getKey("E") == 1);
+        assertTrue("Key capacity should stay 4", stable.keyCapacity() == 4);
+
+        stable.removeVertex("A");
+        LinkedList<String> path = new LinkedList<>();
+        assertTrue("Algorithms should work with unused keys", GraphAlgorithms.shortestPath(stable, "C", "D", path) == 3);
+        assertTrue("BFS should work with unused keys", GraphAlgorithms.BreadthFirstSearch(stable, "C").size() == 2);
+
+        FrozenGraph<String> frozen = stable.freeze();
+        assertTrue("Frozen graph should have 3 vertices", frozen.numVertices() == 3);
+        assertTrue("Frozen graph should keep the keys", frozen.idBound() == 4 && frozen.id("D") == 3);
+        assertFalse("Unused key should not be a valid id", frozen.validId(0));
+
+        stable.compact();
+        assertTrue("Key capacity should be 3", stable.keyCapacity() == 3);
+        assertTrue("Keys should follow vertex order", stable.getKey("C") == 0 && stable.getKey("D") == 1 && stable.getKey("E") == 2);
+        stable.insertVertex("F");
+        assertTrue("New vertex should get the next key", stable.getKey("F") == 3);
+    }
+
+    /**
+     * Test of version method, of class Graph.
+     */
+    @Test
+    public void testVersion() {
+        System.out.println("Test version");
+
+        long version = instance.version();
+        instance.insertVertex("A");
+        assertTrue("insertVertex should change the version", instance.version() != version);
+
+        version = instance.version();
+        instance.insertEdge("A","B","Edge1",6);
+        assertTrue("insertEdge should change the version", instance.version() != version);
+
+        version = instance.version();
+        instance.insertEdge("A","B","Edge1",6);
+        instance.getEdge("A","B");
+        instance.incomingEdges("B");
+        assertTrue("queries and failed inserts should keep the version", instance.version() == version);
+
+        instance.removeEdge("A","B");
+        assertTrue("removeEdge should change the version", instance.version() != version);
+
+        version = instance.version();
+        instance.removeVertex("B");
+        assertTrue("removeVertex should change the version", instance.version() != version);
+    }
+
+    /**
+     * Test of keyVertex and keyVertices methods, of class Graph.
+     */
+    @Test
+    public void testKeyVertices() {
+        System.out.println("Test keyVertex");
+
+        instance.insertEdge("A","B","Edge1",6);
+        instance.insertEdge("B","C","Edge2",1);
+        instance.insertEdge("C","D","Edge3",3);
+        List<String> keyVerts = instance.keyVertices();
+        for (String vert : instance.vertices()) {
+            assertTrue("Vertex of key should be " + vert, vert.equals(instance.keyVertex(instance.getKey(vert))));
+        }
+        assertTrue("Unknown key should have no vertex", instance.keyVertex(4) == null && instance.keyVertex(-1) == null);
+
+        instance.removeVertex("B");
+        assertTrue("View should follow the removal", keyVerts.size() == 3);
+        assertTrue("Keys should shift after the removed one", keyVerts.get(1).equals("C") && keyVerts.get(2).equals("D"));
+        try {
+            keyVerts.set(0, "Z");
+            fail("View should be read-only");
+        } catch (UnsupportedOperationException ex) {
+        }
+        String[] typed = instance.allkeyVerts(String[]::new);
+        assertTrue("allkeyVerts should give a typed array", typed.length == 3 && typed[1].equals("C"));
+
+        Graph<Object, String> mixed = new Graph<>(false, true);
+        mixed.insertEdge("A", 1, "Edge1", 1);
+        mixed.insertEdge(1, 2.5, "Edge2", 2);
+        mixed.removeVertex("A");
+        assertTrue("Free key should have no vertex", mixed.keyVertex(0) == null);
+        Object[] all = mixed.allkeyVerts(Object[]::new);
+        assertTrue("allkeyVerts should accept different vertex types", all.length == 3 && all[1].equals(1) && all[2].equals(2.5));
+        assertTrue("Free key should be null in allkeyVerts", all[0] == null);
+        LinkedList<Object> path = new LinkedList<>();
+        assertTrue("shortestPath should accept different vertex types", GraphAlgorithms.shortestPath(mixed, 1, 2.5, path) == 2);
+        mixed.compact();
+        assertTrue("Compact should renumber the table", mixed.keyVertex(0).equals(1) && mixed.keyVertex(1).equals(2.5));
+        mixed.insertVertex("B");
+        assertTrue("New vertex should take the next key", mixed.keyVertex(2).equals("B"));
+    }
+
+    /**
+     * Test of forEachEdge method, of class Graph.
+     */
+    @Test
+    public void testForEachEdge() {
+        System.out.println("Test forEachEdge");
+
+        Graph<String, String> stable = new Graph<>(false, true);
+        stable.insertEdge("A","B","Edge1",6);
+        stable.insertEdge("B","C","Edge2",1);
+        stable.insertEdge("C","D","Edge3",3);
+        stable.removeVertex("A");
+
+        List<Edge<String, String>> seen = new ArrayList<>();
+        stable.forEachEdge(seen::add);
+        List<Edge<String, String>> expected = new ArrayList<>();
+        for (Edge<String, String> edge : stable.edges()) {
+            expected.add(edge);
+        }
+        assertTrue("Should visit every edge once", seen.size() == stable.numEdges() && seen.containsAll(expected));
+
+        try {
+            stable.forEachEdge(edge -> stable.insertVertex("E"));
+            fail("Changing the graph during forEachEdge should fail");
+        } catch (ConcurrentModificationException ex) {
+        }
+    }
+
+    /**
+     * Test of edgeSpliterator method, of class Graph.
+     */
+    @Test
+    public void testEdgeSpliterator() {
+        System.out.println("Test edgeSpliterator");
+
+        for (int i = 0; i < 200; i++) {
+            instance.insertEdge("V" + i, "V" + ((i * 7 + 3) % 200), "E" + i, i);
+            instance.insertEdge("V" + i, "V" + ((i + 1) % 200), "F" + i, 1);
+        }
+
+        Spliterator<Edge<String, String>> split = instance.edgeSpliterator();
+        assertTrue("Spliterator should be SIZED", split.hasCharacteristics(Spliterator.SIZED));
+        assertTrue("Size should be the number of edges", split.getExactSizeIfKnown() == instance.numEdges());
+
+        Spliterator<Edge<String, String>> prefix = split.trySplit();
+        assertTrue("Should split", prefix != null);
+        assertFalse("Split parts are estimates", split.hasCharacteristics(Spliterator.SIZED));
+        List<Edge<String, String>> inOrder = new ArrayList<>();
+        prefix.forEachRemaining(inOrder::add);
+        while (split.tryAdvance(inOrder::add)) {
+        }
+        List<Edge<String, String>> expected = new ArrayList<>();
+        for (Edge<String, String> edge : instance.edges()) {
+            expected.add(edge);
+        }
+        assertTrue("Parts should keep the order of edges()", inOrder.equals(expected));
+
+        double sum = StreamSupport.stream(instance.edgeSpliterator(), true).mapToDouble(Edge::getWeight).sum();
+        double expectedSum = 0;
+        for (Edge<String, String> edge : instance.edges()) {
+            expectedSum += edge.getWeight();
+        }
+        assertTrue("Parallel stream should see every edge", sum == expectedSum);
+        assertTrue("Parallel count", StreamSupport.stream(instance.edgeSpliterator(), true).count() == instance.numEdges());
+    }
+
+    /**
+     * Test of snapshot method, of class Graph.
+     */
+    @Test
+    public void testSnapshot() {
+        System.out.println("Test snapshot");
+
+        instance.insertEdge("A","B","Edge1",6);
+        instance.insertEdge("B","C","Edge2",1);
+        instance.insertEdge("C","D","Edge3",3);
+
+        Graph<String, String> snap = instance.snapshot();
+        assertTrue("Snapshot should be equal", snap.equals(instance));
+        assertTrue("Snapshot should share the vertices", snap.vertexOf("A") == instance.vertexOf("A"));
+
+        instance.insertEdge("A","C","Edge4",2);
+        assertTrue("Original should have 4 edges", instance.numEdges() == 4);
+        assertTrue("Snapshot should keep 3 edges", snap.numEdges() == 3 && snap.getEdge("A","C") == null);
+        assertTrue("Snapshot should keep the incoming edges", snap.inDegree("C") == 1 && instance.inDegree("C") == 2);
+        assertTrue("Touched vertices should be copied", snap.vertexOf("A") != instance.vertexOf("A"));
+        assertTrue("Other vertices should stay shared", snap.vertexOf("D") == instance.vertexOf("D") && snap.vertexOf("B") == instance.vertexOf("B"));
+
+        snap.removeVertex("B");
+        assertTrue("Original should keep B", instance.validVertex("B") && instance.getKey("C") == 2);
+        assertTrue("Snapshot should renumber its own keys", snap.getKey("C") == 1 && snap.keyVertex(1).equals("C"));
+        assertTrue("Original keys should not change", instance.keyVertex(1).equals("B") && instance.getEdge("A","B") != null);
+        LinkedList<String> path = new LinkedList<>();
+        assertTrue("Original should still find the path A-C-D", GraphAlgorithms.shortestPath(instance, "A", "D", path) == 5);
+
+        Graph<String, String> snap2 = snap.snapshot();
+        snap.insertVertex("E");
+        assertFalse("Snapshot of snapshot should not see E", snap2.validVertex("E"));
+        assertTrue("Snapshot of snapshot should be unchanged", snap2.numVertices() == 3 && snap2.numEdges() == 1);
+    }
+
+    /**
+     * Test of snapshot method read by several threads, of class Graph.
+     */
+    @Test
+    public void testSnapshotConcurrentReaders() throws InterruptedException {
+        System.out.println("Test snapshot with concurrent readers");
+
+        Graph<Integer, String> g = new Graph<>(false);
+        for (int i = 0; i < 100; i++) {
+            g.insertEdge(i, (i + 1) % 100, "E", 1);
+        }
+        final Graph<Integer, String> snap = g.snapshot();
+        final int edges = snap.numEdges();
+        final boolean[] failed = new boolean[1];
+
+        Thread[] readers = new Thread[4];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                for (int r = 0; r < 200; r++) {
+                    int[] count = new int[1];
+                    snap.forEachEdge(edge -> count[0]++);
+                    if (count[0] != edges || GraphAlgorithms.BreadthFirstSearch(snap, 0).size() != 100) {
+                        failed[0] = true;
+                    }
+                }
+            });
+            readers[t].start();
+        }
+        for (int i = 0; i < 100; i += 2) {
+            g.removeEdge(i, i + 1);
+            g.insertEdge(i, (i + 50) % 100, "F", 2);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertFalse("Readers should always see the snapshot", failed[0]);
+        assertTrue("Snapshot should be unchanged", snap.numEdges() == edges && snap.getEdge(0, 1) != null);
+    }
+
+    /**
+     * Test of sameComponent, componentSize and numComponents methods, of class Graph.
+     */
+    @Test
+    public void testComponents() {
+        System.out.println("Test components");
+
+        Graph<String, String> g = new Graph<>(false);
+        g.insertVertex("A");
+        assertTrue("A should be alone", g.numComponents() == 1 && g.componentSize("A") == 1);
+        g.insertEdge("A","B","Edge1",1);
+        g.insertEdge("C","D","Edge2",1);
+        assertTrue("Should be 2 components", g.numComponents() == 2);
+        assertTrue("A and B should be connected", g.sameComponent("A","B"));
+        assertFalse("A and C should not be connected", g.sameComponent("A","C"));
+        assertFalse("Unknown vertex", g.sameComponent("A","Z") || g.componentSize("Z") != 0);
+
+        g.insertEdge("B","C","Edge3",1);
+        assertTrue("Insertion should join the components", g.sameComponent("A","D") && g.componentSize("D") == 4 && g.numComponents() == 1);
+
+        g.removeEdge("B","C");
+        assertFalse("Removal should split the component", g.sameComponent("A","D"));
+        assertTrue("Sizes after the removal", g.componentSize("A") == 2 && g.numComponents() == 2);
+
+        g.removeVertex("A");
+        g.insertVertex("E");
+        assertTrue("Components after removing a vertex", g.numComponents() == 3 && g.componentSize("B") == 1);
+
+        //a snapshot takes the index along, and each side updates its own copy
+        Graph<String, String> snap = g.snapshot();
+        g.insertEdge("B","E","Edge4",1);
+        snap.insertEdge("C","E","Edge5",1);
+        assertTrue("Original should join B and E only", g.sameComponent("B","E") && !g.sameComponent("C","E") && g.numComponents() == 2);
+        assertTrue("Snapshot should join C and E only", snap.sameComponent("C","E") && !snap.sameComponent("B","E") && snap.numComponents() == 2);
+        assertTrue("Sizes should be kept apart", g.componentSize("E") == 2 && snap.componentSize("E") == 3);
+
+        //directed edges count in both directions
+        instance.insertEdge("A","B","Edge1",1);
+        instance.insertEdge("C","B","Edge2",1);
+        assertTrue("Weak components of a directed graph", instance.sameComponent("A","C") && instance.numComponents() == 1);
+
+        Graph<String, String> stable = new Graph<>(false, true);
+        stable.insertEdge("A","B","Edge1",1);
+        stable.insertEdge("B","C","Edge2",1);
+        stable.removeVertex("B");
+        assertTrue("Free keys should not count", stable.numComponents() == 2);
+        stable.insertEdge("A","X","Edge3",1);
+        stable.insertEdge("X","C","Edge4",1);
+        assertTrue("Reused key should join", stable.sameComponent("A","C") && stable.numComponents() == 1);
+    }
 }
@@ -0,0 +1,106 @@
+package graphMap;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.LinkedList;
+
+/**
+ * Times BreadthFirstSearch and clone on the alliance graph of pers_XL.txt,
+ * resolving opposite vertices by scanning the adjacency (as before) and
+ * through the edge endpoints (Graph.opposite). Run from the project folder:
+ * java graphMap.OppositeBenchmark [file] [rounds]
+ *
+ * @author DEI-ESINF
+ */
+public class OppositeBenchmark {
+
+    static Graph<String, String> loadAliances(String fileName) throws IOException {
+        Graph<String, String> g = new Graph<>(false);
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] specifics = line.split(",");
+                if (specifics.length == 3) {
+                    g.insertVertex(specifics[0]);
+                } else if (specifics.length == 4) {
+                    g.insertEdge(specifics[0], specifics[1], specifics[2], Double.parseDouble(specifics[3]));
+                }
+            }
+        }
+        return g;
+    }
+
+    // previous resolution: look for the edge among every adjacent vertex
+    static <V, E> V scanOpposite(Graph<V, E> g, V vert, Edge<V, E> edge) {
+        for (V vAdj : g.adjVertices(vert)) {
+            if (edge.equals(g.getEdge(vert, vAdj))) {
+                return vAdj;
+            }
+        }
+        return null;
+    }
+
+    static <V, E> int scanBreadthFirstSearch(Graph<V, E> g, V vert) {
+        LinkedList<V> qaux = new LinkedList<>();
+        boolean[] visited = new boolean[g.numVertices()];
+        int count = 1;
+        qaux.add(vert);
+        visited[g.getKey(vert)] = true;
+        while (!qaux.isEmpty()) {
+            vert = qaux.remove();
+            for (Edge<V, E> edge : g.outgoingEdges(vert)) {
+                V vAdj = scanOpposite(g, vert, edge);
+                if (!visited[g.getKey(vAdj)]) {
+                    visited[g.getKey(vAdj)] = true;
+                    qaux.add(vAdj);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    static <V, E> Graph<V, E> scanClone(Graph<V, E> g) {
+        Graph<V, E> newObject = new Graph<>(false);
+        for (V vert : g.vertices()) {
+            newObject.insertVertex(vert);
+        }
+        for (V vert1 : g.vertices()) {
+            for (Edge<V, E> e : g.outgoingEdges(vert1)) {
+                newObject.insertEdge(vert1, scanOpposite(g, vert1, e), e.getElement(), e.getWeight());
+            }
+        }
+        return newObject;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String fileName = args.length > 0 ? args[0] : "pers_XL.txt";
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        Graph<String, String> g = loadAliances(fileName);
+        System.out.println(fileName + ": " + g.numVertices() + " vertices, " + g.numEdges() + " edges");
+
+        long sink = 0;
+        for (int r = 0; r <= rounds; r++) {
+            long t0 = System.nanoTime();
+            for (String vert : g.vertices()) {
+                sink += scanBreadthFirstSearch(g, vert);
+            }
+            long t1 = System.nanoTime();
+            for (String vert : g.vertices()) {
+                sink += GraphAlgorithms.BreadthFirstSearch(g, vert).size();
+            }
+            long t2 = System.nanoTime();
+            sink += scanClone(g).numEdges();
+            long t3 = System.nanoTime();
+            sink += g.clone().numEdges();
+            long t4 = System.nanoTime();
+
+            if (r == rounds) {   // earlier rounds are warm-up
+                System.out.printf("BFS from every vertex: scan %.2f ms, opposite %.2f ms%n", (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+                System.out.printf("clone: scan %.2f ms, opposite %.2f ms%n", (t3 - t2) / 1e6, (t4 - t3) / 1e6);
+            }
+        }
+        System.out.println("(" + sink + ")");
+    }
+}
@@ -128,6 +128,13 @@ public class VertexTest {
         String vAdj = "VertexAdj";    
         instance.addAdjVert(vAdj,edge);
         assertEquals(vAdj, instance.getAdjVert(edge));
+        
+        Vertex<String,Integer> vDest = new Vertex<>(1, "VertexDest");
+        Edge<String,Integer> edgeDest = new Edge<>(5, 2.0, instance, vDest);
+        assertEquals(null, instance.getAdjVert(edgeDest));
+        instance.addAdjVert("VertexDest", edgeDest);
+        assertEquals("VertexDest", instance.getAdjVert(edgeDest));
+        assertEquals(vAdj, instance.getAdjVert(edge));
     }
 
     /**
@@ -367,4 +374,30 @@ public class VertexTest {
         System.out.println(instance);
     }
     
+
+    /**
+     * Test of the incoming edges index, of class Vertex.
+     */
+    @Test
+    public void testIncomingIndex() {
+        System.out.println("incoming index");
+
+        Edge<String,Integer> edge = new Edge<>();
+        instance.addInAdjVert("VIn", edge);
+        assertFalse("index should be off by default", instance.isIncomingIndexed());
+        assertTrue("not indexed should give -1", instance.numInAdjVerts() == -1);
+        assertTrue("not indexed should give null", instance.getAllInEdges() == null);
+
+        instance.indexIncoming();
+        instance.addInAdjVert("VIn", edge);
+        assertTrue("result should be one", instance.numInAdjVerts() == 1);
+        assertEquals(edge, instance.getInEdge("VIn"));
+
+        Vertex<String,Integer> copy = instance.clone();
+        assertTrue("clone should keep the index", copy.numInAdjVerts() == 1);
+
+        instance.remInAdjVert("VIn");
+        assertTrue("result should be zero", instance.numInAdjVerts() == 0);
+        assertTrue("clone should not change", copy.numInAdjVerts() == 1);
+    }
 }
@@ -397,6 +397,74 @@ public class AdjacencyMatrixGraphTest {
         assertTrue("edge should be null", instance.getEdge(v2, v4) == null);
     }
 
+    @Test
+    public void testEnsureCapacity() {
+        System.out.println("Test of ensure capacity");
+
+        AdjacencyMatrixGraph<Integer, String> instance = new AdjacencyMatrixGraph<Integer, String>(2);
+        instance.insertVertex(0);
+        instance.insertVertex(1);
+        instance.insertEdge(0, 1, "Edge 0");
+
+        // growing by insertion and by reservation must keep the edges
+        for (int i = 2; i < 20; i++) {
+            instance.insertVertex(i);
+            instance.insertEdge(i - 1, i, "Edge " + (i - 1));
+        }
+        instance.ensureCapacity(100);
+        instance.ensureCapacity(50);
+        for (int i = 20; i < 100; i++) {
+            instance.insertVertex(i);
+            instance.insertEdge(i - 1, i, "Edge " + (i - 1));
+        }
+
+        assertTrue("result should be 100", instance.numVertices() == 100);
+        assertTrue("result should be 99", instance.numEdges() == 99);
+        for (int i = 1; i < 100; i++) {
+            assertTrue("edge should be \"Edge " + (i - 1) + "\"", instance.getEdge(i, i - 1).equals("Edge " + (i - 1)));
+            assertTrue("degree should be 1 or 2", instance.outDegree(i) == (i == 99 ? 1 : 2));
+        }
+        assertTrue("edge should be null", instance.getEdge(0, 2) == null);
+
+        AdjacencyMatrixGraph<Integer, String> other = new AdjacencyMatrixGraph<Integer, String>();
+        for (int i = 0; i < 100; i++) {
+            other.insertVertex(i);
+            if (i > 0) {
+                other.insertEdge(i, i - 1, "Edge " + (i - 1));
+            }
+        }
+        assertTrue("graphs of different capacity should be equal", instance.equals(other));
+    }
+
+    @Test
+    public void testRemoveVertexIndexes() {
+        System.out.println("Test of vertex indexes after remove vertex");
+
+        AdjacencyMatrixGraph<String, String> instance = new AdjacencyMatrixGraph<String, String>();
+        for (int i = 1; i <= 5; i++) {
+            instance.insertVertex("Vert " + i);
+        }
+        instance.insertEdge("Vert 4", "Vert 5", "Edge 1");
+
+        instance.removeVertex("Vert 1");
+        instance.removeVertex("Vert 3");
+
+        // the vertices after the removed ones moved down
+        assertTrue("removed vertex should have no edges", instance.outDegree("Vert 1") == -1);
+        assertTrue("edge should still be \"Edge 1\"", instance.getEdge("Vert 4", "Vert 5").compareTo("Edge 1") == 0);
+        assertTrue("Vert 2 should have no edges", instance.outDegree("Vert 2") == 0);
+
+        instance.insertVertex("Vert 1");
+        assertTrue("reinserted vertex should go last", instance.insertEdge("Vert 1", "Vert 5", "Edge 2"));
+        assertTrue("edge should be \"Edge 2\"", instance.getEdge("Vert 5", "Vert 1").compareTo("Edge 2") == 0);
+
+        @SuppressWarnings("unchecked")
+        AdjacencyMatrixGraph<String, String> instance2 = (AdjacencyMatrixGraph<String, String>) instance.clone();
+        instance.removeVertex("Vert 2");
+        assertTrue("clone should keep its own indexes", instance2.getEdge("Vert 4", "Vert 5").compareTo("Edge 1") == 0
+                && instance2.outDegree("Vert 2") == 0);
+    }
+
     @Test
     public void testRemoveEdge() {
         System.out.println("Test of remove edge");
@@ -552,4 +620,35 @@ public class AdjacencyMatrixGraphTest {
         System.out.println(instance);
     }
 
+
+    @Test
+    public void testVersion() {
+        System.out.println("Test of version");
+        AdjacencyMatrixGraph<String, Integer> instance = new AdjacencyMatrixGraph<String, Integer>();
+
+        long version = instance.version();
+        instance.insertVertex("Vert 1");
+        assertTrue("insertVertex should change the version", instance.version() != version);
+
+        instance.insertVertex("Vert 2");
+        version = instance.version();
+        instance.insertVertex("Vert 2");
+        assertTrue("failed insertVertex should keep the version", instance.version() == version);
+
+        instance.insertEdge("Vert 1", "Vert 2", 12);
+        assertTrue("insertEdge should change the version", instance.version() != version);
+
+        version = instance.version();
+        instance.getEdge("Vert 1", "Vert 2");
+        instance.outgoingEdges("Vert 1");
+        assertTrue("queries should keep the version", instance.version() == version);
+
+        instance.removeEdge("Vert 1", "Vert 2");
+        assertTrue("removeEdge should change the version", instance.version() != version);
+
+        version = instance.version();
+        instance.removeVertex("Vert 2");
+        assertTrue("removeVertex should change the version", instance.version() != version);
+    }
+
 }
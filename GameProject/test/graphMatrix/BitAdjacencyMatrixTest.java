@@ -0,0 +1,62 @@
+package graphMatrix;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests class for BitAdjacencyMatrix
+ *
+ * @author DEI-ESINF
+ */
+public class BitAdjacencyMatrixTest {
+
+    @Test
+    public void testBits() {
+        System.out.println("Test of bits");
+
+        // over two words per row, with edges on both sides of 64
+        AdjacencyMatrixGraph<Integer, String> graph = new AdjacencyMatrixGraph<>();
+        for (int i = 0; i < 130; i++) {
+            graph.insertVertex(i);
+        }
+        graph.insertEdge(0, 63, "a");
+        graph.insertEdge(0, 64, "b");
+        graph.insertEdge(64, 129, "c");
+
+        BitAdjacencyMatrix instance = new BitAdjacencyMatrix(graph);
+        assertTrue("should have 130 vertices", instance.numVertices() == 130);
+        assertTrue("should have the edges both ways", instance.hasEdge(0, 63) && instance.hasEdge(63, 0)
+                && instance.hasEdge(64, 0) && instance.hasEdge(129, 64));
+        assertTrue("should have no other edges", !instance.hasEdge(0, 0) && !instance.hasEdge(0, 65)
+                && !instance.hasEdge(1, 63) && !instance.hasEdge(128, 64));
+        assertTrue("degree of 0 should be 2", instance.degree(0) == 2 && instance.degree(64) == 2);
+        assertTrue("degree of 1 should be 0", instance.degree(1) == 0);
+        for (int i = 0; i < 130; i++) {
+            for (int j = 0; j < 130; j++) {
+                assertTrue("bit should match the matrix", instance.hasEdge(i, j) == (graph.privateGet(i, j) != null));
+            }
+        }
+    }
+
+    @Test
+    public void testAdjacencyBits() {
+        System.out.println("Test of adjacencyBits");
+
+        AdjacencyMatrixGraph<String, String> graph = new AdjacencyMatrixGraph<>();
+        graph.insertVertex("A");
+        graph.insertVertex("B");
+        graph.insertVertex("C");
+        graph.insertEdge("A", "B", "AB");
+
+        BitAdjacencyMatrix bits = graph.adjacencyBits();
+        assertTrue("should keep the bits while the graph does not change", graph.adjacencyBits() == bits);
+
+        graph.insertEdge("B", "C", "BC");
+        assertTrue("should build them again after a change", graph.adjacencyBits() != bits
+                && graph.adjacencyBits().hasEdge(2, 1));
+
+        graph.removeVertex("A");
+        bits = graph.adjacencyBits();
+        assertTrue("should follow the new indexes", bits.numVertices() == 2 && bits.hasEdge(0, 1) && bits.degree(0) == 1);
+    }
+}
@@ -0,0 +1,129 @@
+package graphMatrix;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests class for DoubleMatrixGraph
+ *
+ * @author DEI-ESINF
+ */
+public class DoubleMatrixGraphTest {
+
+    @Test
+    public void testInsertEdge() {
+        System.out.println("Test of insert edge");
+
+        DoubleMatrixGraph<String> instance = new DoubleMatrixGraph<>();
+        instance.insertVertex("A");
+        instance.insertVertex("B");
+        instance.insertVertex("C");
+
+        assertTrue("should insert the edge", instance.insertEdge("A", "B", 2.5));
+        assertTrue("should not insert an existing edge", !instance.insertEdge("B", "A", 1.0));
+        assertTrue("should not insert a loop", !instance.insertEdge("C", "C", 1.0));
+        assertTrue("should not insert to a missing vertex", !instance.insertEdge("A", "D", 1.0));
+        assertTrue("should not insert NaN", !instance.insertEdge("A", "C", Double.NaN));
+        assertTrue("should not insert infinity", !instance.insertEdge("A", "C", Double.POSITIVE_INFINITY));
+        assertTrue("should not insert null", !instance.insertEdge("A", "C", (Double) null));
+        assertTrue("result should be one", instance.numEdges() == 1);
+
+        assertTrue("edge should be 2.5 both ways", instance.getEdge("B", "A") == 2.5 && instance.weight("A", "B") == 2.5);
+        assertTrue("missing edge should be null", instance.getEdge("A", "C") == null);
+        assertTrue("missing edge should weigh NO_EDGE", instance.weight("A", "C") == DoubleMatrixGraph.NO_EDGE);
+        assertTrue("degree of A should be one", instance.outDegree("A") == 1 && instance.inDegree("C") == 0);
+        assertTrue("degree of a missing vertex should be -1", instance.outDegree("D") == -1);
+        Object[] endVertices = instance.endVertices(2.5);
+        assertTrue("edge should end in A and B", endVertices[0].equals("A") && endVertices[1].equals("B"));
+        assertTrue("endVertices should be null", instance.endVertices(1.0) == null);
+    }
+
+    @Test
+    public void testResize() {
+        System.out.println("Test of resize");
+
+        DoubleMatrixGraph<Integer> instance = new DoubleMatrixGraph<>(2);
+        for (int i = 0; i < 50; i++) {
+            instance.insertVertex(i);
+        }
+        for (int i = 1; i < 50; i++) {
+            instance.insertEdge(i - 1, i, (double) i);
+        }
+        assertTrue("should have 50 vertices", instance.numVertices() == 50);
+        assertTrue("should have 49 edges", instance.numEdges() == 49);
+        for (int i = 1; i < 50; i++) {
+            assertTrue("edge should keep its weight", instance.getEdge(i, i - 1) == i);
+        }
+        assertTrue("should have no other edges", instance.getEdge(0, 2) == null);
+    }
+
+    @Test
+    public void testRemoveVertex() {
+        System.out.println("Test of remove vertex");
+
+        DoubleMatrixGraph<String> instance = new DoubleMatrixGraph<>();
+        for (int i = 1; i <= 5; i++) {
+            instance.insertVertex("Vert " + i);
+        }
+        instance.insertEdge("Vert 1", "Vert 2", 1.0);
+        instance.insertEdge("Vert 2", "Vert 4", 2.0);
+        instance.insertEdge("Vert 1", "Vert 5", 3.0);
+        instance.insertEdge("Vert 2", "Vert 3", 4.0);
+        instance.insertEdge("Vert 3", "Vert 1", 5.0);
+        instance.insertEdge("Vert 4", "Vert 1", 6.0);
+
+        assertTrue("should not remove a missing vertex", !instance.removeVertex("Vert 6"));
+        assertTrue("should remove the vertex", instance.removeVertex("Vert 3"));
+        assertTrue("result should be 4", instance.numVertices() == 4);
+        assertTrue("result should be 4", instance.numEdges() == 4);
+
+        Iterator<String> itVert = instance.vertices().iterator();
+        assertEquals("Vert 1", itVert.next());
+        assertEquals("Vert 2", itVert.next());
+        assertEquals("Vert 4", itVert.next());
+        assertEquals("Vert 5", itVert.next());
+        assertTrue("edge should be 6", instance.getEdge("Vert 1", "Vert 4") == 6.0);
+        assertTrue("edge should be 2", instance.getEdge("Vert 4", "Vert 2") == 2.0);
+        assertTrue("edge should be 3", instance.getEdge("Vert 5", "Vert 1") == 3.0);
+        assertTrue("edge should be null", instance.getEdge("Vert 2", "Vert 5") == null);
+        assertTrue("Vert 5 should keep one edge", instance.outDegree("Vert 5") == 1);
+
+        assertTrue("should remove the edge", instance.removeEdge("Vert 1", "Vert 4") == 6.0);
+        assertTrue("should not remove it again", instance.removeEdge("Vert 4", "Vert 1") == null);
+        assertTrue("result should be 3", instance.numEdges() == 3);
+    }
+
+    @Test
+    public void testCopyAndClone() {
+        System.out.println("Test of copy and clone");
+
+        AdjacencyMatrixGraph<String, Integer> graph = new AdjacencyMatrixGraph<>();
+        graph.insertVertex("A");
+        graph.insertVertex("B");
+        graph.insertVertex("C");
+        graph.insertEdge("A", "B", 1);
+        graph.insertEdge("B", "C", 2);
+
+        DoubleMatrixGraph<String> instance = new DoubleMatrixGraph<>(graph, e -> e * 10);
+        assertTrue("should have the same vertices", instance.numVertices() == 3 && instance.checkVertex("C"));
+        assertEquals("should have the edges of graph", Arrays.asList(10.0, 20.0), instance.edges());
+
+        @SuppressWarnings("unchecked")
+        DoubleMatrixGraph<String> clone = (DoubleMatrixGraph<String>) instance.clone();
+        assertEquals("clone should be equal", instance, clone);
+        assertTrue("equal graphs should have the same hash", instance.hashCode() == clone.hashCode());
+        clone.removeEdge("A", "B");
+        assertTrue("clone should change alone", instance.getEdge("A", "B") == 10.0 && clone.getEdge("A", "B") == null);
+        assertTrue("graphs should differ", !instance.equals(clone));
+
+        DoubleMatrixGraph<String> other = new DoubleMatrixGraph<>(50);
+        other.insertVertex("A");
+        other.insertVertex("B");
+        other.insertVertex("C");
+        other.insertEdge("B", "C", 20.0);
+        assertEquals("capacity should not matter", clone, other);
+        assertTrue("capacity should not matter to the hash", clone.hashCode() == other.hashCode());
+    }
+}
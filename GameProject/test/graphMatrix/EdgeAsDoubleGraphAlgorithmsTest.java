@@ -2,6 +2,7 @@ package graphMatrix;
 
 import graphMatrix.AdjacencyMatrixGraph;
 import graphMatrix.EdgeAsDoubleGraphAlgorithms;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import org.junit.AfterClass;
@@ -137,4 +138,152 @@ public class EdgeAsDoubleGraphAlgorithmsTest {
         res.insertEdge("A", "C", pos1);
         Assert.assertEquals(exp, EdgeAsDoubleGraphAlgorithms.minDistGraph(res));
     }
+
+    @Test
+    public void testShortestPathTree() {
+        System.out.println("Test of shortest path tree");
+
+        assertTrue("Should be null if vertex does not exist", EdgeAsDoubleGraphAlgorithms.shortestPathTree(distanceMap, "LX") == null);
+
+        ShortestPathTree<String> tree = EdgeAsDoubleGraphAlgorithms.shortestPathTree(distanceMap, "Porto");
+        assertEquals("Source should be Porto", "Porto", tree.source());
+
+        LinkedList<String> path = new LinkedList<String>();
+        LinkedList<String> expected = new LinkedList<String>();
+        for (String dest : distanceMap.vertices()) {
+            double len = EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, "Porto", dest, expected);
+            assertTrue("Distances should match", tree.distance(dest) == len);
+            assertTrue("Lengths should match", tree.path(dest, path) == len);
+            assertEquals("Paths should match", expected, path);
+        }
+        assertTrue("Should be -1 if vertex does not exist", tree.path("LX", path) == -1);
+
+        distanceMap.removeVertex("Coimbra");
+        assertTrue("Tree should keep the old paths", tree.path("Lisboa", path) == 335);
+        assertTrue("Path should still go through Coimbra", path.contains("Coimbra"));
+    }
+
+
+    @Test
+    public void testMultiSourceShortestPath() {
+        System.out.println("Test of multi-source shortest path");
+
+        LinkedList<String> path = new LinkedList<String>();
+        assertTrue("Should be -1 if vertex does not exist",
+                EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, Arrays.asList("Porto"), "LX", path) == -1);
+        assertTrue("Should be -1 without sources in the graph",
+                EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, Arrays.asList("LX"), "Porto", path) == -1);
+        assertTrue("Should be -1 if there is no path",
+                EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, Arrays.asList("Porto", "Faro"), "Évora", path) == -1);
+
+        assertTrue("Nearest source of Lisboa should be Leiria",
+                EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, Arrays.asList("Porto", "Braga", "Leiria"), "Lisboa", path) == 150);
+        assertEquals("Path should start in Leiria", Arrays.asList("Leiria", "Lisboa"), path);
+
+        assertTrue("Source should be its own nearest source",
+                EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, Arrays.asList("Porto", "Lisboa"), "Lisboa", path) == 0);
+        assertTrue("Path should be single vertex", path.size() == 1);
+
+        LinkedList<String> expected = new LinkedList<String>();
+        for (String dest : distanceMap.vertices()) {
+            double len = EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, "Porto", dest, expected);
+            assertTrue("Single source should match shortestPath",
+                    EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, Arrays.asList("Porto"), dest, path) == len);
+        }
+
+        // every city entered costs 100: both routes to Lisboa enter three cities, so distance decides
+        assertTrue("Entry costs should be added",
+                EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, Arrays.asList("Porto"), "Lisboa", v -> 100, path) == 635);
+        assertEquals("Path should go through Coimbra", Arrays.asList("Porto", "Aveiro", "Coimbra", "Lisboa"), path);
+    }
+
+    @Test
+    public void testKShortestPaths() {
+        System.out.println("Test of k shortest paths");
+
+        LinkedList<Double> lengths = new LinkedList<>();
+        assertTrue("Should be null if vertex does not exist", EdgeAsDoubleGraphAlgorithms.kShortestPaths(distanceMap, "Porto", "LX", 3, lengths) == null);
+        assertTrue("No paths to Évora", EdgeAsDoubleGraphAlgorithms.kShortestPaths(distanceMap, "Porto", "Évora", 3, lengths).isEmpty());
+
+        LinkedList<LinkedList<String>> paths = EdgeAsDoubleGraphAlgorithms.kShortestPaths(distanceMap, "Porto", "Lisboa", 3, lengths);
+        assertTrue("Should give 3 paths", paths.size() == 3 && lengths.size() == 3);
+        assertEquals("First is the shortest path", Arrays.asList("Porto", "Aveiro", "Coimbra", "Lisboa"), paths.get(0));
+        assertTrue("First length should be 335", lengths.get(0) == 335);
+        assertTrue("Second length should be 345", lengths.get(1) == 345);
+        assertTrue("Third length should be 365", lengths.get(2) == 365);
+
+        // the lengths of all simple paths, sorted, must match
+        LinkedList<Double> all = new LinkedList<>();
+        LinkedList<String> visited = new LinkedList<>();
+        visited.add("Porto");
+        pathLengths("Porto", "Lisboa", 0, visited, all);
+        double[] expected = new double[all.size()];
+        for (int i = 0; i < all.size(); i++) {
+            expected[i] = all.get(i);
+        }
+        Arrays.sort(expected);
+        paths = EdgeAsDoubleGraphAlgorithms.kShortestPaths(distanceMap, "Porto", "Lisboa", 100, lengths);
+        assertTrue("Should give every simple path", paths.size() == all.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue("Length of path " + i, lengths.get(i) == expected[i]);
+            assertTrue("Paths should be different", paths.indexOf(paths.get(i)) == i);
+        }
+    }
+
+    @Test
+    public void testDoubleMatrixGraph() {
+        System.out.println("Test of the algorithms on a DoubleMatrixGraph");
+
+        DoubleMatrixGraph<String> instance = new DoubleMatrixGraph<>(distanceMap, Double::doubleValue);
+        LinkedList<String> path = new LinkedList<String>();
+        LinkedList<String> expected = new LinkedList<String>();
+        assertTrue("Should be -1 if vertex does not exist", EdgeAsDoubleGraphAlgorithms.shortestPath(instance, "Porto", "LX", path) == -1);
+        assertTrue("Should be -1 if there is no path", EdgeAsDoubleGraphAlgorithms.shortestPath(instance, "Porto", "Évora", path) == -1);
+        assertTrue("Tree should be null if vertex does not exist", EdgeAsDoubleGraphAlgorithms.shortestPathTree(instance, "LX") == null);
+
+        ShortestPathTree<String> tree = EdgeAsDoubleGraphAlgorithms.shortestPathTree(instance, "Porto");
+        LinkedList<String> treePath = new LinkedList<String>();
+        for (String source : distanceMap.vertices()) {
+            for (String dest : distanceMap.vertices()) {
+                double len = EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, source, dest, expected);
+                assertTrue("Lengths should match", EdgeAsDoubleGraphAlgorithms.shortestPath(instance, source, dest, path) == len);
+                assertEquals("Paths should match", expected, path);
+
+                len = EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, Arrays.asList(source, "Faro"), dest, v -> v.length(), expected);
+                assertTrue("Multi-source lengths should match",
+                        EdgeAsDoubleGraphAlgorithms.shortestPath(instance, Arrays.asList(source, "Faro"), dest, v -> v.length(), path) == len);
+                assertEquals("Multi-source paths should match", expected, path);
+            }
+            double len = EdgeAsDoubleGraphAlgorithms.shortestPath(distanceMap, "Porto", source, expected);
+            assertTrue("Tree lengths should match", tree.path(source, treePath) == len);
+            assertEquals("Tree paths should match", expected, treePath);
+        }
+
+        LinkedList<Double> lengths = new LinkedList<>();
+        LinkedList<Double> expectedLengths = new LinkedList<>();
+        assertEquals("k shortest paths should match",
+                EdgeAsDoubleGraphAlgorithms.kShortestPaths(distanceMap, "Porto", "Lisboa", 5, expectedLengths),
+                EdgeAsDoubleGraphAlgorithms.kShortestPaths(instance, "Porto", "Lisboa", 5, lengths));
+        assertEquals("k shortest lengths should match", expectedLengths, lengths);
+
+        AdjacencyMatrixGraph<String, Double> minDist = EdgeAsDoubleGraphAlgorithms.minDistGraph(distanceMap);
+        assertEquals("minDistGraph should match", new DoubleMatrixGraph<>(minDist, Double::doubleValue),
+                EdgeAsDoubleGraphAlgorithms.minDistGraph(instance));
+        assertTrue("minDistGraph should not change the graph", instance.numEdges() == distanceMap.numEdges());
+    }
+
+    // lengths of every simple path from vert to dest that avoids visited
+    private void pathLengths(String vert, String dest, double length, LinkedList<String> visited, LinkedList<Double> lengths) {
+        if (vert.equals(dest)) {
+            lengths.add(length);
+            return;
+        }
+        for (String adj : distanceMap.directConnections(vert)) {
+            if (!visited.contains(adj)) {
+                visited.add(adj);
+                pathLengths(adj, dest, length + distanceMap.getEdge(vert, adj), visited, lengths);
+                visited.removeLast();
+            }
+        }
+    }
 }
@@ -2,9 +2,18 @@ package graphMatrix;
 
 import graphMatrix.AdjacencyMatrixGraph;
 import graphMatrix.GraphAlgorithms;
+import gameproject.FileRead;
+import gameproject.Locale;
+import gameproject.Road;
+import graphCommon.SpanningForest;
 import static java.lang.StrictMath.E;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -188,6 +197,7 @@ public class GraphAlgorithmsTest {
 
         for (int i = 0; i < 4; i++) {
             LinkedList<String> path = it.next();
+            assertTrue("Path should have " + pathsString[i].length + " cities", path.size() == pathsString[i].length);
             Iterator<String> cities = path.iterator();
             for (int j = 0; j < path.size(); j++) {
                 assertTrue("City should be" + pathsString[i][j], cities.next().compareTo(pathsString[i][j]) == 0);
@@ -198,4 +208,121 @@ public class GraphAlgorithmsTest {
 
         assertTrue("There should not be paths between Porto and Faro in the incomplete map", paths.size() == 0);
     }
+
+    /**
+     * Test of the deprecated allPaths step, from Aveiro with Porto already in
+     * the path, of class GraphAlgorithms.
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testAllPathsStep() {
+
+        System.out.println("Test of the all paths step");
+
+        String[][] pathsString = {{"Porto", "Aveiro", "Coimbra", "Leiria", "Lisboa"},
+        {"Porto", "Aveiro", "Coimbra", "Lisboa"},
+        {"Porto", "Aveiro", "Leiria", "Coimbra", "Lisboa"},
+        {"Porto", "Aveiro", "Leiria", "Lisboa"}};
+
+        LinkedList<LinkedList<String>> paths = new LinkedList<LinkedList<String>>();
+        boolean[] known = new boolean[incompleteMap.numVertices()];
+        known[incompleteMap.toIndex("Porto")] = true;
+        LinkedList<String> auxStack = new LinkedList<>();
+        auxStack.add("Porto");
+        GraphAlgorithms.allPaths(incompleteMap, incompleteMap.toIndex("Aveiro"), incompleteMap.toIndex("Lisboa"), known, auxStack, paths);
+        assertTrue("Should give the 4 paths", paths.size() == 4);
+        Iterator<LinkedList<String>> it = paths.iterator();
+        for (int i = 0; i < 4; i++) {
+            assertTrue("Path should be " + Arrays.toString(pathsString[i]), it.next().equals(Arrays.asList(pathsString[i])));
+        }
+        assertTrue("Should keep the known vertices and the stack", known[incompleteMap.toIndex("Porto")] && auxStack.size() == 1);
+    }
+
+    @Test
+    public void testTransitiveClosure() {
+        System.out.println("Test of transitive closure");
+
+        AdjacencyMatrixGraph<String, String> closure = GraphAlgorithms.transitiveClosure(incompleteMap, "dummy");
+
+        assertTrue("Should not change the graph", incompleteMap.numEdges() == 10);
+        assertTrue("Components of 7, 3 and 1 cities should give 21 + 3 edges", closure.numEdges() == 24);
+        assertTrue("Should keep the edges of the graph", closure.getEdge("Porto", "Aveiro").equals("A1"));
+        assertTrue("Braga should reach Lisboa", closure.getEdge("Lisboa", "Braga").equals("dummy"));
+        assertTrue("Viseu should reach Castelo Branco", closure.getEdge("Viseu", "Castelo Branco").equals("dummy"));
+        assertTrue("Porto should not reach Viseu", closure.getEdge("Porto", "Viseu") == null);
+        assertTrue("Faro should reach nothing", closure.outDegree("Faro") == 0);
+
+        closure = GraphAlgorithms.transitiveClosure(completeMap, "dummy");
+        assertTrue("Connected map should become complete", closure.numEdges() == 11 * 10 / 2);
+    }
+
+    @Test
+    public void testTransitiveClosureXL() {
+        System.out.println("Test of transitive closure on the XL map");
+
+        AdjacencyMatrixGraph<Locale, Road> map = new FileRead("locais_XL.txt", "pers_XL.txt").getGamebase().getMatrix();
+        checkClosure(map);
+
+        // the XL map is connected: with one road in 16 it has 110 components
+        List<Road> roads = new ArrayList<>();
+        for (Road r : map.edges()) {
+            roads.add(r);
+        }
+        for (int i = 0; i < roads.size(); i++) {
+            if (i % 16 != 0) {
+                map.removeEdge(roads.get(i).getFirst(), roads.get(i).getSecond());
+            }
+        }
+        checkClosure(map);
+    }
+
+    // Compares the closure in pools of 1 and 4 threads with a BFS from every vertex
+    private void checkClosure(AdjacencyMatrixGraph<Locale, Road> map) {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        AdjacencyMatrixGraph<Locale, Road> closure;
+        try {
+            closure = GraphAlgorithms.transitiveClosure(map, new Road(), pool);
+            assertEquals("Should not depend on the threads", GraphAlgorithms.transitiveClosure(map, new Road(), single), closure);
+        } finally {
+            single.shutdown();
+            pool.shutdown();
+        }
+
+        for (Locale l : map.vertices()) {
+            HashSet<Locale> reached = new HashSet<>(GraphAlgorithms.BFS(map, l));
+            for (Locale other : map.vertices()) {
+                if (other != l) {
+                    assertTrue("Should have an edge only to the locales reached",
+                            (closure.getEdge(l, other) != null) == reached.contains(other));
+                }
+            }
+            assertTrue("Should have one edge per locale reached", closure.outDegree(l) == reached.size() - 1);
+        }
+        for (Road r : map.edges()) {
+            assertTrue("Should keep the roads", closure.getEdge(r.getFirst(), r.getSecond()) == r);
+        }
+    }
+
+    @Test
+    public void testSpanningForest() {
+        System.out.println("Test of spanning forest");
+
+        // weight of a road is its number
+        SpanningForest<String> prim = GraphAlgorithms.prim(completeMap, e -> Integer.parseInt(e.substring(1)), false);
+        SpanningForest<String> kruskal = GraphAlgorithms.kruskal(completeMap, e -> Integer.parseInt(e.substring(1)), false);
+        assertTrue("Connected map should have 10 edges", prim.numEdges() == 10 && kruskal.numEdges() == 10);
+        assertTrue("Minimum weight should be 91", prim.totalWeight() == 91 && kruskal.totalWeight() == 91);
+        for (int i = 0; i < prim.numEdges(); i++) {
+            assertTrue("Forest edge should be in the map", completeMap.getEdge(prim.vertex(prim.orig(i)), prim.vertex(prim.dest(i))) != null);
+        }
+
+        SpanningForest<String> max = GraphAlgorithms.spanningForest(completeMap, e -> Integer.parseInt(e.substring(1)), true);
+        assertTrue("Maximum weight should match both algorithms", max.totalWeight() == GraphAlgorithms.prim(completeMap, e -> Integer.parseInt(e.substring(1)), true).totalWeight());
+        assertTrue("Maximum weight should be 148", max.totalWeight() == 148);
+
+        SpanningForest<String> forest = GraphAlgorithms.spanningForest(incompleteMap, e -> 1, false);
+        assertTrue("Three components should leave 8 edges", forest.numEdges() == 8);
+        assertTrue("Empty graph", GraphAlgorithms.kruskal(new AdjacencyMatrixGraph<String, String>(), e -> 1, false).numEdges() == 0);
+    }
 }
@@ -0,0 +1,75 @@
+package graphMatrix;
+
+import java.util.LinkedList;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author DEI-ESINF
+ */
+public class ShortestPathTreeCacheTest {
+
+    AdjacencyMatrixGraph<String, Double> distanceMap = new AdjacencyMatrixGraph<>();
+    ShortestPathTreeCache<String> instance;
+
+    public ShortestPathTreeCacheTest() {
+    }
+
+    @Before
+    public void setUp() {
+        distanceMap.insertVertex("Porto");
+        distanceMap.insertVertex("Braga");
+        distanceMap.insertVertex("Aveiro");
+        distanceMap.insertVertex("Coimbra");
+        distanceMap.insertEdge("Porto", "Braga", 60.0);
+        distanceMap.insertEdge("Porto", "Aveiro", 75.0);
+        distanceMap.insertEdge("Aveiro", "Coimbra", 60.0);
+
+        instance = new ShortestPathTreeCache<>(2, distanceMap::version,
+                v -> EdgeAsDoubleGraphAlgorithms.shortestPathTree(distanceMap, v));
+    }
+
+    @Test
+    public void testGet() {
+        System.out.println("Test of get");
+
+        assertTrue("Unknown vertex should give null", instance.get("LX") == null);
+        assertTrue("Unknown vertex should not be cached", instance.size() == 0);
+
+        ShortestPathTree<String> tree = instance.get("Porto");
+        assertTrue("Distance to Coimbra should be 135", tree.distance("Coimbra") == 135);
+        assertSame("Second get should come from the cache", tree, instance.get("Porto"));
+        assertTrue("There should be one hit", instance.hits() == 1);
+        assertTrue("There should be two misses", instance.misses() == 2);
+
+        distanceMap.insertEdge("Braga", "Coimbra", 10.0);
+        ShortestPathTree<String> newTree = instance.get("Porto");
+        assertNotSame("Changed graph should compute a new tree", tree, newTree);
+        assertTrue("Distance to Coimbra should now be 70", newTree.distance("Coimbra") == 70);
+
+        LinkedList<String> path = new LinkedList<>();
+        assertTrue("Path length should be 70", newTree.path("Coimbra", path) == 70);
+        assertTrue("Path should go through Braga", path.get(1).equals("Braga"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsed() {
+        System.out.println("Test of the size limit");
+
+        ShortestPathTree<String> porto = instance.get("Porto");
+        instance.get("Braga");
+        instance.get("Porto");
+        instance.get("Aveiro");
+        assertTrue("Cache should keep at most 2 trees", instance.size() == 2);
+        assertSame("Porto was used recently and should stay", porto, instance.get("Porto"));
+
+        int misses = instance.misses();
+        instance.get("Braga");
+        assertTrue("Braga should have been evicted", instance.misses() == misses + 1);
+
+        instance.clear();
+        assertTrue("Cache should be empty", instance.size() == 0);
+    }
+}